@@ -0,0 +1,211 @@
+package com.example.backend.config;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+
+import java.text.Normalizer;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Normalizarea datărilor libere din arp:startedAtTime ("1890", "c. 1900-1910", "sec. XIX", "a doua jumătate
+// a sec. XVIII", "1890s", "sec. II î.Hr.") într-un interval de ani [earliest, latest]. La încărcare, fiecare
+// creație primește arp:earliestYear / arp:latestYear ca xsd:gYear, folosite de indexul de timp și de fațete.
+public class DateNormalizer {
+
+    public static final String ARP = "http://arp.ro/schema#";
+    public static final Node STARTED_AT = NodeFactory.createURI(ARP + "startedAtTime");
+    public static final Node EARLIEST_YEAR = NodeFactory.createURI(ARP + "earliestYear");
+    public static final Node LATEST_YEAR = NodeFactory.createURI(ARP + "latestYear");
+    private static final Node GENERATED_BY = NodeFactory.createURI("http://www.w3.org/ns/prov#wasGeneratedBy");
+
+    public record YearRange(int earliest, int latest) {}
+
+    // 1890, -0100, 1890-05-02, +1890-00-00T00:00:00Z (Wikidata); "1900-10" rămâne interval, nu lună
+    private static final Pattern ISO = Pattern.compile("\\+?(-?\\d{4})(-\\d{2}-\\d{2}(t\\S*)?)?");
+    private static final Pattern BEFORE_CHRIST = Pattern.compile("i\\.?\\s*hr\\b|i\\.?\\s*e\\.?\\s*n\\b|\\bb\\.?c\\.?e?\\b|\\ba\\.?\\s*chr\\b");
+    private static final Pattern ROMAN_CENTURY = Pattern.compile(
+            "\\b(?:sec(?:ol(?:ul|ului|ele|elor)?)?|s|veac(?:ul)?)\\b\\.?\\s*(?:al\\s+|a\\s+)?([ivxl]+|\\d{1,2})\\b(?:-lea)?"
+                    + "(?:\\s*[-–/]\\s*(?:al\\s+)?([ivxl]+|\\d{1,2})\\b)?");
+    private static final Pattern ORDINAL_CENTURY = Pattern.compile(
+            "\\b(\\d{1,2})(?:st|nd|rd|th)?(?:\\s*[-–/]\\s*(\\d{1,2})(?:st|nd|rd|th)?)?\\s*(?:century|centuries|c\\.)");
+    private static final Pattern DECADE = Pattern.compile("\\b(\\d{3}0)\\s*'?s\\b|\\banii\\s+(\\d{3}0)\\b");
+    private static final Pattern YEAR_RANGE = Pattern.compile("\\b(\\d{3,4})\\s*[-–/]\\s*(\\d{1,4})\\b");
+    private static final Pattern YEAR = Pattern.compile("\\b\\d{3,4}\\b");
+    private static final Pattern ANY_YEAR = Pattern.compile("\\b\\d{1,4}\\b");
+
+    // Calificativele unui secol, și prescurtate ("sf. sec. XIX", "inc. sec. XX", "prima jum. a sec. XVIII")
+    private static final Pattern FIRST_HALF = Pattern.compile("\\bprima\\s+jum|\\b(?:first|1st)\\s+half");
+    private static final Pattern SECOND_HALF = Pattern.compile("\\bdoua\\s+jum|\\b(?:second|2nd)\\s+half");
+    private static final Pattern EARLY = Pattern.compile("\\binc(?:eput\\w*)?\\b|\\bearly\\b|\\bbeginning\\b");
+    private static final Pattern MIDDLE = Pattern.compile("\\bmij(?:loc\\w*)?\\b|\\bmid");
+    private static final Pattern LATE = Pattern.compile("\\bsf(?:arsit\\w*)?\\b|\\blate\\b|\\bend\\s+of\\b");
+
+    private DateNormalizer() {}
+
+    // null dacă textul nu conține o datare recunoscută sau plauzibilă
+    public static YearRange parse(String value) {
+        if (value == null || value.isBlank()) return null;
+        String text = fold(value);
+
+        Matcher iso = ISO.matcher(text);
+        if (iso.matches()) return checked(Integer.parseInt(iso.group(1)), Integer.parseInt(iso.group(1)));
+
+        boolean bc = BEFORE_CHRIST.matcher(text).find();
+
+        Matcher century = ROMAN_CENTURY.matcher(text);
+        if (!century.find()) {
+            century = ORDINAL_CENTURY.matcher(text);
+            if (!century.find()) century = null;
+        }
+        if (century != null) {
+            int first = number(century.group(1));
+            if (first <= 0) return null;
+            if (century.group(2) != null) {
+                // "secolele XVIII-XIX": de la începutul primului la sfârșitul ultimului
+                int last = number(century.group(2));
+                if (last <= 0) return null;
+                YearRange from = centuryPart(first, bc, "");
+                YearRange to = centuryPart(last, bc, "");
+                return checked(Math.min(from.earliest(), to.earliest()), Math.max(from.latest(), to.latest()));
+            }
+
+            // "sf. sec. XIX - inc. sec. XX": fiecare secol cu calificativul scris înaintea lui; la un singur secol
+            // calificativul poate fi oriunde ("sec. XIX, prima jumătate")
+            List<MatchResult> mentions = new ArrayList<>();
+            do {
+                if (number(century.group(1)) <= 0) return null;
+                mentions.add(century.toMatchResult());
+            } while (century.find());
+
+            int earliest = Integer.MAX_VALUE;
+            int latest = Integer.MIN_VALUE;
+            for (int i = 0; i < mentions.size(); i++) {
+                String qualifier = mentions.size() == 1
+                        ? text
+                        : text.substring(i == 0 ? 0 : mentions.get(i - 1).end(), mentions.get(i).start());
+                YearRange part = centuryPart(number(mentions.get(i).group(1)), bc, qualifier);
+                earliest = Math.min(earliest, part.earliest());
+                latest = Math.max(latest, part.latest());
+            }
+            return checked(earliest, latest);
+        }
+
+        Matcher decade = DECADE.matcher(text);
+        if (decade.find()) {
+            int year = Integer.parseInt(decade.group(1) != null ? decade.group(1) : decade.group(2));
+            return checked(year, year + 9);
+        }
+
+        // Interval ("c. 1900-1910", "1900/10") sau an izolat ("12.05.1890"); zilele și lunile nu au 3-4 cifre
+        int first;
+        int last;
+        Matcher range = YEAR_RANGE.matcher(text);
+        if (range.find()) {
+            String start = range.group(1);
+            String end = range.group(2);
+            first = Integer.parseInt(start);
+            // "1900-10" înseamnă 1900-1910
+            last = end.length() < start.length() && !bc
+                    ? Integer.parseInt(start.substring(0, start.length() - end.length()) + end)
+                    : Integer.parseInt(end);
+            // "1890-05" e an și lună, nu un interval spre trecut
+            if (last < first && !bc) last = first;
+        } else {
+            Matcher year = bc ? ANY_YEAR.matcher(text) : YEAR.matcher(text);
+            if (!year.find()) return null;
+            first = last = Integer.parseInt(year.group());
+        }
+        if (bc) {
+            first = -first;
+            last = -last;
+        }
+        return checked(Math.min(first, last), Math.max(first, last));
+    }
+
+    // Forma lexicală xsd:gYear ("1890", "-0100")
+    public static String gYear(int year) {
+        return year < 0 ? String.format("-%04d", -year) : String.format("%04d", year);
+    }
+
+    // Adaugă arp:earliestYear / arp:latestYear creațiilor (obiecte ale prov:wasGeneratedBy) cu o datare
+    // recunoscută; idempotent, întoarce câte creații au primit intervalul acum
+    public static int addYearBounds(Graph graph) {
+        List<Triple> added = new ArrayList<>();
+        graph.find(Node.ANY, STARTED_AT, Node.ANY).forEach(t -> {
+            if (!t.getObject().isLiteral() || graph.contains(t.getSubject(), EARLIEST_YEAR, Node.ANY)) return;
+            if (!graph.contains(Node.ANY, GENERATED_BY, t.getSubject())) return;
+            YearRange range = parse(t.getObject().getLiteralLexicalForm());
+            if (range == null) return;
+            added.add(Triple.create(t.getSubject(), EARLIEST_YEAR, year(range.earliest())));
+            added.add(Triple.create(t.getSubject(), LATEST_YEAR, year(range.latest())));
+        });
+        added.forEach(graph::add);
+        return added.size() / 2;
+    }
+
+    private static Node year(int year) {
+        return NodeFactory.createLiteralDT(gYear(year), XSDDatatype.XSDgYear);
+    }
+
+    // Secolul întreg sau partea cerută de calificativ ("prima jumătate", "începutul", "late", ...)
+    private static YearRange centuryPart(int century, boolean bc, String text) {
+        int earliest = (century - 1) * 100 + 1;
+        int span = 100;
+        int offset = 0;
+        if (FIRST_HALF.matcher(text).find()) {
+            span = 50;
+        } else if (SECOND_HALF.matcher(text).find()) {
+            span = 50;
+            offset = 50;
+        } else if (EARLY.matcher(text).find()) {
+            span = 33;
+        } else if (MIDDLE.matcher(text).find()) {
+            span = 34;
+            offset = 33;
+        } else if (LATE.matcher(text).find()) {
+            span = 33;
+            offset = 67;
+        }
+        // În era veche secolul se numără înapoi: sec. II î.Hr. = 200-101 î.Hr.
+        int from = (bc ? -century * 100 : earliest) + offset;
+        return new YearRange(from, from + span - 1);
+    }
+
+    private static YearRange checked(int earliest, int latest) {
+        // O datare care începe în viitor e o greșeală de introducere ("3183"); una care doar se termină după anul
+        // curent ("sec. XXI", "2020s") e tăiată la anul curent
+        int now = Year.now().getValue();
+        if (earliest == 0 && latest == 0 || earliest > now) return null;
+        return new YearRange(earliest, Math.min(latest, now));
+    }
+
+    private static int number(String value) {
+        if (Character.isDigit(value.charAt(0))) return Integer.parseInt(value);
+        int total = 0;
+        int previous = 0;
+        for (int i = value.length() - 1; i >= 0; i--) {
+            int digit = switch (value.charAt(i)) {
+                case 'i' -> 1;
+                case 'v' -> 5;
+                case 'x' -> 10;
+                case 'l' -> 50;
+                default -> 0;
+            };
+            total += digit < previous ? -digit : digit;
+            previous = Math.max(previous, digit);
+        }
+        return total;
+    }
+
+    private static String fold(String value) {
+        String text = Normalizer.normalize(value.trim().toLowerCase(), Normalizer.Form.NFD);
+        return text.replaceAll("\\p{M}", "");
+    }
+}
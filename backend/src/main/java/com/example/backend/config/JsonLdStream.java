@@ -0,0 +1,119 @@
+package com.example.backend.config;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.sparql.core.Quad;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+// Scriere JSON-LD în flux: scriitorul JSON-LD din Jena are nevoie de tot graful în memorie, așa că aici emitem
+// forma expandată, câte un obiect pentru fiecare șir de triple consecutive cu același subiect. Un subiect care
+// reapare mai târziu, sau un predicat care reapare în obiectul curent (CONSTRUCT cu mai multe triple în șablon
+// le alternează), primește un obiect nou cu același "@id", ca o cheie să nu apară de două ori în același obiect;
+// consumatorii JSON-LD le unesc după "@id".
+public class JsonLdStream implements StreamRDF {
+
+    private final Writer out;
+    private Node subject;
+    private Node predicate;
+    // Predicatele deja scrise în obiectul curent
+    private final Set<Node> written = new HashSet<>();
+    private boolean first = true;
+
+    public JsonLdStream(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void start() {
+        write("[");
+    }
+
+    @Override
+    public void triple(Triple triple) {
+        if (!triple.getSubject().equals(subject)
+                || !triple.getPredicate().equals(predicate) && written.contains(triple.getPredicate())) {
+            if (subject != null) write("]}");
+            write(first ? "\n" : ",\n");
+            first = false;
+            write("{\"@id\":" + quote(id(triple.getSubject())) + "," + quote(triple.getPredicate().getURI()) + ":[");
+            subject = triple.getSubject();
+            predicate = triple.getPredicate();
+            written.clear();
+            written.add(predicate);
+        } else if (!triple.getPredicate().equals(predicate)) {
+            write("]," + quote(triple.getPredicate().getURI()) + ":[");
+            predicate = triple.getPredicate();
+            written.add(predicate);
+        } else {
+            write(",");
+        }
+        write(object(triple.getObject()));
+    }
+
+    @Override
+    public void quad(Quad quad) {
+        triple(quad.asTriple());
+    }
+
+    @Override
+    public void base(String base) {}
+
+    @Override
+    public void prefix(String prefix, String iri) {}
+
+    @Override
+    public void finish() {
+        if (subject != null) write("]}");
+        write("\n]\n");
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String object(Node node) {
+        if (!node.isLiteral()) return "{\"@id\":" + quote(id(node)) + "}";
+        String value = "{\"@value\":" + quote(node.getLiteralLexicalForm());
+        if (!node.getLiteralLanguage().isEmpty()) return value + ",\"@language\":" + quote(node.getLiteralLanguage()) + "}";
+        if (XSDDatatype.XSDstring.getURI().equals(node.getLiteralDatatypeURI())) return value + "}";
+        return value + ",\"@type\":" + quote(node.getLiteralDatatypeURI()) + "}";
+    }
+
+    private static String id(Node node) {
+        return node.isBlank() ? "_:" + node.getBlankNodeLabel() : node.getURI();
+    }
+
+    private static String quote(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private void write(String text) {
+        try {
+            out.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
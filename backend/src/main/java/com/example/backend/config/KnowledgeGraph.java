@@ -0,0 +1,222 @@
+package com.example.backend.config;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.DatasetGraphFactory;
+import org.apache.jena.system.Txn;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static com.example.backend.config.KnowledgeGraphLoader.*;
+
+// Un singur dataset cu câte un graf numit per sursă; repository-urile aleg grafurile după "domain",
+// iar endpoint-ul SPARQL vede reuniunea lor ca graf implicit.
+// Fiecare încărcare produce o versiune nouă (dataset + indecși derivați), construită în fundal și publicată
+// atomic; cererile aflate în curs termină pe versiunea pe care au început.
+@Component
+public class KnowledgeGraph {
+
+    private final RDFConfig config;
+    private final ObjectProvider<KnowledgeGraphListener> listeners;
+    private final AtomicReference<Version> current = new AtomicReference<>();
+    private final ExecutorService reloadExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "knowledge-graph-reload");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @Value("${arp.reload.watch:false}")
+    private boolean watch;
+
+    // Amprenta surselor din care a fost construită versiunea publicată
+    private volatile String fingerprint;
+    // Reîncărcarea programată care încă nu a pornit; cererile care sosesc între timp o așteaptă pe aceeași
+    private CompletableFuture<Version> queued;
+
+    public KnowledgeGraph(RDFConfig config, ObjectProvider<KnowledgeGraphListener> listeners) {
+        this.config = config;
+        this.listeners = listeners;
+
+        this.fingerprint = KnowledgeGraphLoader.fingerprint();
+        publish(config.loadDataset());
+    }
+
+    public Version current() {
+        return current.get();
+    }
+
+    // Domeniul așa cum îl alege Version.artworks(): "ro", "int" sau "union" pentru orice altă valoare; pentru chei de cache
+    public static String domain(String domain) {
+        return Objects.equals(domain, "ro") || Objects.equals(domain, "int") ? domain : "union";
+    }
+
+    // Reîncărcare în fundal; o singură reîncărcare rulează la un moment dat, iar cererile venite cât una așteaptă
+    // în coadă se unesc cu ea (o reîncărcare deja pornită poate să nu vadă fișierele schimbate după start)
+    public synchronized CompletableFuture<Version> reload() {
+        if (queued != null) return queued;
+        CompletableFuture<Version> future = new CompletableFuture<>();
+        queued = future;
+        reloadExecutor.execute(() -> {
+            synchronized (this) {
+                if (queued == future) queued = null;
+            }
+            try {
+                future.complete(rebuild());
+            } catch (Throwable e) {
+                System.err.println("[reload] Reîncărcarea a eșuat, rămâne versiunea " + current().number() + ": " + e);
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private Version rebuild() {
+        long start = System.currentTimeMillis();
+        // Amprenta de dinainte de citire: un fișier schimbat în timpul încărcării declanșează încă o reîncărcare
+        String sources = KnowledgeGraphLoader.fingerprint();
+        Dataset dataset = config.reloadDataset();
+        Version version;
+        try {
+            version = publish(dataset);
+        } catch (RuntimeException e) {
+            config.discard(dataset);
+            throw e;
+        }
+        config.published(dataset);
+        // Doar după publicare: dacă reîncărcarea eșuează, watchSources o reîncearcă la următoarea verificare
+        fingerprint = sources;
+        System.out.println("[reload] Versiunea " + version.number() + " publicată în "
+                + (System.currentTimeMillis() - start) + " ms");
+        return version;
+    }
+
+    @Scheduled(fixedDelayString = "${arp.reload.interval:PT30S}", initialDelayString = "${arp.reload.interval:PT30S}")
+    public void watchSources() {
+        if (!watch) return;
+        if (!Objects.equals(fingerprint, KnowledgeGraphLoader.fingerprint())) {
+            System.out.println("[reload] Fișierele sursă s-au schimbat, construim o versiune nouă");
+            try {
+                reload().join();
+            } catch (CompletionException e) {
+                // Deja raportat; amprenta nu s-a schimbat, deci încercăm din nou la următoarea verificare
+            }
+        }
+    }
+
+    private Version publish(Dataset dataset) {
+        Version previous = current.get();
+        Version version = new Version(previous == null ? 1 : previous.number() + 1, dataset);
+
+        // Indecșii derivați se construiesc înainte de publicare, ca versiunea să fie completă când devine vizibilă
+        listeners.orderedStream().forEach(listener -> listener.prepare(version));
+
+        current.set(version);
+        listeners.orderedStream().forEach(listener -> listener.published(version));
+        return version;
+    }
+
+    public static class Version {
+
+        private final long number;
+        private final Instant loadedAt = Instant.now();
+        private final Dataset dataset;
+        private final Dataset sparqlDataset;
+        private final Map<Class<?>, Object> attachments = new ConcurrentHashMap<>();
+        private final Map<String, Object> cache = new ConcurrentHashMap<>();
+
+        Version(long number, Dataset dataset) {
+            this.number = number;
+            this.dataset = dataset;
+            this.sparqlDataset = unionView(dataset);
+        }
+
+        public long number() {
+            return number;
+        }
+
+        public Instant loadedAt() {
+            return loadedAt;
+        }
+
+        public Dataset dataset() {
+            return dataset;
+        }
+
+        // ro -> opere CIMEC, int -> opere Wikidata, altfel reuniunea lor
+        public Model artworks(String domain) {
+            if (Objects.equals(domain, "ro")) {
+                return dataset.getNamedModel(GRAPH_RO);
+            } else if (Objects.equals(domain, "int")) {
+                return dataset.getNamedModel(GRAPH_INT);
+            }
+            return ModelFactory.createUnion(dataset.getNamedModel(GRAPH_RO), dataset.getNamedModel(GRAPH_INT));
+        }
+
+        public Model artists() {
+            return dataset.getNamedModel(GRAPH_ARTISTS);
+        }
+
+        // Mapările materialelor și categoriilor la Getty AAT
+        public Model getty() {
+            return dataset.getNamedModel(GRAPH_GETTY);
+        }
+
+        // Dataset-ul interogat de /sparql: grafurile numite + reuniunea lor ca graf implicit (fără copii)
+        public Dataset sparqlDataset() {
+            return sparqlDataset;
+        }
+
+        public <T> T calculateRead(Supplier<T> action) {
+            return Txn.calculateRead(dataset, action);
+        }
+
+        public void executeRead(Runnable action) {
+            Txn.executeRead(dataset, action);
+        }
+
+        public <T> void attach(Class<T> type, T value) {
+            attachments.put(type, value);
+        }
+
+        public <T> T get(Class<T> type) {
+            return type.cast(attachments.get(type));
+        }
+
+        // Valori calculate o singură dată pentru această versiune (ex. totaluri); dispar odată cu ea
+        @SuppressWarnings("unchecked")
+        public <T> T cached(String key, Supplier<T> supplier) {
+            return (T) cache.computeIfAbsent(key, k -> supplier.get());
+        }
+
+        private static Dataset unionView(Dataset dataset) {
+            DatasetGraph base = dataset.asDatasetGraph();
+            DatasetGraph view = DatasetGraphFactory.createGeneral(base.getUnionGraph());
+
+            List<Node> names = new ArrayList<>();
+            Txn.executeRead(dataset, () -> base.listGraphNodes().forEachRemaining(names::add));
+            for (Node name : names) {
+                view.addGraph(name, base.getGraph(name));
+            }
+            return DatasetFactory.wrap(view);
+        }
+    }
+}
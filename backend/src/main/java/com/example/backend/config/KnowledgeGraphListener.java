@@ -0,0 +1,12 @@
+package com.example.backend.config;
+
+// Componentele care țin date derivate din graf (indecși, cache-uri) le construiesc aici pentru fiecare
+// versiune nouă, înainte ca aceasta să fie publicată, și le atașează versiunii cu Version.attach().
+public interface KnowledgeGraphListener {
+
+    void prepare(KnowledgeGraph.Version version);
+
+    // Apelat după ce "version" a devenit versiunea curentă; aici se face vizibil ce nu poate fi atașat versiunii
+    default void published(KnowledgeGraph.Version version) {
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.backend.config;
+
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.GraphUtil;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFLanguages;
+import org.apache.jena.riot.system.stream.StreamManager;
+import org.apache.jena.atlas.web.TypedInputStream;
+import org.apache.jena.system.Txn;
+import org.apache.jena.tdb2.loader.DataLoader;
+import org.apache.jena.tdb2.loader.LoaderFactory;
+import org.apache.jena.system.progress.MonitorOutput;
+import org.apache.jena.sparql.graph.GraphFactory;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+public class KnowledgeGraphLoader {
+
+    // Un graf numit pentru fiecare sursă de date
+    public static final String GRAPH_RO = "http://arp.ro/graph/ro";
+    public static final String GRAPH_INT = "http://arp.ro/graph/int";
+    public static final String GRAPH_ARTISTS = "http://arp.ro/graph/artists";
+    public static final String GRAPH_MUSEUMS = "http://arp.ro/graph/museums";
+    public static final String GRAPH_GETTY = "http://arp.ro/graph/getty";
+
+    public static final Map<String, List<String>> SOURCES = new LinkedHashMap<>();
+
+    static {
+        SOURCES.put(GRAPH_RO, List.of("artworks_arp.ttl"));
+        SOURCES.put(GRAPH_INT, List.of("artworks_arp_int.ttl"));
+        SOURCES.put(GRAPH_ARTISTS, List.of("artists_wikidata_getty.ttl", "artists_wikidata_getty_int.ttl"));
+        SOURCES.put(GRAPH_MUSEUMS, List.of("museums_wikidata_getty.ttl", "museums_wikidata_getty_int.ttl"));
+        SOURCES.put(GRAPH_GETTY, List.of("getty-materials.ttl", "getty-categories.ttl"));
+    }
+
+    // Fișierele suplimentare din directorul extern sunt repartizate după prefix
+    private static final Map<String, String> PREFIXES = new LinkedHashMap<>();
+
+    static {
+        PREFIXES.put("artworks_arp_int", GRAPH_INT);
+        PREFIXES.put("artworks_arp", GRAPH_RO);
+        PREFIXES.put("artists_", GRAPH_ARTISTS);
+        PREFIXES.put("museums_", GRAPH_MUSEUMS);
+        PREFIXES.put("getty-", GRAPH_GETTY);
+    }
+
+    private static final String DATA_DIR = "data_ttl/";
+
+    // Director extern opțional (arp.reload.data-dir), cu prioritate față de fișierele din aplicație
+    private static volatile Path externalDir;
+
+    public static void setExternalDir(String dir) {
+        externalDir = (dir == null || dir.isBlank()) ? null : Path.of(dir);
+    }
+
+    // Directorul extern, apoi directorul curent, altfel classpath (data_ttl/)
+    public static String resolve(String file) {
+        Path dir = externalDir;
+        if (dir != null && Files.exists(dir.resolve(file))) {
+            return dir.resolve(file).toString();
+        }
+        if (new File(file).exists()) {
+            return file;
+        }
+        return DATA_DIR + file;
+    }
+
+    // SOURCES + fișierele .ttl noi apărute în directorul extern
+    public static Map<String, List<String>> sources() {
+        Map<String, List<String>> sources = new LinkedHashMap<>();
+        SOURCES.forEach((graph, files) -> sources.put(graph, new ArrayList<>(files)));
+
+        Path dir = externalDir;
+        if (dir == null || !Files.isDirectory(dir)) {
+            return sources;
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(".ttl"))
+                    .filter(name -> !allFiles(sources).contains(name))
+                    .sorted()
+                    .forEach(name -> {
+                        String graph = graphFor(name);
+                        if (graph == null) {
+                            System.err.println("[load] Nu știu în ce graf să pun " + name + ", îl ignor");
+                            return;
+                        }
+                        sources.get(graph).add(name);
+                    });
+        } catch (IOException e) {
+            System.err.println("[load] Nu pot citi directorul " + dir + ": " + e.getMessage());
+        }
+        return sources;
+    }
+
+    private static String graphFor(String fileName) {
+        for (Map.Entry<String, String> prefix : PREFIXES.entrySet()) {
+            if (fileName.startsWith(prefix.getKey())) {
+                return prefix.getValue();
+            }
+        }
+        return null;
+    }
+
+    // Fișier local sau resursă din classpath (inclusiv din jar)
+    public static long lastModified(String file) throws IOException {
+        String location = resolve(file);
+        File local = new File(location);
+        if (local.exists()) {
+            return local.lastModified();
+        }
+        URL url = KnowledgeGraphLoader.class.getClassLoader().getResource(location);
+        if (url == null) {
+            throw new FileNotFoundException(location);
+        }
+        URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        return connection.getLastModified();
+    }
+
+    public static long size(String file) throws IOException {
+        String location = resolve(file);
+        File local = new File(location);
+        if (local.exists()) {
+            return local.length();
+        }
+        URL url = KnowledgeGraphLoader.class.getClassLoader().getResource(location);
+        if (url == null) {
+            throw new FileNotFoundException(location);
+        }
+        URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        return connection.getContentLengthLong();
+    }
+
+    // Amprenta surselor (locație + dată modificare + mărime); se schimbă când apare, dispare sau se modifică un fișier
+    public static String fingerprint() {
+        StringBuilder sb = new StringBuilder();
+        for (String file : allFiles()) {
+            sb.append(resolve(file)).append('@');
+            try {
+                sb.append(lastModified(file)).append('/').append(size(file));
+            } catch (IOException e) {
+                sb.append("missing");
+            }
+            sb.append(';');
+        }
+        return sb.toString();
+    }
+
+    // Încarcă toate sursele într-un dataset în memorie, fiecare în graful ei.
+    // Fișierele sunt parsate în paralel în grafuri separate, apoi publicate împreună într-o singură tranzacție.
+    public static void loadInto(Dataset ds) {
+        long start = System.currentTimeMillis();
+        List<ParsedFile> parsed = parseAll(sources());
+
+        Txn.executeWrite(ds, () -> {
+            for (ParsedFile file : parsed) {
+                GraphUtil.addInto(ds.getNamedModel(file.graphName()).getGraph(), file.graph());
+            }
+        });
+        System.out.printf("[load] %d fișiere încărcate în %d ms%n", parsed.size(), System.currentTimeMillis() - start);
+    }
+
+    record ParsedFile(String graphName, String file, Graph graph) {}
+
+    private static List<ParsedFile> parseAll(Map<String, List<String>> sources) {
+        int threads = Math.min(allFiles(sources).size(), Runtime.getRuntime().availableProcessors());
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<ParsedFile>> futures = new ArrayList<>();
+            for (Map.Entry<String, List<String>> source : sources.entrySet()) {
+                for (String file : source.getValue()) {
+                    futures.add(pool.submit(() -> parse(source.getKey(), file)));
+                }
+            }
+
+            List<ParsedFile> parsed = new ArrayList<>();
+            for (Future<ParsedFile> future : futures) {
+                parsed.add(future.get());
+            }
+            return parsed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Încărcarea a fost întreruptă", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Nu am putut parsa sursele RDF", e.getCause());
+        }
+    }
+
+    private static ParsedFile parse(String graphName, String file) {
+        long start = System.currentTimeMillis();
+        Graph graph = GraphFactory.createDefaultGraph();
+        RDFDataMgr.read(graph, resolve(file));
+        int dated = DateNormalizer.addYearBounds(graph);
+        System.out.printf("[load] %s: %d triple, %d datări normalizate, în %d ms (%s)%n",
+                file, graph.size(), dated, System.currentTimeMillis() - start, Thread.currentThread().getName());
+        return new ParsedFile(graphName, file, graph);
+    }
+
+    public static List<String> allFiles() {
+        return allFiles(sources());
+    }
+
+    private static List<String> allFiles(Map<String, List<String>> sources) {
+        return sources.values().stream().flatMap(List::stream).toList();
+    }
+
+    // Încarcă toate sursele în baza TDB2, fiecare în graful ei. Se rulează pe o bază goală: la prima pornire și la fiecare reîncărcare (într-o generație nouă).
+    public static void loadIntoTdb2(Dataset ds) {
+        MonitorOutput output = (fmt, args) -> System.out.println("[TDB2] " + String.format(fmt, args));
+
+        for (Map.Entry<String, List<String>> source : sources().entrySet()) {
+            DataLoader loader = LoaderFactory.parallelLoader(
+                    ds.asDatasetGraph(), NodeFactory.createURI(source.getKey()), output);
+
+            loader.startBulk();
+            try {
+                for (String file : source.getValue()) {
+                    String location = resolve(file);
+                    try (TypedInputStream in = StreamManager.get().open(location)) {
+                        if (in == null) {
+                            throw new IllegalStateException("Cannot find RDF source: " + location);
+                        }
+                        Lang lang = RDFLanguages.filenameToLang(location, Lang.TURTLE);
+                        loader.loadFromInputStream(location, in, lang);
+                    }
+                }
+                loader.finishBulk();
+            } catch (RuntimeException e) {
+                loader.finishException(e);
+                throw e;
+            }
+        }
+        addYearBounds(ds);
+    }
+
+    // Intervalele de ani normalizate (vezi DateNormalizer) pentru creațiile care nu le au încă, în fiecare graf.
+    // Încărcarea în masă din TDB2 nu trece prin parse(), iar bazele construite înainte nu le au deloc.
+    public static void addYearBounds(Dataset ds) {
+        int dated = Txn.calculateWrite(ds, () -> {
+            int total = 0;
+            for (String graphName : sources().keySet()) {
+                total += DateNormalizer.addYearBounds(ds.asDatasetGraph().getGraph(NodeFactory.createURI(graphName)));
+            }
+            return total;
+        });
+        if (dated > 0) System.out.println("[load] " + dated + " datări normalizate în TDB2");
+    }
+
+    public static boolean isEmpty(Dataset ds) {
+        return Txn.calculateRead(ds, () -> !ds.listNames().hasNext() && ds.getDefaultModel().isEmpty());
+    }
+}
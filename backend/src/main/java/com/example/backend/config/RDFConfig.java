@@ -2,51 +2,185 @@ package com.example.backend.config;
 
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
-import org.apache.jena.riot.RDFDataMgr;
-import org.springframework.context.annotation.Bean;
+import org.apache.jena.tdb2.TDB2Factory;
+import org.apache.jena.tdb2.sys.TDBInternal;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Configuration
 public class RDFConfig {
 
-    @Bean
-    public Model artworkModel() {
-        Model model = ModelFactory.createDefaultModel();
-        RDFDataMgr.read(model, "artworks_arp.ttl");
-        return model;
+    // "memory" = parsăm fișierele .ttl la fiecare pornire, "tdb2" = bază de date persistentă pe disc
+    @Value("${arp.storage.mode:memory}")
+    private String storageMode;
+
+    @Value("${arp.storage.tdb2-location:data/tdb2}")
+    private String tdb2Location;
+
+    // Snapshot binar (RDF Thrift) folosit în modul "memory" pentru pornire rapidă
+    @Value("${arp.snapshot.enabled:true}")
+    private boolean snapshotEnabled;
+
+    @Value("${arp.snapshot.location:data/snapshot}")
+    private String snapshotLocation;
+
+    @Value("${arp.snapshot.compression:gzip}")
+    private String snapshotCompression;
+
+    // Director extern cu fișiere .ttl noi sau modificate (opțional)
+    @Value("${arp.reload.data-dir:}")
+    private String dataDir;
+
+    // Generația TDB2 servită acum și cea de dinainte (cererile începute pe versiunea veche încă o citesc)
+    private Generation tdb2;
+    private Generation previousTdb2;
+    private final Map<Dataset, Path> pending = new ConcurrentHashMap<>();
+
+    private record Generation(Dataset dataset, Path location) {}
+
+    public boolean isTdb2() {
+        return "tdb2".equalsIgnoreCase(storageMode);
+    }
+
+    // Un singur dataset, cu câte un graf numit pentru fiecare sursă (vezi KnowledgeGraphLoader.SOURCES)
+    public Dataset loadDataset() {
+        KnowledgeGraphLoader.setExternalDir(dataDir);
+        if (isTdb2()) {
+            return tdb2Dataset();
+        }
+        return memoryDataset();
+    }
+
+    // Reîncărcarea produce mereu un dataset nou, separat de cel servit: în memorie unul gol umplut din surse, în TDB2
+    // o bază nouă într-un director alăturat (<tdb2-location>-<n>), construită cu încărcătorul în masă. Versiunea
+    // servită nu vede nimic din încărcare; trecem pe baza nouă abia după publicare (vezi published)
+    public Dataset reloadDataset() {
+        KnowledgeGraphLoader.setExternalDir(dataDir);
+        if (!isTdb2()) {
+            return memoryDataset();
+        }
+        Path location = Path.of(tdb2Location + "-" + System.currentTimeMillis());
+        long start = System.currentTimeMillis();
+        Dataset ds = TDB2Factory.connectDataset(location.toString());
+        pending.put(ds, location);
+        try {
+            KnowledgeGraphLoader.loadIntoTdb2(ds);
+        } catch (RuntimeException e) {
+            discard(ds);
+            throw e;
+        }
+        System.out.println("[reload] TDB2 construit în " + location + " (" + (System.currentTimeMillis() - start) + " ms)");
+        return ds;
     }
 
-    @Bean
-    public Model artistModel() {
-        Model model = ModelFactory.createDefaultModel();
-        RDFDataMgr.read(model, "artists_wikidata_getty.ttl");
-        RDFDataMgr.read(model, "artists_wikidata_getty_int.ttl");
-        return model;
+    // Versiunea cu "ds" a fost publicată: în TDB2 baza nouă devine cea deschisă la pornire, iar generația de
+    // dinaintea celei precedente (fără cititori de două reîncărcări încoace) este închisă și ștearsă
+    public synchronized void published(Dataset ds) {
+        Path location = pending.remove(ds);
+        if (location == null) return;
+        try {
+            Path pointer = currentPointer();
+            Path temp = pointer.resolveSibling(pointer.getFileName() + ".tmp");
+            Files.writeString(temp, location.toString());
+            Files.move(temp, pointer, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("[reload] Nu am putut salva generația TDB2 curentă: " + e.getMessage());
+        }
+        if (previousTdb2 != null) retire(previousTdb2);
+        previousTdb2 = tdb2;
+        tdb2 = new Generation(ds, location);
     }
 
-    @Bean
-    public Model wikiModel() {
-        Model model = ModelFactory.createDefaultModel();
-        RDFDataMgr.read(model, "artworks_arp_int.ttl");
-        return model;
+    // Încărcarea sau pregătirea versiunii a eșuat: baza nouă nu va fi folosită
+    public void discard(Dataset ds) {
+        Path location = pending.remove(ds);
+        if (location != null) retire(new Generation(ds, location));
     }
 
-    @Bean
-    public Dataset dataset() {
+    private Dataset memoryDataset() {
         Dataset ds = DatasetFactory.createTxnMem();
+        if (snapshotEnabled) {
+            new RdfSnapshot(snapshotLocation, snapshotCompression).load("knowledge-graph", ds);
+        } else {
+            KnowledgeGraphLoader.loadInto(ds);
+        }
+        return ds;
+    }
 
-        RDFDataMgr.read(ds, "artworks_arp.ttl");
-        RDFDataMgr.read(ds, "artworks_arp_int.ttl");
-        RDFDataMgr.read(ds, "getty-materials.ttl");
-        RDFDataMgr.read(ds, "getty-categories.ttl");
-        RDFDataMgr.read(ds, "museums_wikidata_getty.ttl");
-        RDFDataMgr.read(ds, "museums_wikidata_getty_int.ttl");
-        RDFDataMgr.read(ds, "artists_wikidata_getty.ttl");
+    private synchronized Dataset tdb2Dataset() {
+        if (tdb2 != null) {
+            return tdb2.dataset();
+        }
+        Path location = activeTdb2Location();
+        removeStaleGenerations(location);
+        Dataset ds = TDB2Factory.connectDataset(location.toString());
+
+        // Baza se construiește o singură dată; la pornirile următoare doar o deschidem
+        if (KnowledgeGraphLoader.isEmpty(ds)) {
+            long start = System.currentTimeMillis();
+            KnowledgeGraphLoader.loadIntoTdb2(ds);
+            System.out.println("TDB2 construit în " + location + " (" + (System.currentTimeMillis() - start) + " ms)");
+        } else {
+            KnowledgeGraphLoader.addYearBounds(ds);
+        }
+        tdb2 = new Generation(ds, location);
         return ds;
     }
-}
\ No newline at end of file
+
+    // Generația publicată ultima dată (fișierul <tdb2-location>.current), altfel baza inițială
+    private Path activeTdb2Location() {
+        try {
+            Path pointer = currentPointer();
+            if (Files.exists(pointer)) {
+                Path location = Path.of(Files.readString(pointer).trim());
+                if (Files.isDirectory(location)) return location;
+            }
+        } catch (IOException e) {
+            System.err.println("[load] Nu am putut citi generația TDB2 curentă: " + e.getMessage());
+        }
+        return Path.of(tdb2Location);
+    }
+
+    // Generațiile rămase de la reîncărcări întrerupte sau mai vechi decât cea activă; baza inițială nu se șterge
+    private void removeStaleGenerations(Path active) {
+        Path base = Path.of(tdb2Location).toAbsolutePath();
+        Path parent = base.getParent();
+        if (parent == null || !Files.isDirectory(parent)) return;
+        String prefix = base.getFileName() + "-";
+        try (Stream<Path> siblings = Files.list(parent)) {
+            siblings.filter(dir -> dir.getFileName().toString().startsWith(prefix))
+                    .filter(dir -> dir.getFileName().toString().substring(prefix.length()).chars().allMatch(Character::isDigit))
+                    .filter(dir -> !dir.equals(active.toAbsolutePath()))
+                    .forEach(RDFConfig::delete);
+        } catch (IOException e) {
+            System.err.println("[load] Nu am putut curăța generațiile TDB2 vechi: " + e.getMessage());
+        }
+    }
+
+    private void retire(Generation generation) {
+        TDBInternal.expel(generation.dataset().asDatasetGraph(), true);
+        if (!generation.location().equals(Path.of(tdb2Location))) delete(generation.location());
+    }
+
+    private Path currentPointer() {
+        return Path.of(tdb2Location + ".current");
+    }
+
+    private static void delete(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            System.out.println("[reload] Generația TDB2 " + dir + " ștearsă");
+        } catch (IOException e) {
+            System.err.println("[reload] Nu am putut șterge " + dir + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.backend.config;
+
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.system.Txn;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Copie binară (RDF Thrift) a grafurilor deja încărcate. Parsarea Turtle domină pornirea la rece,
+// așa că la pornirile următoare citim snapshot-ul, cât timp fișierele .ttl sursă sunt exact cele din care a fost
+// scris (aceeași listă, aceleași date de modificare și mărimi, păstrate în fișierul .properties alăturat).
+public class RdfSnapshot {
+
+    // Se schimbă când încărcarea adaugă alte triple derivate (2: intervalele de ani din DateNormalizer,
+    // 3: intervalele care se termină după anul curent, 4: calificativele prescurtate și intervalele între secole)
+    private static final String FORMAT = "4";
+
+    private final Path dir;
+    private final boolean gzip;
+
+    public RdfSnapshot(String dir, String compression) {
+        this.dir = Path.of(dir);
+        this.gzip = "gzip".equalsIgnoreCase(compression);
+    }
+
+    // Umple "target" (gol) din snapshot dacă acesta e la zi, altfel din fișierele Turtle + scrie un snapshot nou
+    public void load(String name, Dataset target) {
+        // Amprenta de dinainte de citire: un fișier schimbat în timpul încărcării face snapshot-ul vechi data viitoare
+        String sources = KnowledgeGraphLoader.fingerprint();
+        Path snapshot = dir.resolve(name + (gzip ? ".rt.gz" : ".rt"));
+        Path meta = dir.resolve(name + ".properties");
+
+        if (isFresh(snapshot, readMeta(meta), sources)) {
+            try {
+                long start = System.currentTimeMillis();
+                long triples = readSnapshot(snapshot, target);
+                long millis = System.currentTimeMillis() - start;
+
+                Properties turtle = readMeta(meta);
+                System.out.printf("[snapshot] %s: %d triple din RDF Thrift în %d ms (Turtle: %s triple în %s ms)%n",
+                        name, triples, millis,
+                        turtle.getProperty("triples", "?"), turtle.getProperty("turtle.millis", "?"));
+                return;
+            } catch (Exception e) {
+                System.err.println("[snapshot] " + name + " nu poate fi citit, reîncărcăm din Turtle: " + e.getMessage());
+                Txn.executeWrite(target, () -> target.asDatasetGraph().clear());
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        long triples = readTurtle(target);
+        long millis = System.currentTimeMillis() - start;
+        System.out.printf("[snapshot] %s: %d triple din Turtle în %d ms%n", name, triples, millis);
+
+        try {
+            writeSnapshot(snapshot, target);
+            Properties props = new Properties();
+            props.setProperty("format", FORMAT);
+            props.setProperty("sources", sources);
+            props.setProperty("triples", String.valueOf(triples));
+            props.setProperty("turtle.millis", String.valueOf(millis));
+            try (OutputStream out = Files.newOutputStream(meta)) {
+                props.store(out, "ArP snapshot " + name);
+            }
+        } catch (IOException e) {
+            System.err.println("[snapshot] Nu am putut scrie " + snapshot + ": " + e.getMessage());
+        }
+    }
+
+    private long readTurtle(Dataset target) {
+        KnowledgeGraphLoader.loadInto(target);
+        return size(target);
+    }
+
+    private long readSnapshot(Path snapshot, Dataset target) throws IOException {
+        try (InputStream in = open(snapshot)) {
+            Txn.executeWrite(target, () -> RDFParser.source(in).lang(Lang.RDFTHRIFT).parse(target.asDatasetGraph()));
+        }
+        return size(target);
+    }
+
+    // Numărul de triple distincte din toate grafurile (default + numite)
+    static long size(Dataset ds) {
+        return Txn.calculateRead(ds, () -> {
+            DatasetGraph dsg = ds.asDatasetGraph();
+            long total = dsg.getDefaultGraph().size();
+            for (Iterator<Node> it = dsg.listGraphNodes(); it.hasNext(); ) {
+                total += dsg.getGraph(it.next()).size();
+            }
+            return total;
+        });
+    }
+
+    private void writeSnapshot(Path snapshot, Dataset source) throws IOException {
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, snapshot.getFileName().toString(), ".tmp");
+        try (OutputStream out = gzip
+                ? new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))
+                : new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            Txn.executeRead(source, () -> RDFDataMgr.write(out, source, RDFFormat.RDF_THRIFT));
+        }
+        Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private InputStream open(Path snapshot) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(snapshot));
+        return gzip ? new GZIPInputStream(in) : in;
+    }
+
+    // Un fișier adăugat, șters, înlocuit cu unul din directorul extern sau modificat (chiar cu o dată mai veche)
+    // schimbă amprenta
+    private boolean isFresh(Path snapshot, Properties meta, String sources) {
+        return Files.exists(snapshot)
+                && FORMAT.equals(meta.getProperty("format"))
+                && sources.equals(meta.getProperty("sources"));
+    }
+
+    private Properties readMeta(Path meta) {
+        Properties props = new Properties();
+        if (Files.exists(meta)) {
+            try (InputStream in = Files.newInputStream(meta)) {
+                props.load(in);
+            } catch (IOException ignored) {
+            }
+        }
+        return props;
+    }
+}
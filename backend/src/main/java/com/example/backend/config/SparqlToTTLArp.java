@@ -78,7 +78,7 @@ public class SparqlToTTLArp {
     }
 
     public static void saveArtworksAsTurtle(List<String> qIds, String filename) throws Exception {
-        String sparqlTemplate = loadSparql("/sparql/generate.sparql");
+        String sparqlTemplate = loadSparql("/sparql/offline/generate.sparql");
         String idsBlock = String.join("\n", qIds.stream().map(id -> "wd:" + id).toList());
         String sparql = sparqlTemplate.replace("{{ARTWORK_IDS}}", idsBlock);
 
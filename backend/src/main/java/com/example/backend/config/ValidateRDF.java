@@ -1,17 +1,23 @@
 package com.example.backend.config;
 
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.rdf.model.Model;
 import org.apache.jena.riot.RDFDataMgr;
 import org.apache.jena.shacl.ShaclValidator;
 import org.apache.jena.shacl.ValidationReport;
 
+import static com.example.backend.config.KnowledgeGraphLoader.*;
+
 public class ValidateRDF {
     public static void main(String[] args) {
 
-        RDFConfig rdfConfig = new RDFConfig();
-        Model artworkModel = rdfConfig.artworkModel();
-        Model artistModel = rdfConfig.artistModel();
-        Model wikiModel = rdfConfig.wikiModel();
+        Dataset dataset = DatasetFactory.createTxnMem();
+        KnowledgeGraphLoader.loadInto(dataset);
+
+        Model artworkModel = dataset.getNamedModel(GRAPH_RO);
+        Model artistModel = dataset.getNamedModel(GRAPH_ARTISTS);
+        Model wikiModel = dataset.getNamedModel(GRAPH_INT);
 
         Model shapesModel = RDFDataMgr.loadModel("src/main/resources/rdf/arp-shapes.ttl");
 
@@ -75,7 +75,7 @@ public class WikidataArtistFetcher {
         if (outFile.exists()) outFile.delete();
 
         // Incarcam template-ul SPARQL pentru Wikidata (adaptat pentru artisti)
-        String wdSparqlTemplate = loadSparql("/sparql/wikidata_artist_query.sparql");
+        String wdSparqlTemplate = loadSparql("/sparql/offline/wikidata_artist_query.sparql");
 
         // Template Getty Universal (ULAN pt artisti)
         String gettySparqlTemplate =
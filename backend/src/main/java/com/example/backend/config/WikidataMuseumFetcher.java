@@ -66,7 +66,7 @@ public class WikidataMuseumFetcher {
         File outFile = new File(OUTPUT_FILE);
         if (outFile.exists()) outFile.delete();
 
-        String wdSparqlTemplate = loadSparql("/sparql/wikidata_museum_query.sparql");
+        String wdSparqlTemplate = loadSparql("/sparql/offline/wikidata_museum_query.sparql");
 
         // Template Getty Universal (ULAN + TGN) ---
         String gettySparqlTemplate =
@@ -0,0 +1,73 @@
+package com.example.backend.controller;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.service.SparqlBulkhead;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Admin API", description = "Knowledge graph version and reload, SPARQL pool metrics")
+public class ApiAdminController {
+
+    private final KnowledgeGraph graph;
+    private final SparqlBulkhead bulkhead;
+
+    // Reîncărcarea la cerere reconstruiește toți indecșii, deci e permisă doar cu acest token; gol = dezactivată
+    @Value("${arp.admin.token:}")
+    private String adminToken;
+
+    public ApiAdminController(KnowledgeGraph graph, SparqlBulkhead bulkhead) {
+        this.graph = graph;
+        this.bulkhead = bulkhead;
+    }
+
+    @Operation(summary = "Current dataset version", description = "Returns the version number and load time of the published dataset.")
+    @GetMapping("/dataset")
+    public Map<String, Object> dataset() {
+        return describe(graph.current());
+    }
+
+    @Operation(summary = "Reload data sources",
+            description = "Re-reads the .ttl sources in the background and atomically swaps in the new version. Requests in flight finish on the old one. "
+                    + "Requests that arrive while a reload is waiting to start join that reload. Disabled unless arp.admin.token is set; "
+                    + "the token must be sent in the X-Admin-Token header.")
+    @PostMapping("/reload")
+    public ResponseEntity<Map<String, Object>> reload(@RequestHeader(value = "X-Admin-Token", required = false) String token) {
+        if (adminToken.isBlank()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Reload endpoint is disabled (arp.admin.token is not set)."));
+        }
+        if (token == null || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), adminToken.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Missing or wrong X-Admin-Token."));
+        }
+        graph.reload();
+
+        Map<String, Object> response = describe(graph.current());
+        response.put("status", "reloading");
+        return ResponseEntity.accepted().body(response);
+    }
+
+    @Operation(summary = "SPARQL pool metrics",
+            description = "Occupancy of the dedicated pool that runs /sparql queries (active threads, queued queries, clients) "
+                    + "and the number of queries rejected since startup because the queue was full or a client hit its limit.")
+    @GetMapping("/sparql")
+    public Map<String, Object> sparql() {
+        return bulkhead.stats();
+    }
+
+    private Map<String, Object> describe(KnowledgeGraph.Version version) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("version", version.number());
+        response.put("loadedAt", version.loadedAt().toString());
+        return response;
+    }
+}
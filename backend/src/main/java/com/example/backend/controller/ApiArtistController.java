@@ -2,6 +2,7 @@ package com.example.backend.controller;
 
 import com.example.backend.model.Artist;
 import com.example.backend.model.Artwork;
+import com.example.backend.repository.ArtistSuggestIndex;
 import com.example.backend.service.ArtistService;
 import com.example.backend.service.ArtworkService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -50,9 +51,8 @@ public class ApiArtistController {
 
 
         List<Artist> pagedArtists = service.getAllArtistsWithFirstArtworkHome(domain, page, pageSize);
-        List<Artist> allArtistsForDropdown = service.getAllArtistsWithFirstArtwork(domain);
 
-        int totalArtists = allArtistsForDropdown.size();
+        int totalArtists = service.countArtists(domain);
         int totalPages = (int) Math.ceil((double) totalArtists / pageSize);
 
         Map<String, Object> response = new HashMap<>();
@@ -65,6 +65,27 @@ public class ApiArtistController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Suggest artists by name prefix",
+            description = "Returns up to 'limit' artists whose name starts with 'q', ignoring diacritics, punctuation and word order ('brancusi c' and 'constantin bra' both match 'Brâncuși, Constantin'). Artists with more artworks come first.")
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestArtists(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit,
+            @Parameter(description = "Selects the data domain", schema = @Schema(allowableValues = {"ro", "int"}))
+            @RequestParam(name = "domain", defaultValue = "int") String domain
+    ) {
+        if (!domain.equals("ro") && !domain.equals("int")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid domain. Allowed values: 'ro', 'int'"));
+        }
+        if (limit <= 0 || limit > ArtistSuggestIndex.Domain.TOP) limit = ArtistSuggestIndex.Domain.TOP;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("artists", service.suggestArtists(query, domain, limit));
+
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(summary = "Get artist details", description = "Returns data for a single artist by ID.")
     @GetMapping("/{id}")
     public ResponseEntity<?> getArtistDetails(
@@ -2,36 +2,54 @@ package com.example.backend.controller;
 
 import com.example.backend.model.Artist;
 import com.example.backend.model.Artwork;
+import com.example.backend.repository.ArtworkRepository;
+import com.example.backend.repository.FacetIndex;
+import com.example.backend.repository.TimelineIndex;
 import com.example.backend.service.ArtistService;
 import com.example.backend.service.ArtworkService;
+import com.example.backend.service.ParallelReads;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 @RestController
 @RequestMapping("/api") // General prefix, routes will be /api/artworks etc.
 @Tag(name = "Artwork API", description = "Endpoints for managing artworks (JSON)")
 public class ApiArtworkController {
 
+    // Recomandările sunt liste scurte; limitele țin mărginită și căutarea în indecși (ef-ul HNSW)
+    private static final int MAX_RECOMMENDATIONS = 50;
+    private static final int MAX_RECOMMENDATION_OFFSET = 200;
+
     private final ArtworkService artworkService;
+    private final ParallelReads parallelReads;
 
-    public ApiArtworkController(ArtworkService artworkService) {
+    public ApiArtworkController(ArtworkService artworkService, ParallelReads parallelReads) {
         this.artworkService = artworkService;
+        this.parallelReads = parallelReads;
     }
 
-    @Operation(summary = "Get artwork list", description = "Returns a paginated list of artworks.")
+    @Operation(summary = "Get artwork list",
+            description = "Returns a paginated list of artworks. Pass the 'nextAfter' token of a page as 'after' to get the next page without an offset scan; 'page' is used when 'after' is missing.")
     @GetMapping("/artworks")
     public ResponseEntity<Map<String, Object>> getAllArtworks(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "30") int pageSize,
 
+            @Parameter(description = "Opaque cursor returned as 'nextAfter' by the previous page")
+            @RequestParam(required = false) String after,
+
             @Parameter(schema = @Schema(allowableValues = {"ro", "int"}))
             @RequestParam(defaultValue = "int") String domain
     ) {
@@ -39,13 +57,156 @@ public class ApiArtworkController {
         if (pageSize <= 0) pageSize = 30;
         if (pageSize > 100) pageSize = 100;
 
-        List<Artwork> artworks = artworkService.getHomepageArtworks(page, pageSize, domain);
-
         Map<String, Object> response = new HashMap<>();
+        List<Artwork> artworks;
+
+        if (after != null && !after.isBlank()) {
+            try {
+                artworks = artworkService.getArtworksAfter(after, pageSize, domain);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            }
+            response.put("after", after);
+        } else {
+            artworks = artworkService.getHomepageArtworks(page, pageSize, domain);
+            response.put("currentPage", page);
+        }
+
+        int totalItems = artworkService.countArtworks(domain);
+
         response.put("artworks", artworks);
+        response.put("pageSize", pageSize);
+        response.put("totalItems", totalItems);
+        response.put("totalPages", (int) Math.ceil((double) totalItems / pageSize));
+        response.put("nextAfter", ArtworkService.nextCursor(artworks, pageSize));
+
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Faceted artwork browsing",
+            description = "Filters artworks by any mix of museum, artist, category, material, technique, culture, license and year range. "
+                    + "Values of the same facet are OR-ed, different facets are AND-ed. Returns the requested page plus, for each facet, "
+                    + "the most frequent values counted under all the other filters (pass a returned 'value' back to filter by it).")
+    @GetMapping("/artworks/facets")
+    public ResponseEntity<Map<String, Object>> getFacetedArtworks(
+            @RequestParam(required = false) List<String> museum,
+            @RequestParam(required = false) List<String> artist,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> material,
+            @RequestParam(required = false) List<String> technique,
+            @RequestParam(required = false) List<String> culture,
+            @RequestParam(required = false) List<String> license,
+
+            @Parameter(description = "First year of the creation date range (inclusive)")
+            @RequestParam(required = false) Integer from,
+            @Parameter(description = "Last year of the creation date range (inclusive)")
+            @RequestParam(required = false) Integer to,
+
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "30") int pageSize,
+            @Parameter(description = "Maximum number of values returned per facet")
+            @RequestParam(defaultValue = "20") int facetLimit,
+
+            @Parameter(schema = @Schema(allowableValues = {"ro", "int"}))
+            @RequestParam(defaultValue = "int") String domain
+    ) {
+        if (!domain.equals("ro") && !domain.equals("int")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid domain. Allowed values: 'ro', 'int'"));
+        }
+        if (page < 1) page = 1;
+        if (pageSize <= 0) pageSize = 30;
+        if (pageSize > 100) pageSize = 100;
+        if (facetLimit <= 0) facetLimit = 20;
+        if (facetLimit > 200) facetLimit = 200;
+
+        Map<FacetIndex.Facet, List<String>> selected = new EnumMap<>(FacetIndex.Facet.class);
+        Map<FacetIndex.Facet, List<String>> params = new EnumMap<>(FacetIndex.Facet.class);
+        params.put(FacetIndex.Facet.MUSEUM, museum);
+        params.put(FacetIndex.Facet.ARTIST, artist);
+        params.put(FacetIndex.Facet.CATEGORY, category);
+        params.put(FacetIndex.Facet.MATERIAL, material);
+        params.put(FacetIndex.Facet.TECHNIQUE, technique);
+        params.put(FacetIndex.Facet.CULTURE, culture);
+        params.put(FacetIndex.Facet.LICENSE, license);
+        params.forEach((facet, values) -> {
+            if (values != null && !values.isEmpty()) selected.put(facet, values);
+        });
+
+        ArtworkRepository.Faceted faceted = artworkService.getFaceted(selected, from, to, page, pageSize, facetLimit, domain);
+        if (faceted == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Facet index is disabled"));
+        }
+        FacetIndex.Result result = faceted.result();
+
+        Map<String, Object> facets = new LinkedHashMap<>();
+        result.facets().forEach((facet, counts) -> facets.put(facet.param, counts));
+
+        Map<String, Object> years = new HashMap<>();
+        years.put("min", result.minYear());
+        years.put("max", result.maxYear());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("artworks", faceted.artworks());
         response.put("currentPage", page);
         response.put("pageSize", pageSize);
+        response.put("totalItems", result.total());
+        response.put("totalPages", (int) Math.ceil((double) result.total() / pageSize));
+        response.put("facets", facets);
+        response.put("years", years);
+
+        return ResponseEntity.ok(response);
+    }
+
+    @Operation(summary = "Artwork timeline",
+            description = "Artworks whose normalised creation date range overlaps [from, to], in chronological order, "
+                    + "plus the number of artworks per bucket of 'bucket' years (by start year). Free-text dates such as "
+                    + "'c. 1900-1910' or 'sec. XIX' are normalised to year ranges at load time; undated artworks are not included.")
+    @GetMapping("/artworks/timeline")
+    public ResponseEntity<Map<String, Object>> getTimeline(
+            @Parameter(description = "First year of the range (inclusive)")
+            @RequestParam(required = false) Integer from,
+            @Parameter(description = "Last year of the range (inclusive)")
+            @RequestParam(required = false) Integer to,
+            @Parameter(description = "Bucket size in years")
+            @RequestParam(defaultValue = "10") int bucket,
+
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "30") int pageSize,
+
+            @Parameter(schema = @Schema(allowableValues = {"ro", "int"}))
+            @RequestParam(defaultValue = "int") String domain
+    ) {
+        if (!domain.equals("ro") && !domain.equals("int")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid domain. Allowed values: 'ro', 'int'"));
+        }
+        if (from != null && to != null && from > to) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'from' must not be after 'to'"));
+        }
+        if (page < 1) page = 1;
+        if (pageSize <= 0) pageSize = 30;
+        if (pageSize > 100) pageSize = 100;
+        if (bucket <= 0) bucket = 10;
+
+        ArtworkRepository.Timeline timeline = artworkService.getTimeline(from, to, bucket, page, pageSize, domain);
+        if (timeline == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Timeline index is disabled"));
+        }
+        TimelineIndex.Result result = timeline.result();
 
+        Map<String, Object> years = new HashMap<>();
+        years.put("min", result.minYear());
+        years.put("max", result.maxYear());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("artworks", timeline.artworks());
+        response.put("currentPage", page);
+        response.put("pageSize", pageSize);
+        response.put("totalItems", result.total());
+        response.put("totalPages", (int) Math.ceil((double) result.total() / pageSize));
+        response.put("bucket", bucket);
+        response.put("buckets", result.buckets());
+        response.put("years", years);
 
         return ResponseEntity.ok(response);
     }
@@ -60,24 +221,42 @@ public class ApiArtworkController {
             @RequestParam(defaultValue = "int") String domain
     ) {
         String uri = "http://arp.ro/resource/artwork/" + id;
-        Artwork artwork = artworkService.getArtworkByUri(uri, domain);
+        int perList = limit <= 0 ? 8 : Math.min(limit, MAX_RECOMMENDATIONS);
+
+        // Opera și cele trei liste de recomandări sunt independente: rulează în paralel, cu termen comun
+        ParallelReads.Batch batch = parallelReads.batch();
+        Future<Artwork> artworkF = batch.submit(() -> artworkService.getArtworkByUri(uri, domain));
+        Future<List<Artwork>> artistF = batch.submit(() -> artworkService.getRecommendations(uri, 0, perList, domain));
+        Future<List<Artwork>> museumF = batch.submit(() -> artworkService.getRecommendationsMuseums(uri, 0, perList, domain));
+        Future<List<Artwork>> categoryF = batch.submit(() -> artworkService.getRecommendationsCategory(uri, 0, perList, domain));
+        Future<List<Artwork>> similarF = batch.submit(() -> artworkService.getRecommendationsSimilar(uri, 0, perList, domain));
+
+        Artwork artwork = batch.get("artwork", artworkF, null);
+        List<Artwork> rawRecArtist = batch.get("byArtist", artistF, List.of());
+        List<Artwork> rawRecMuseum = batch.get("byMuseum", museumF, List.of());
+        List<Artwork> rawRecCategory = batch.get("byCategory", categoryF, List.of());
+        List<Artwork> rawRecSimilar = batch.get("bySimilarity", similarF, List.of());
 
         if (artwork == null) {
+            if (batch.missing().contains("artwork")) {
+                return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(Map.of("error", "Artwork lookup timed out"));
+            }
             return ResponseEntity.notFound().build();
         }
 
-        List<Artwork> rawRecArtist = artworkService.getRecommendations(uri, 0, limit, domain);
-        List<Artwork> rawRecMuseum = artworkService.getRecommendationsMuseums(uri, 0, limit, domain);
-        List<Artwork> rawRecCategory = artworkService.getRecommendationsCategory(uri, 0, limit, domain);
-
         Map<String, Object> response = new HashMap<>();
         response.put("artwork", artwork);
+        if (batch.isPartial()) {
+            response.put("partial", true);
+            response.put("missing", batch.missing());
+        }
 
         Map<String, Object> recommendations = new HashMap<>();
 
         recommendations.put("byArtist", simplifyArtworks(rawRecArtist));
         recommendations.put("byMuseum", simplifyArtworks(rawRecMuseum));
         recommendations.put("byCategory", simplifyArtworks(rawRecCategory));
+        recommendations.put("bySimilarity", simplifyArtworks(rawRecSimilar));
 
         response.put("recommendations", recommendations);
 
@@ -93,12 +272,16 @@ public class ApiArtworkController {
             @RequestParam(defaultValue = "0") int offset,
             @RequestParam(defaultValue = "8") int limit,
 
-            @Parameter(description = "Desired recommendation type", schema = @Schema(allowableValues = {"artist", "museum", "category", "all"}))
+            @Parameter(description = "Desired recommendation type", schema = @Schema(allowableValues = {"artist", "museum", "category", "similar", "all"}))
             @RequestParam(defaultValue = "all") String type,
 
             @Parameter(schema = @Schema(allowableValues = {"ro", "int"}))
             @RequestParam(defaultValue = "int") String domain
     ) {
+        if (offset < 0) offset = 0;
+        if (offset > MAX_RECOMMENDATION_OFFSET) offset = MAX_RECOMMENDATION_OFFSET;
+        if (limit <= 0) limit = 8;
+        if (limit > MAX_RECOMMENDATIONS) limit = MAX_RECOMMENDATIONS;
         Map<String, Object> response = new HashMap<>();
 
 
@@ -120,17 +303,43 @@ public class ApiArtworkController {
                 response.put("byCategory", simplifyArtworks(recCategory));
                 break;
 
+            case "similar":
+                List<Artwork> recSimilar = artworkService.getRecommendationsSimilar(uri, offset, limit, domain);
+                response.put("bySimilarity", simplifyArtworks(recSimilar));
+                break;
+
             case "all":
             default:
                 response.put("byArtist", simplifyArtworks(artworkService.getRecommendations(uri, offset, limit, domain)));
                 response.put("byMuseum", simplifyArtworks(artworkService.getRecommendationsMuseums(uri, offset, limit, domain)));
                 response.put("byCategory", simplifyArtworks(artworkService.getRecommendationsCategory(uri, offset, limit, domain)));
+                response.put("bySimilarity", simplifyArtworks(artworkService.getRecommendationsSimilar(uri, offset, limit, domain)));
                 break;
         }
 
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Get textually similar artworks", description = "Returns artworks whose title and description are closest to the given artwork (TF-IDF vectors, HNSW nearest-neighbour index).")
+    @GetMapping("/artworks/{id}/similar-text")
+    public ResponseEntity<Map<String, Object>> getTextSimilar(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "8") int limit,
+            @Parameter(schema = @Schema(allowableValues = {"ro", "int"}))
+            @RequestParam(defaultValue = "int") String domain
+    ) {
+        if (offset < 0) offset = 0;
+        if (offset > MAX_RECOMMENDATION_OFFSET) offset = MAX_RECOMMENDATION_OFFSET;
+        if (limit <= 0) limit = 8;
+        if (limit > MAX_RECOMMENDATIONS) limit = MAX_RECOMMENDATIONS;
+        String uri = "http://arp.ro/resource/artwork/" + id;
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("byText", simplifyArtworks(artworkService.getRecommendationsText(uri, offset, limit, domain)));
+        return ResponseEntity.ok(response);
+    }
+
     private List<Map<String, Object>> simplifyArtworks(List<Artwork> artworks) {
         if (artworks == null) return List.of();
 
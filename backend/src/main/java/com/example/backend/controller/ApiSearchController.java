@@ -0,0 +1,80 @@
+package com.example.backend.controller;
+
+import com.example.backend.repository.SearchIndex;
+import com.example.backend.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/search")
+@Tag(name = "Search API", description = "Full-text search over artworks, artists, museums and categories")
+public class ApiSearchController {
+
+    private static final Set<String> TYPES = Set.of("artwork", "artist", "museum", "collector", "category", "material");
+
+    private final SearchService service;
+
+    public ApiSearchController(SearchService service) {
+        this.service = service;
+    }
+
+    @Operation(summary = "Full-text search",
+            description = "Searches titles, descriptions, artist and museum names and category labels, ignoring diacritics ('brancusi' matches 'Brâncuși'). "
+                    + "All words are required; use \"...\" for phrases, prefix* and a | b. Results are ranked by relevance, one per resource.")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "30") int pageSize,
+
+            @Parameter(schema = @Schema(allowableValues = {"artwork", "artist", "museum", "collector", "category", "material"}))
+            @RequestParam(required = false) String type,
+
+            @Parameter(description = "Restricts artworks to one domain", schema = @Schema(allowableValues = {"ro", "int"}))
+            @RequestParam(required = false) String domain
+    ) {
+        if (!service.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Search index is disabled"));
+        }
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Parameter 'q' must not be empty"));
+        }
+        if (type != null && !TYPES.contains(type)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid type. Allowed values: " + String.join(", ", TYPES)));
+        }
+        if (domain != null && !domain.equals("ro") && !domain.equals("int")) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid domain. Allowed values: 'ro', 'int'"));
+        }
+
+        if (page < 1) page = 1;
+        if (pageSize <= 0) pageSize = 30;
+        if (pageSize > 100) pageSize = 100;
+
+        SearchIndex.Page results;
+        try {
+            results = service.search(query, type, domain, page, pageSize);
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("results", results.results());
+        response.put("currentPage", page);
+        response.put("pageSize", pageSize);
+        response.put("totalItems", results.total());
+        response.put("totalPages", (int) Math.ceil((double) results.total() / pageSize));
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -28,12 +28,9 @@ public class ArtistController {
 
         List<Artist> pagedArtists = service.getAllArtistsWithFirstArtworkHome(domain, page, pageSize);
 
-        List<Artist> allArtistsForDropdown = service.getAllArtistsWithFirstArtwork(domain);
-
-        int totalArtists = allArtistsForDropdown.size();
+        int totalArtists = service.countArtists(domain);
         int totalPages = (int) Math.ceil((double) totalArtists / pageSize);
 
-        model.addAttribute("artistsForDropdown", allArtistsForDropdown); // Lista completă pt <select>
         model.addAttribute("artists", pagedArtists);                   // Lista scurtă (23) pt Grid
         model.addAttribute("currentPage", page);
         model.addAttribute("totalPages", totalPages);
@@ -4,6 +4,7 @@ import com.example.backend.model.Artist;
 import com.example.backend.model.Artwork;
 import com.example.backend.service.ArtistService;
 import com.example.backend.service.ArtworkService;
+import com.example.backend.service.ParallelReads;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,30 +12,43 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 @Controller
 public class ArtworkController {
 
     private final ArtworkService artworkService;
     private final ArtistService artistService;
+    private final ParallelReads parallelReads;
 
-    public ArtworkController(ArtworkService artworkService, ArtistService artistService) {
+    public ArtworkController(ArtworkService artworkService, ArtistService artistService, ParallelReads parallelReads) {
         this.artworkService = artworkService;
         this.artistService = artistService;
+        this.parallelReads = parallelReads;
     }
 
     @GetMapping("/artworks-next")
     public String showWikiHome(
             @RequestParam(defaultValue = "1") int page,
+            @RequestParam(required = false) String after,
             @RequestParam(name = "domain", defaultValue = "int") String domain,
             Model model) {
 
         int pageSize = 30;
 
-        List<Artwork> artworks = artworkService.getHomepageArtworks(page, pageSize, domain);
+        // "Next" folosește cursorul; "page" rămâne pentru "Back" și pentru linkurile vechi
+        List<Artwork> artworks;
+        try {
+            artworks = (after != null && !after.isBlank())
+                    ? artworkService.getArtworksAfter(after, pageSize, domain)
+                    : artworkService.getHomepageArtworks(page, pageSize, domain);
+        } catch (IllegalArgumentException e) {
+            artworks = artworkService.getHomepageArtworks(page, pageSize, domain);
+        }
 
         model.addAttribute("artworks", artworks);
         model.addAttribute("currentPage", page);
+        model.addAttribute("nextAfter", ArtworkService.nextCursor(artworks, pageSize));
         model.addAttribute("domain",domain);
 
         return "artwork";
@@ -49,7 +63,18 @@ public class ArtworkController {
             Model model) {
 
         String uri = "http://arp.ro/resource/artwork/" + id;
-        Artwork artwork = artworkService.getArtworkByUri(uri, domain);
+
+        // Opera și recomandările se citesc în paralel; o listă care depășește termenul rămâne goală
+        ParallelReads.Batch batch = parallelReads.batch();
+        Future<Artwork> artworkF = batch.submit(() -> artworkService.getArtworkByUri(uri, domain));
+        Future<List<Artwork>> artistF = batch.submit(() -> artworkService.getRecommendations(uri, offset, limit, domain));
+        Future<List<Artwork>> museumF = batch.submit(() -> artworkService.getRecommendationsMuseums(uri, offset, limit, domain));
+        Future<List<Artwork>> categoryF = batch.submit(() -> artworkService.getRecommendationsCategory(uri, offset, limit, domain));
+
+        Artwork artwork = batch.get("artwork", artworkF, null);
+        List<Artwork> recommendations = batch.get("recommendations", artistF, List.of());
+        List<Artwork> recommendationsMuseums = batch.get("recommendationsMuseums", museumF, List.of());
+        List<Artwork> recommendationsCategory = batch.get("recommendationsCategory", categoryF, List.of());
 
         if (artwork == null) {
             return "404";
@@ -58,11 +83,6 @@ public class ArtworkController {
         model.addAttribute("art", artwork);
         model.addAttribute("domain", domain);
 
-
-        List<Artwork> recommendations = artworkService.getRecommendations(uri, offset, limit, domain);
-        List<Artwork> recommendationsMuseums = artworkService.getRecommendationsMuseums(uri, offset, limit, domain);
-        List<Artwork> recommendationsCategory = artworkService.getRecommendationsCategory(uri, offset, limit, domain);
-
         model.addAttribute("recommendations", recommendations);
         model.addAttribute("recommendationsMuseums", recommendationsMuseums);
         model.addAttribute("recommendationsCategory", recommendationsCategory);
@@ -89,24 +109,43 @@ public class ArtworkController {
     }
 
 
+    // Un singur carusel (type = artist / museum / category) se paginează fără să recalculăm celelalte două liste;
+    // "all" păstrează răspunsul vechi, cu toate trei
     @GetMapping("/artworks/recommendations-fragment")
     public String getRecommendationsFragment(
             @RequestParam("uri") String uri,
             @RequestParam(value = "offset", defaultValue = "0") int offset,
             @RequestParam(value = "limit", defaultValue = "8") int limit,
+            @RequestParam(value = "type", defaultValue = "all") String type,
             @RequestParam(value = "domain", defaultValue = "int") String domain,
             Model model) {
 
-        List<Artwork> recommendations = artworkService.getRecommendations(uri, offset, limit, domain);
-
-        model.addAttribute("recommendations", recommendations);
-        List<Artwork> recommendationsMuseums = artworkService.getRecommendationsMuseums(uri, offset, limit, domain);
-        model.addAttribute("recommendationsMuseums", recommendationsMuseums);
-        List<Artwork> recommendationsCategory = artworkService.getRecommendationsCategory(uri, offset, limit, domain);
-        model.addAttribute("recommendationsCategory", recommendationsCategory);
-
         model.addAttribute("domain", domain);
 
-        return "rec-fragment";
+        switch (type.toLowerCase()) {
+            case "artist":
+                model.addAttribute("items", artworkService.getRecommendations(uri, offset, limit, domain));
+                return "rec-fragment :: recGrid(items=${items})";
+
+            case "museum":
+                model.addAttribute("items", artworkService.getRecommendationsMuseums(uri, offset, limit, domain));
+                return "rec-fragment :: recGrid(items=${items})";
+
+            case "category":
+                model.addAttribute("items", artworkService.getRecommendationsCategory(uri, offset, limit, domain));
+                return "rec-fragment :: recGrid(items=${items})";
+
+            case "all":
+            default:
+                ParallelReads.Batch batch = parallelReads.batch();
+                Future<List<Artwork>> artistF = batch.submit(() -> artworkService.getRecommendations(uri, offset, limit, domain));
+                Future<List<Artwork>> museumF = batch.submit(() -> artworkService.getRecommendationsMuseums(uri, offset, limit, domain));
+                Future<List<Artwork>> categoryF = batch.submit(() -> artworkService.getRecommendationsCategory(uri, offset, limit, domain));
+
+                model.addAttribute("recommendations", batch.get("recommendations", artistF, List.of()));
+                model.addAttribute("recommendationsMuseums", batch.get("recommendationsMuseums", museumF, List.of()));
+                model.addAttribute("recommendationsCategory", batch.get("recommendationsCategory", categoryF, List.of()));
+                return "rec-fragment";
+        }
     }
-}
\ No newline at end of file
+}
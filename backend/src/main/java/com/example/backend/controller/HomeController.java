@@ -2,31 +2,43 @@ package com.example.backend.controller;
 
 import com.example.backend.model.Artist;
 import com.example.backend.service.ArtistService;
+import com.example.backend.model.Artwork;
 import com.example.backend.service.ArtworkService;
+import com.example.backend.service.ParallelReads;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 import java.util.List;
+import java.util.concurrent.Future;
 
 @Controller
 public class HomeController {
 
     private final ArtworkService artworkService;
     private final ArtistService artistService;
+    private final ParallelReads parallelReads;
 
-    public HomeController(ArtworkService artworkService, ArtistService artistService) {
+    public HomeController(ArtworkService artworkService, ArtistService artistService, ParallelReads parallelReads) {
         this.artworkService = artworkService;
         this.artistService = artistService;
+        this.parallelReads = parallelReads;
     }
 
     @GetMapping("/")
     public String home(Model model) {
-        model.addAttribute("artworks", artworkService.getHomepageArtworks(1, 30, "ro"));
-        model.addAttribute("wikidataArtworks", artworkService.getHomepageArtworks(1, 30,"int"));
-
-        List<Artist> allArtists = artistService.getAllArtistsWithFirstArtworkHome("ro", 1, 15);
-        List<Artist> allArtistsInt = artistService.getAllArtistsWithFirstArtworkHome("int", 1, 15);
+        // Cele patru secțiuni sunt independente: rulează în paralel, cu termen comun
+        ParallelReads.Batch batch = parallelReads.batch();
+        Future<List<Artwork>> artworksF = batch.submit(() -> artworkService.getHomepageArtworks(1, 30, "ro"));
+        Future<List<Artwork>> wikidataArtworksF = batch.submit(() -> artworkService.getHomepageArtworks(1, 30, "int"));
+        Future<List<Artist>> artistsF = batch.submit(() -> artistService.getAllArtistsWithFirstArtworkHome("ro", 1, 15));
+        Future<List<Artist>> artistsIntF = batch.submit(() -> artistService.getAllArtistsWithFirstArtworkHome("int", 1, 15));
+
+        model.addAttribute("artworks", batch.get("artworks", artworksF, List.of()));
+        model.addAttribute("wikidataArtworks", batch.get("wikidataArtworks", wikidataArtworksF, List.of()));
+
+        List<Artist> allArtists = batch.get("artists", artistsF, List.of());
+        List<Artist> allArtistsInt = batch.get("artistsWiki", artistsIntF, List.of());
 
         model.addAttribute("artists", allArtists);
         model.addAttribute("artistsWiki", allArtistsInt);
@@ -1,21 +1,47 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.JsonLdStream;
 import com.example.backend.config.PredefinedQueryLoader;
-import com.example.backend.config.RDFConfig;
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.service.QueryCostEstimator;
+import com.example.backend.service.SparqlBulkhead;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.query.*;
-import org.apache.jena.rdf.model.RDFNode;
-import org.apache.jena.system.Txn;
-import org.apache.jena.query.Dataset;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFFormat;
+import org.apache.jena.riot.ResultSetMgr;
+import org.apache.jena.riot.resultset.ResultSetLang;
+import org.apache.jena.riot.system.StreamRDF;
+import org.apache.jena.riot.system.StreamRDFWriter;
+import org.apache.jena.shared.PrefixMapping;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.exec.RowSetStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @Tag(name = "SPARQL Endpoint", description = "Endpoints for executing raw SPARQL queries against the RDF Knowledge Graph")
@@ -25,27 +51,104 @@ public class SparqlController {
     private PredefinedQueryLoader queryLoader;
 
     @Autowired
-    private RDFConfig rdfConfig;
+    private KnowledgeGraph graph;
+
+    @Autowired
+    private SparqlBulkhead bulkhead;
+
+    @Autowired
+    private QueryCostEstimator costEstimator;
+
+    // Antetul din care se ia adresa clientului pentru limita per client (ex. X-Forwarded-For în spatele unui
+    // proxy); gol = adresa conexiunii. Cu mai multe proxy-uri, server.forward-headers-strategy=native și
+    // server.tomcat.remoteip.internal-proxies dau direct adresa corectă în getRemoteAddr()
+    @Value("${arp.sparql.bulkhead.client-header:}")
+    private String clientHeader;
+
+    // Limitele interogărilor libere: o interogare patologică nu poate ține un nucleu și memoria la nesfârșit
+    @Value("${arp.sparql.first-row-timeout:PT10S}")
+    private Duration firstRowTimeout;
+
+    @Value("${arp.sparql.timeout:PT60S}")
+    private Duration timeout;
+
+    @Value("${arp.sparql.max-rows:100000}")
+    private long maxRows;
+
+    // Formatele de rezultate SELECT, în ordinea preferinței când clientul acceptă orice (*/*)
+    private static final Map<MediaType, Lang> RESULT_FORMATS = new LinkedHashMap<>();
+
+    static {
+        RESULT_FORMATS.put(MediaType.parseMediaType("application/sparql-results+json"), ResultSetLang.RS_JSON);
+        RESULT_FORMATS.put(MediaType.APPLICATION_JSON, ResultSetLang.RS_JSON);
+        RESULT_FORMATS.put(MediaType.parseMediaType("application/sparql-results+xml"), ResultSetLang.RS_XML);
+        RESULT_FORMATS.put(MediaType.APPLICATION_XML, ResultSetLang.RS_XML);
+        RESULT_FORMATS.put(MediaType.TEXT_XML, ResultSetLang.RS_XML);
+        RESULT_FORMATS.put(MediaType.parseMediaType("text/csv"), ResultSetLang.RS_CSV);
+        RESULT_FORMATS.put(MediaType.parseMediaType("text/tab-separated-values"), ResultSetLang.RS_TSV);
+        RESULT_FORMATS.put(MediaType.parseMediaType("application/sparql-results+thrift"), ResultSetLang.RS_Thrift);
+    }
+
+    // Pentru ASK: aceleași formate, fără Thrift (Jena nu are o codificare Thrift pentru rezultate booleene)
+    private static final Map<MediaType, Lang> BOOLEAN_FORMATS = new LinkedHashMap<>(RESULT_FORMATS);
+
+    static {
+        BOOLEAN_FORMATS.remove(MediaType.parseMediaType("application/sparql-results+thrift"));
+    }
+
+    // Formatele pentru CONSTRUCT / DESCRIBE, toate scrise în flux (StreamRDF), fără un Model intermediar
+    private static final Map<MediaType, Lang> GRAPH_FORMATS = new LinkedHashMap<>();
+
+    static {
+        GRAPH_FORMATS.put(MediaType.parseMediaType("text/turtle"), Lang.TURTLE);
+        GRAPH_FORMATS.put(MediaType.parseMediaType("application/n-triples"), Lang.NTRIPLES);
+        GRAPH_FORMATS.put(MediaType.parseMediaType("application/ld+json"), Lang.JSONLD);
+        GRAPH_FORMATS.put(MediaType.parseMediaType("application/rdf+thrift"), Lang.RDFTHRIFT);
+        GRAPH_FORMATS.put(MediaType.TEXT_PLAIN, Lang.NTRIPLES);
+    }
+
+    // Ce se scrie în răspuns după ce antetele au fost trimise
+    private interface Output {
+        void write(OutputStream out) throws IOException;
+    }
 
     @Operation(
             summary = "Execute SPARQL Query",
-            description = "Accepts a raw SPARQL SELECT query string and returns the results in a JSON format compatible with SPARQL 1.1 Query Results.",
+            description = "Runs a SPARQL SELECT, ASK, CONSTRUCT or DESCRIBE query and streams the results as they are produced. "
+                    + "Follows the SPARQL 1.1 Protocol: GET with a 'query' parameter, POST with an 'application/sparql-query' "
+                    + "(or 'text/plain') body, or POST of a form with a 'query' field. The result format is chosen with the Accept "
+                    + "header: application/sparql-results+json (default), application/sparql-results+xml, text/csv, "
+                    + "text/tab-separated-values for SELECT and ASK, plus application/sparql-results+thrift for SELECT only; text/turtle (default), "
+                    + "application/n-triples, application/ld+json or application/rdf+thrift for CONSTRUCT and DESCRIBE. "
+                    + "Queries have a first-result and an overall timeout, and results are capped at a maximum number of rows "
+                    + "(or triples): the cap is sent in the X-Result-Row-Cap header. Whether the output was cut short ('row-cap' or "
+                    + "'timeout') is sent in the X-Result-Truncated trailer (HTTP/1.1 and HTTP/2 only) and, since browsers cannot "
+                    + "read trailers, also in the document itself: a top-level \"truncated\" member in SPARQL JSON results, a "
+                    + "closing '<!-- truncated: ... -->' comment in XML results and a '# truncated: ...' comment in Turtle and "
+                    + "N-Triples. Queries run on a dedicated, bounded pool: when a client "
+                    + "already has too many queries running the answer is 429, when the queue is full it is 503, both with a "
+                    + "Retry-After header. Before running, the query's cost is estimated from its algebra and per-predicate statistics "
+                    + "(sent back in the X-Query-Cost header); queries above the cost limit are rejected with 400 and the reasons "
+                    + "(cartesian products, regex over all literals, missing LIMIT). Errors are returned as JSON.",
             requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
-                    description = "The SPARQL SELECT query string",
-                    required = true,
-                    content = @Content(
-                            mediaType = "text/plain",
-                            examples = @ExampleObject(
-                                    value = "SELECT ?s ?p ?o WHERE { ?s ?p ?o } LIMIT 5"
+                    description = "The SPARQL query string",
+                    content = {
+                            @Content(
+                                    mediaType = "application/sparql-query",
+                                    examples = @ExampleObject(value = "SELECT ?s ?p ?o WHERE { ?s ?p ?o } LIMIT 5")
+                            ),
+                            @Content(
+                                    mediaType = "text/plain",
+                                    examples = @ExampleObject(value = "SELECT ?s ?p ?o WHERE { ?s ?p ?o } LIMIT 5")
                             )
-                    )
+                    }
             ),
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Query executed successfully",
                             content = @Content(
-                                    mediaType = "application/json",
+                                    mediaType = "application/sparql-results+json",
                                     schema = @Schema(example = """
                                             {
                                                 "head": {
@@ -65,59 +168,325 @@ public class SparqlController {
                             )
                     ),
                     @ApiResponse(
-                            responseCode = "500",
-                            description = "Syntax error in SPARQL query or server error",
+                            responseCode = "400",
+                            description = "Missing query, syntax error, invalid Accept header, update request or estimated cost too high",
                             content = @Content(
                                     mediaType = "application/json",
                                     schema = @Schema(example = "{ \"error\": \"Encountered '...' at line 1...\" }")
                             )
-                    )
+                    ),
+                    @ApiResponse(responseCode = "406", description = "None of the accepted formats is supported"),
+                    @ApiResponse(responseCode = "429", description = "Too many concurrent queries from this client"),
+                    @ApiResponse(responseCode = "500", description = "Evaluation error before the first result"),
+                    @ApiResponse(responseCode = "503", description = "Query queue full, or no result before the first-result timeout")
             }
     )
-    @PostMapping("/sparql")
-    public Map<String, Object> runQuery(@RequestBody String sparql) {
-        Dataset dataset = rdfConfig.dataset(); // Use the dataset with all TTLs
-        Map<String, Object> resultMap = new HashMap<>();
+    @RequestMapping(value = "/sparql", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<Map<String, Object>> runQuery(
+            @Parameter(description = "Query string (GET or form-encoded POST)")
+            @RequestParam(required = false) String query,
+            @RequestBody(required = false) String body,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletRequest request,
+            HttpServletResponse response) {
 
-        Txn.executeRead(dataset, () -> {  // Ensure read-only transaction
-            try {
-                Query query = QueryFactory.create(sparql);
-                if (query.isSelectType()) {
-                    try (QueryExecution qexec = QueryExecutionFactory.create(query, dataset)) {
-                        ResultSet results = qexec.execSelect();
-                        resultMap.put("head", Map.of("vars", results.getResultVars()));
-
-                        List<Map<String, Map<String, String>>> bindingsList = new ArrayList<>();
-                        while (results.hasNext()) {
-                            QuerySolution sol = results.next();
-                            Map<String, Map<String, String>> row = new HashMap<>();
-                            for (String var : results.getResultVars()) {
-                                if (sol.contains(var)) {
-                                    RDFNode rdfNode = sol.get(var);
-                                    Map<String, String> valueMap = new HashMap<>();
-                                    if (rdfNode.isURIResource()) {
-                                        valueMap.put("type", "uri");
-                                        valueMap.put("value", rdfNode.asResource().getURI());
-                                    } else if (rdfNode.isLiteral()) {
-                                        valueMap.put("type", "literal");
-                                        valueMap.put("value", rdfNode.asLiteral().getString());
-                                    }
-                                    row.put(var, valueMap);
-                                }
-                            }
-                            bindingsList.add(row);
+        String sparql = query != null ? query : body;
+        if (sparql == null || sparql.isBlank()) {
+            return error(HttpStatus.BAD_REQUEST, "Missing SPARQL query.");
+        }
+
+        Query parsed;
+        try {
+            parsed = QueryFactory.create(sparql);
+        } catch (QueryException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (!parsed.isSelectType() && !parsed.isAskType() && !parsed.isConstructType() && !parsed.isDescribeType()) {
+            return error(HttpStatus.BAD_REQUEST, "Unsupported query form.");
+        }
+        Map<MediaType, Lang> formats = parsed.isConstructType() || parsed.isDescribeType() ? GRAPH_FORMATS
+                : parsed.isAskType() ? BOOLEAN_FORMATS : RESULT_FORMATS;
+        Map.Entry<MediaType, Lang> format;
+        try {
+            format = negotiate(accept, formats);
+        } catch (InvalidMediaTypeException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        if (format == null) {
+            return error(HttpStatus.NOT_ACCEPTABLE, "Supported formats: " + formats.keySet());
+        }
+
+        KnowledgeGraph.Version version = graph.current();
+        Dataset dataset = version.sparqlDataset(); // Named graphs + their union as the default graph
+
+        // Costul estimat din algebra interogării și statisticile pe predicat: o interogare prea scumpă e respinsă
+        // cu explicația, înainte să ocupe un fir al compartimentului
+        QueryCostEstimator.Estimate estimate = costEstimator.estimate(parsed, version);
+        if (estimate != null) {
+            if (estimate.rejected()) {
+                System.out.println("[sparql] Interogare respinsă, cost estimat " + Math.round(estimate.cost())
+                        + ": " + estimate.problems());
+                Map<String, Object> rejected = new LinkedHashMap<>();
+                rejected.put("error", "Query rejected: estimated cost " + Math.round(estimate.cost())
+                        + " exceeds the limit of " + Math.round(estimate.maxCost()) + "."
+                        + (estimate.problems().isEmpty() ? "" : " " + String.join(" ", estimate.problems())));
+                rejected.put("estimatedCost", Math.round(estimate.cost()));
+                rejected.put("maxCost", Math.round(estimate.maxCost()));
+                rejected.put("problems", estimate.problems());
+                return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(rejected);
+            }
+            response.setHeader("X-Query-Cost", String.valueOf(Math.round(estimate.cost())));
+        }
+
+        // Limita de rânduri intră în interogare (cu unul în plus, ca să știm dacă am trunchiat), așa că
+        // ORDER BY păstrează doar primele rezultate în loc să sorteze tot
+        if (parsed.isSelectType() && (!parsed.hasLimit() || parsed.getLimit() > maxRows)) {
+            parsed.setLimit(maxRows + 1);
+        }
+
+        // Interogarea rulează pe firele compartimentului SPARQL; firul cererii doar așteaptă. Rezultatele se scriu
+        // direct în răspuns, pe măsură ce sunt produse, în tranzacția de citire
+        try {
+            boolean trailers = "HTTP/1.1".equals(request.getProtocol()) || request.getProtocol().startsWith("HTTP/2");
+            return bulkhead.run(client(request), () -> execute(version, dataset, parsed, format, trailers, response));
+        } catch (SparqlBulkhead.RejectedException e) {
+            return ResponseEntity.status(e.perClient ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.retryAfter.toSeconds())))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> execute(KnowledgeGraph.Version version, Dataset dataset, Query parsed,
+                                                        Map.Entry<MediaType, Lang> format, boolean trailers,
+                                                        HttpServletResponse response) {
+        Lang lang = format.getValue();
+        return version.calculateRead(() -> {
+            try (QueryExecution qexec = QueryExecution.dataset(dataset).query(parsed)
+                    .initialTimeout(firstRowTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .overallTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .build()) {
+                // Primul rezultat: erorile de evaluare apar aici, cât încă putem răspunde cu un cod de eroare
+                Output output;
+                Capped<?> capped = null;
+                if (parsed.isSelectType()) {
+                    ResultSet results = qexec.execSelect();
+                    Capped<Binding> rows = new Capped<>(new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return results.hasNext();
                         }
-                        resultMap.put("results", Map.of("bindings", bindingsList));
-                    }
+
+                        @Override
+                        public Binding next() {
+                            return results.nextBinding();
+                        }
+                    }, maxRows);
+                    rows.hasNext();
+                    capped = rows;
+                    ResultSet limited = ResultSet.adapt(RowSetStream.create(Var.varList(results.getResultVars()), rows));
+                    output = out -> ResultSetMgr.write(out, limited, lang);
+                } else if (parsed.isAskType()) {
+                    boolean answer = qexec.execAsk();
+                    output = out -> ResultSetMgr.write(out, answer, lang);
                 } else {
-                    resultMap.put("error", "Only SELECT queries are supported.");
+                    Capped<Triple> triples = new Capped<>(
+                            parsed.isConstructType() ? qexec.execConstructTriples() : qexec.execDescribeTriples(), maxRows);
+                    triples.hasNext();
+                    capped = triples;
+                    output = out -> writeTriples(out, triples, lang, parsed.getPrefixMapping());
+                }
+
+                response.setStatus(HttpStatus.OK.value());
+                response.setContentType(format.getKey().toString());
+                if (lang != ResultSetLang.RS_Thrift && lang != Lang.RDFTHRIFT) response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                if (capped != null) {
+                    // Dacă rezultatul a fost trunchiat aflăm abia la sfârșit: trailer HTTP unde protocolul îl permite
+                    // (HTTP/1.1 chunked, HTTP/2) și, pentru clienții care nu citesc trailere (fetch), un marcaj la
+                    // sfârșitul documentului
+                    Capped<?> result = capped;
+                    response.setHeader("X-Result-Row-Cap", String.valueOf(maxRows));
+                    if (trailers) {
+                        try {
+                            response.setTrailerFields(() -> Map.of("X-Result-Truncated", result.truncated == null ? "false" : result.truncated));
+                            response.setHeader(HttpHeaders.TRAILER, "X-Result-Truncated");
+                        } catch (IllegalStateException e) {
+                            // Conectorul nu acceptă trailere pentru această cerere
+                        }
+                    }
+                }
+                response.flushBuffer();
+                OutputStream out = response.getOutputStream();
+                JsonTail tail = capped != null && lang == ResultSetLang.RS_JSON ? new JsonTail(out) : null;
+                output.write(tail != null ? tail : out);
+                String truncated = capped == null ? null : capped.truncated;
+                if (tail != null) {
+                    tail.finish(truncated == null ? null : "\"truncated\": \"" + truncated + "\"");
+                } else if (truncated != null) {
+                    writeMarker(out, lang, truncated);
+                }
+                response.flushBuffer();
+                if (truncated != null) {
+                    System.out.println("[sparql] Rezultat trunchiat (" + truncated + ") după " + capped.count + " rânduri");
                 }
-            } catch (Exception e) {
-                resultMap.put("error", e.getMessage());
+                return null;
+            } catch (QueryCancelledException e) {
+                return error(HttpStatus.SERVICE_UNAVAILABLE, "Query timed out (first result within "
+                        + firstRowTimeout.toSeconds() + " s, whole query within " + timeout.toSeconds() + " s).");
+            } catch (IOException e) {
+                // Ieșirea din try închide QueryExecution, deci evaluarea se oprește odată cu clientul
+                System.err.println("[sparql] Clientul a închis conexiunea: " + e.getMessage());
+                return null;
+            } catch (RuntimeException e) {
+                if (!response.isCommitted()) {
+                    return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage() == null ? e.toString() : e.getMessage());
+                }
+                System.err.println("[sparql] Răspuns întrerupt după primele rezultate: " + e.getMessage());
+                return null;
             }
         });
+    }
+
+    // Cel mult "max" elemente; la depășirea limitei sau a timpului total se oprește curat, ca răspunsul deja
+    // început să rămână un document valid, și reține motivul în "truncated" ("row-cap" sau "timeout")
+    private static class Capped<T> implements Iterator<T> {
+        private final Iterator<T> source;
+        private final long max;
+        long count;
+        volatile String truncated;
+
+        Capped(Iterator<T> source, long max) {
+            this.source = source;
+            this.max = max;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (truncated != null) return false;
+            try {
+                if (!source.hasNext()) return false;
+            } catch (QueryCancelledException e) {
+                if (count == 0) throw e;
+                truncated = "timeout";
+                return false;
+            }
+            if (count < max) return true;
+            truncated = "row-cap";
+            return false;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            count++;
+            return source.next();
+        }
+    }
+
+    // Marcajul de trunchiere ca comentariu, în formatele care au comentarii; CSV, TSV, Thrift și JSON-LD nu au,
+    // acolo rămâne trailerul X-Result-Truncated și numărul de rânduri egal cu X-Result-Row-Cap
+    private static void writeMarker(OutputStream out, Lang lang, String truncated) throws IOException {
+        String marker = lang == ResultSetLang.RS_XML ? "<!-- truncated: " + truncated + " -->\n"
+                : lang == Lang.TURTLE || lang == Lang.NTRIPLES ? "# truncated: " + truncated + "\n"
+                : null;
+        if (marker != null) out.write(marker.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Rezultatele JSON: reține ultima acoladă a documentului (și spațiile de după ea), ca la sfârșit să putem adăuga
+    // membrul "truncated" înainte de închiderea obiectului
+    private static class JsonTail extends FilterOutputStream {
+
+        private byte[] held = new byte[0];
+
+        JsonTail(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            int brace = -1;
+            for (int i = offset + length - 1; i >= offset; i--) {
+                if (bytes[i] == '}') {
+                    brace = i;
+                    break;
+                }
+                if (!Character.isWhitespace(bytes[i])) break;
+            }
+            if (brace >= 0) {
+                out.write(held);
+                out.write(bytes, offset, brace - offset);
+                held = Arrays.copyOfRange(bytes, brace, offset + length);
+            } else if (held.length > 0 && blank(bytes, offset, length)) {
+                byte[] joined = Arrays.copyOf(held, held.length + length);
+                System.arraycopy(bytes, offset, joined, held.length, length);
+                held = joined;
+            } else {
+                out.write(held);
+                held = new byte[0];
+                out.write(bytes, offset, length);
+            }
+        }
+
+        // Scrie membrul (dacă există) și acolada reținută
+        void finish(String member) throws IOException {
+            if (member != null) out.write((",\n  " + member + "\n").getBytes(StandardCharsets.UTF_8));
+            out.write(held);
+            held = new byte[0];
+            out.flush();
+        }
+
+        private static boolean blank(byte[] bytes, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                if (!Character.isWhitespace(bytes[i])) return false;
+            }
+            return true;
+        }
+    }
+
+    // Triplele trec una câte una prin StreamRDF; Turtle în blocuri pe subiect, cu prefixele din interogare
+    private static void writeTriples(OutputStream out, Iterator<Triple> triples, Lang lang, PrefixMapping prefixes) {
+        StreamRDF stream = lang == Lang.JSONLD ? new JsonLdStream(out)
+                : lang == Lang.TURTLE ? StreamRDFWriter.getWriterStream(out, RDFFormat.TURTLE_BLOCKS)
+                : StreamRDFWriter.getWriterStream(out, lang);
+        stream.start();
+        if (lang == Lang.TURTLE) prefixes.getNsPrefixMap().forEach(stream::prefix);
+        triples.forEachRemaining(stream::triple);
+        stream.finish();
+    }
+
+    // Primul format suportat, în ordinea calității din Accept; fără Accept sau cu */* folosim primul din listă
+    private static Map.Entry<MediaType, Lang> negotiate(String accept, Map<MediaType, Lang> formats) {
+        List<MediaType> accepted = new ArrayList<>(accept == null || accept.isBlank()
+                ? List.of(MediaType.ALL) : MediaType.parseMediaTypes(accept));
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) continue;
+            for (Map.Entry<MediaType, Lang> format : formats.entrySet()) {
+                if (type.includes(format.getKey())) return format;
+            }
+        }
+        return null;
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(Map.of("error", message));
+    }
 
-        return resultMap;
+    private String client(HttpServletRequest request) {
+        String forwarded = clientHeader.isBlank() ? null : request.getHeader(clientHeader);
+        if (forwarded == null || forwarded.isBlank()) return request.getRemoteAddr();
+        // Primele intrări le poate scrie oricine; ultima e adăugată de proxy-ul nostru (adresa care s-a conectat la el)
+        int comma = forwarded.lastIndexOf(',');
+        String client = forwarded.substring(comma + 1).trim();
+        return client.isEmpty() ? request.getRemoteAddr() : client;
     }
 
     @Operation(
@@ -0,0 +1,12 @@
+package com.example.backend.model;
+
+public class SearchResult {
+    public String id;
+    public String uri;
+    public String type;    // artwork | artist | museum | collector | category | material | other
+    public String label;
+    public String domain;  // ro | int pentru opere, altfel null
+    public float score;
+    public String field;   // câmpul cu cea mai bună potrivire (title, name, description, ...)
+    public String text;    // valoarea acelui câmp
+}
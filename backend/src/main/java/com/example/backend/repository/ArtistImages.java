@@ -0,0 +1,50 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.RDFNode;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Harta URI artist -> imagine din graful artiștilor, construită o dată pentru fiecare versiune a grafului.
+// Listele de artiști o citesc direct, în loc să ruleze câte o interogare pentru fiecare artist.
+@Component
+public class ArtistImages implements KnowledgeGraphListener {
+
+    private final SparqlTemplates templates;
+
+    public ArtistImages(SparqlTemplates templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        Map<String, String> images = version.calculateRead(() -> {
+            Map<String, String> map = new HashMap<>();
+            try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artist-images"), version.artists())) {
+                ResultSet rs = qexec.execSelect();
+                while (rs.hasNext()) {
+                    QuerySolution sol = rs.nextSolution();
+                    RDFNode node = sol.get("image");
+                    map.putIfAbsent(sol.getResource("artist").getURI(),
+                            node.isResource() ? node.asResource().getURI() : node.asLiteral().getString());
+                }
+            }
+            return map;
+        });
+        version.attach(Images.class, new Images(images));
+        System.out.println("[index] imagini artiști: " + images.size());
+    }
+
+    public String get(KnowledgeGraph.Version version, String artistUri) {
+        Images images = version.get(Images.class);
+        return images == null ? null : images.byUri().get(artistUri);
+    }
+
+    record Images(Map<String, String> byUri) {}
+}
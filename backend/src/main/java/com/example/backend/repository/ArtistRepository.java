@@ -1,228 +1,224 @@
 package com.example.backend.repository;
+import com.example.backend.config.KnowledgeGraph;
 import com.example.backend.model.Artist;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.*;
 import org.springframework.stereotype.Repository;
 
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 @Repository
 public class ArtistRepository {
 
-    private final Model artistModel;
-    private final Model artworkModel;
-    private final Model wikiModel;
+    private final KnowledgeGraph graph;
+    private final SparqlTemplates templates;
+    private final ArtistImages images;
+    private final ArtistSuggestIndex suggestIndex;
 
-    public ArtistRepository(Model artistModel, Model artworkModel, Model wikiModel) {
-        this.artistModel = artistModel;
-        this.artworkModel = artworkModel;
-        this.wikiModel = wikiModel;
+    public ArtistRepository(KnowledgeGraph graph, SparqlTemplates templates, ArtistImages images, ArtistSuggestIndex suggestIndex) {
+        this.graph = graph;
+        this.templates = templates;
+        this.images = images;
+        this.suggestIndex = suggestIndex;
     }
 
     public Artist findByUri(String artistUri, String domain) {
-        String sparqlTemplate = loadSparql("/sparql/artist-details.sparql");
-        String sparql = sparqlTemplate.replace("{{ARTIST_URI}}", artistUri);
+        Query query = templates.get("artist-details");
 
-        Query query = QueryFactory.create(sparql);
+        KnowledgeGraph.Version version = graph.current();
 
-        Model modelChosen;
-        if(Objects.equals(domain, "ro")) {
-            modelChosen = artworkModel;
-        } else {
-            modelChosen = wikiModel;
-        }
+        Model modelChosen = version.artworks(domain);
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(query, modelChosen)) {
-            ResultSet rs = qexec.execSelect();
+        return version.calculateRead(() -> {
+            try (QueryExecution qexec = SparqlTemplates.execute(query, modelChosen, "artistInput", artistUri)) {
+                ResultSet rs = qexec.execSelect();
 
-            if (!rs.hasNext()) return null;
+                if (!rs.hasNext()) return null;
 
-            QuerySolution sol = rs.nextSolution();
-            Artist artist = new Artist();
+                QuerySolution sol = rs.nextSolution();
+                Artist artist = new Artist();
 
-            artist.uri = artistUri;
-            artist.name = sol.contains("name") ? sol.getLiteral("name").getString() : "";
-            artist.wikidataLabel = sol.contains("wikidataName") ? sol.getLiteral("wikidataName").getString() : "";
+                artist.uri = artistUri;
+                artist.name = sol.contains("name") ? sol.getLiteral("name").getString() : "";
+                artist.wikidataLabel = sol.contains("wikidataName") ? sol.getLiteral("wikidataName").getString() : "";
 
-            String imageArtist = getArtistImage(artistUri);
-            artist.imageLink = sol.contains("imageLink") ? sol.getResource("imageLink").getURI() : null;
-            if(imageArtist != null) {
-                artist.imageLink = imageArtist;
-            }
-            // ID compatibil URL
+                String imageArtist = images.get(version, artistUri);
+                artist.imageLink = sol.contains("imageLink") ? sol.getResource("imageLink").getURI() : null;
+                if(imageArtist != null) {
+                    artist.imageLink = imageArtist;
+                }
+                // ID compatibil URL
 
-            String[] parts = artistUri.split("/");
+                String[] parts = artistUri.split("/");
 
-            artist.id = parts[parts.length - 1];
-            return artist;
-        }
+                artist.id = parts[parts.length - 1];
+                return artist;
+            }
+        });
     }
 
     public List<Artist> findAllArtistWithFirstArtwork(String domain) {
         List<Artist> artists = new ArrayList<>();
 
-        String ttlQueryStr = loadSparql("/sparql/artist-first-artwork.sparql");
-        Query ttlQuery = QueryFactory.create(ttlQueryStr);
+        Query ttlQuery = templates.get("artist-first-artwork");
 
-        Model modelChosen;
-        if(Objects.equals(domain, "ro")) {
-            modelChosen = artworkModel;
-        } else {
-            modelChosen = wikiModel;
-        }
+        KnowledgeGraph.Version version = graph.current();
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(ttlQuery, modelChosen)) {
-            ResultSet rs = qexec.execSelect();
+        Model modelChosen = version.artworks(domain);
 
-            while (rs.hasNext()) {
-                QuerySolution sol = rs.nextSolution();
+        version.executeRead(() -> {
+            try (QueryExecution qexec = SparqlTemplates.execute(ttlQuery, modelChosen)) {
+                ResultSet rs = qexec.execSelect();
 
-                Resource artistRes = sol.getResource("artist");
-                if (artistRes == null) continue;
+                while (rs.hasNext()) {
+                    QuerySolution sol = rs.nextSolution();
 
-                String artistUri = artistRes.getURI();
-                String imageArtist = getArtistImage(artistUri);
+                    Resource artistRes = sol.getResource("artist");
+                    if (artistRes == null) continue;
 
-                String[] parts = artistUri.split("/");
-                String artistId = parts[parts.length - 1];
-
-                String name =
-                        sol.contains("wikidataName") ? sol.getLiteral("wikidataName").getString()
-                                : sol.contains("name") ? sol.getLiteral("name").getString()
-                                : "Unknown";
-
-                String image = null;
-                if (sol.contains("artistImage")) {
-                    RDFNode node = sol.get("artistImage");
-                    if (node.isResource()) {
-                        image = node.asResource().getURI();
-                    } else if (node.isLiteral()) {
-                        image = node.asLiteral().getString();
+                    String artistUri = artistRes.getURI();
+                    String imageArtist = images.get(version, artistUri);
+
+                    String[] parts = artistUri.split("/");
+                    String artistId = parts[parts.length - 1];
+
+                    String name =
+                            sol.contains("wikidataName") ? sol.getLiteral("wikidataName").getString()
+                                    : sol.contains("name") ? sol.getLiteral("name").getString()
+                                    : "Unknown";
+
+                    String image = null;
+                    if (sol.contains("artistImage")) {
+                        RDFNode node = sol.get("artistImage");
+                        if (node.isResource()) {
+                            image = node.asResource().getURI();
+                        } else if (node.isLiteral()) {
+                            image = node.asLiteral().getString();
+                        }
                     }
-                }
 
-                if(imageArtist != null) {
-                    image = imageArtist;
-                }
+                    if(imageArtist != null) {
+                        image = imageArtist;
+                    }
 
-                Artist artist = new Artist();
-                artist.uri = artistUri;
-                artist.id = artistId;
-                artist.name = name;
-                artist.imageLink = image;
+                    Artist artist = new Artist();
+                    artist.uri = artistUri;
+                    artist.id = artistId;
+                    artist.name = name;
+                    artist.imageLink = image;
 
-                artists.add(artist);
+                    artists.add(artist);
+                }
             }
-        }
+        });
 
         return artists;
     }
 
-
-    private String loadSparql(String path) {
-        try (InputStream is = getClass().getResourceAsStream(path)) {
-            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            throw new RuntimeException("Cannot load SPARQL: " + path, e);
-        }
-    }
-
     public List<Artist> findAllArtistWithFirstArtworkHome(String domain, int pageSize, int offset) {
 
 
         List<Artist> artists = new ArrayList<>();
 
-        String ttlQueryStr = loadSparql("/sparql/artist-first-artwork-home.sparql")
-                .replace("{{LIMIT}}", String.valueOf(pageSize))
-                .replace("{{OFFSET}}", String.valueOf(offset));
+        Query ttlQuery = templates.page("artist-first-artwork-home", pageSize, offset);
 
-        Query ttlQuery = QueryFactory.create(ttlQueryStr);
+        KnowledgeGraph.Version version = graph.current();
 
-        Model modelChosen;
-        if(Objects.equals(domain, "ro")) {
-            modelChosen = artworkModel;
-        } else {
-            modelChosen = wikiModel;
-        }
+        Model modelChosen = version.artworks(domain);
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(ttlQuery, modelChosen)) {
-            ResultSet rs = qexec.execSelect();
+        version.executeRead(() -> {
+            try (QueryExecution qexec = SparqlTemplates.execute(ttlQuery, modelChosen)) {
+                ResultSet rs = qexec.execSelect();
 
-            while (rs.hasNext()) {
-                QuerySolution sol = rs.nextSolution();
+                while (rs.hasNext()) {
+                    QuerySolution sol = rs.nextSolution();
 
-                Resource artistRes = sol.getResource("artist");
-                if (artistRes == null) continue;
+                    Resource artistRes = sol.getResource("artist");
+                    if (artistRes == null) continue;
 
-                String artistUri = artistRes.getURI();
-                String imageArtist = getArtistImage(artistUri);
+                    String artistUri = artistRes.getURI();
+                    String imageArtist = images.get(version, artistUri);
 
 
-                // ID compatibil URL
-                String[] parts = artistUri.split("/");
-                String artistId = parts[parts.length - 1];
-
-                // Wikidata > name > fallback
-                String name =
-                        sol.contains("wikidataName") ? sol.getLiteral("wikidataName").getString()
-                                : sol.contains("name") ? sol.getLiteral("name").getString()
-                                : "Unknown";
-
-                String image = null;
-
-                if (sol.contains("artistImage")) {
-                    RDFNode node = sol.get("artistImage");
-                    if (node.isResource()) {
-                        image = node.asResource().getURI();
-                    } else if (node.isLiteral()) {
-                        image = node.asLiteral().getString();
+                    // ID compatibil URL
+                    String[] parts = artistUri.split("/");
+                    String artistId = parts[parts.length - 1];
+
+                    // Wikidata > name > fallback
+                    String name =
+                            sol.contains("wikidataName") ? sol.getLiteral("wikidataName").getString()
+                                    : sol.contains("name") ? sol.getLiteral("name").getString()
+                                    : "Unknown";
+
+                    String image = null;
+
+                    if (sol.contains("artistImage")) {
+                        RDFNode node = sol.get("artistImage");
+                        if (node.isResource()) {
+                            image = node.asResource().getURI();
+                        } else if (node.isLiteral()) {
+                            image = node.asLiteral().getString();
+                        }
                     }
-                }
 
-                if(imageArtist != null) {
-                    image = imageArtist;
-                }
+                    if(imageArtist != null) {
+                        image = imageArtist;
+                    }
 
-                Artist artist = new Artist();
-                artist.uri = artistUri;
-                artist.id = artistId;
-                artist.name = name;
-                artist.imageLink = image;
+                    Artist artist = new Artist();
+                    artist.uri = artistUri;
+                    artist.id = artistId;
+                    artist.name = name;
+                    artist.imageLink = image;
 
-                artists.add(artist);
+                    artists.add(artist);
+                }
             }
-        }
+        });
 
         return artists;
     }
 
-    public String getArtistImage(String artistUri) {
-
-        String sparql = loadSparql("/sparql/artist-image-simple.sparql")
-                .replace("{{ARTIST_URI}}", artistUri);
+    // Artiștii al căror nume (în orice ordine a cuvintelor, fără diacritice) începe cu "prefix"
+    public List<Artist> suggest(String prefix, String domain, int limit) {
+        KnowledgeGraph.Version version = graph.current();
+        ArtistSuggestIndex.Domain index = suggestIndex.of(version, domain);
+        if (index == null) return suggestWithoutIndex(prefix, domain, limit);
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(sparql, artistModel)) {
-            ResultSet rs = qexec.execSelect();
-
-            if (rs.hasNext()) {
-                QuerySolution sol = rs.nextSolution();
+        List<Artist> artists = new ArrayList<>();
+        for (int id : index.suggest(prefix, limit)) {
+            Artist artist = new Artist();
+            artist.uri = index.uri(id);
+            artist.id = artist.uri.substring(artist.uri.lastIndexOf('/') + 1);
+            artist.name = index.name(id);
+            artists.add(artist);
+        }
+        return artists;
+    }
 
-                if (sol.contains("image")) {
-                    RDFNode node = sol.get("image");
+    // Fără index: filtrăm lista completă, în ordine alfabetică
+    private List<Artist> suggestWithoutIndex(String prefix, String domain, int limit) {
+        String q = ArtistSuggestIndex.normalize(prefix);
+        if (q.isEmpty()) return List.of();
 
-                    if (node.isResource()) {
-                        return node.asResource().getURI();
-                    } else {
-                        return node.asLiteral().getString();
-                    }
-                }
+        Map<String, Artist> matches = new LinkedHashMap<>();
+        for (Artist artist : findAllArtistWithFirstArtwork(domain)) {
+            if (matches.size() == limit) break;
+            if (ArtistSuggestIndex.keys(artist.name).stream().anyMatch(key -> key.startsWith(q))) {
+                matches.putIfAbsent(artist.uri, artist);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
+        return new ArrayList<>(matches.values());
+    }
 
-        return null;
+    // Numărul de artiști din lista completă (findAllArtistWithFirstArtwork), păstrat per versiune și domeniu
+    public int count(String domain) {
+        KnowledgeGraph.Version version = graph.current();
+        return version.cached("artist-count:" + KnowledgeGraph.domain(domain),
+                () -> version.calculateRead(() -> SparqlTemplates.count(templates.get("artist-count"), version.artworks(domain))));
+    }
+
+    public String getArtistImage(String artistUri) {
+        return images.get(graph.current(), artistUri);
     }
 }
@@ -0,0 +1,315 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+// Sugestii de artiști după prefix: un trie compact (radix, în tablouri) peste numele normalizate, fără
+// diacritice și în toate rotațiile cuvintelor, ca "brancusi c", "constantin bra" și "Brâncuși, Constantin"
+// să ajungă la același artist. Fiecare nod păstrează deja cei mai buni TOP artiști din subarborele lui,
+// deci o interogare costă doar coborârea pe prefix.
+@Component
+public class ArtistSuggestIndex implements KnowledgeGraphListener {
+
+    private static final List<String> DOMAINS = List.of("ro", "int");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final SparqlTemplates templates;
+
+    @Value("${arp.artist-suggest.enabled:true}")
+    private boolean enabled;
+
+    public ArtistSuggestIndex(SparqlTemplates templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        if (!enabled) return;
+
+        Map<String, Domain> domains = new HashMap<>();
+        for (String domain : DOMAINS) {
+            long start = System.currentTimeMillis();
+            Domain index = version.calculateRead(() -> build(templates, version.artworks(domain)));
+            domains.put(domain, index);
+            System.out.println("[index] sugestii artiști " + domain + ": " + index.size() + " artiști, "
+                    + index.nodes() + " noduri în " + (System.currentTimeMillis() - start) + " ms");
+        }
+        version.attach(Snapshot.class, new Snapshot(domains));
+    }
+
+    // null dacă indexul e dezactivat sau domeniul nu este indexat
+    public Domain of(KnowledgeGraph.Version version, String domain) {
+        Snapshot snapshot = version.get(Snapshot.class);
+        return snapshot == null ? null : snapshot.domains().get(domain);
+    }
+
+    public static Domain build(SparqlTemplates templates, Model artworks) {
+        Map<String, Set<String>> names = new HashMap<>();
+        Map<String, String> display = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+
+        try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artist-suggest"), artworks)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) {
+                QuerySolution sol = rs.nextSolution();
+                String artist = sol.getResource("artist").getURI();
+                if (artist == null) continue;
+
+                Set<String> variants = names.computeIfAbsent(artist, k -> new LinkedHashSet<>());
+                counts.put(artist, sol.contains("artworks") ? sol.getLiteral("artworks").getInt() : 0);
+                // Ca în lista de artiști: numele Wikidata are prioritate
+                if (sol.contains("wikidataName")) {
+                    String name = sol.getLiteral("wikidataName").getString();
+                    variants.add(name);
+                    display.put(artist, name);
+                }
+                if (sol.contains("name")) {
+                    String name = sol.getLiteral("name").getString();
+                    variants.add(name);
+                    display.putIfAbsent(artist, name);
+                }
+            }
+        }
+
+        String[] uris = names.keySet().toArray(new String[0]);
+        String[] displayOf = new String[uris.length];
+        int[] countOf = new int[uris.length];
+        List<List<String>> namesOf = new ArrayList<>(uris.length);
+        for (int i = 0; i < uris.length; i++) {
+            displayOf[i] = display.getOrDefault(uris[i], "Unknown");
+            countOf[i] = counts.get(uris[i]);
+            namesOf.add(new ArrayList<>(names.get(uris[i])));
+        }
+        return new Domain(uris, displayOf, countOf, namesOf);
+    }
+
+    // Litere mici, fără diacritice și semne de punctuație, cuvinte separate de un singur spațiu
+    public static String normalize(String text) {
+        String folded = MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(folded).replaceAll(" ").trim();
+    }
+
+    // Cheile unui nume: toate rotațiile cuvintelor ("brancusi constantin", "constantin brancusi")
+    public static List<String> keys(String name) {
+        String[] words = normalize(name).split(" ");
+        List<String> keys = new ArrayList<>(words.length);
+        if (words[0].isEmpty()) return keys;
+        for (int start = 0; start < words.length; start++) {
+            StringBuilder key = new StringBuilder();
+            for (int i = 0; i < words.length; i++) {
+                if (i > 0) key.append(' ');
+                key.append(words[(start + i) % words.length]);
+            }
+            keys.add(key.toString());
+        }
+        return keys;
+    }
+
+    record Snapshot(Map<String, Domain> domains) {}
+
+    public static class Domain {
+
+        // Câte sugestii păstrează fiecare nod (și numărul maxim întors de o interogare)
+        public static final int TOP = 10;
+
+        // Artiștii sunt numerotați în ordinea sugestiilor (mai multe opere, apoi alfabetic),
+        // deci "cei mai buni" dintr-un subarbore sunt pur și simplu id-urile cele mai mici
+        private final String[] uris;
+        private final String[] names;
+
+        // Nodul n: eticheta muchiei dinspre părinte = labels[labelStart[n] .. labelStart[n + 1]),
+        // copiii = firstChild[n] .. firstChild[n + 1] (contigui, ordonați după primul caracter),
+        // sugestiile = top[topStart[n] .. topStart[n + 1])
+        private final char[] labels;
+        private final int[] labelStart;
+        private final int[] firstChild;
+        private final int[] top;
+        private final int[] topStart;
+
+        public Domain(String[] uris, String[] names, int[] artworks, List<? extends List<String>> variants) {
+            String[] sortNames = new String[uris.length];
+            Integer[] order = new Integer[uris.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+                sortNames[i] = normalize(names[i]);
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingInt(i -> -artworks[i])
+                    .thenComparing(i -> sortNames[i])
+                    .thenComparing(i -> uris[i]));
+
+            this.uris = new String[uris.length];
+            this.names = new String[uris.length];
+            List<String> keys = new ArrayList<>();
+            List<Integer> owners = new ArrayList<>();
+            for (int id = 0; id < order.length; id++) {
+                this.uris[id] = uris[order[id]];
+                this.names[id] = names[order[id]];
+                for (String name : variants.get(order[id])) {
+                    for (String key : keys(name)) {
+                        keys.add(key);
+                        owners.add(id);
+                    }
+                }
+            }
+
+            Integer[] sorted = new Integer[keys.size()];
+            for (int i = 0; i < sorted.length; i++) sorted[i] = i;
+            Arrays.sort(sorted, Comparator.<Integer, String>comparing(keys::get).thenComparingInt(owners::get));
+            String[] k = new String[sorted.length];
+            int[] o = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                k[i] = keys.get(sorted[i]);
+                o[i] = owners.get(sorted[i]);
+            }
+
+            Builder builder = new Builder(k, o);
+            this.labels = builder.labels.toString().toCharArray();
+            this.labelStart = builder.labelStart.stream().mapToInt(Integer::intValue).toArray();
+            this.firstChild = builder.firstChild.stream().mapToInt(Integer::intValue).toArray();
+            this.topStart = new int[labelStart.length];
+            this.top = builder.top(topStart);
+        }
+
+        // Cei mai buni "limit" artiști (id-uri) ale căror nume încep cu "prefix", în ordinea sugestiilor
+        public int[] suggest(String prefix, int limit) {
+            String q = normalize(prefix);
+            if (q.isEmpty() || limit <= 0) return new int[0];
+
+            int node = 0, pos = 0;
+            while (pos < q.length()) {
+                int child = child(node, q.charAt(pos));
+                if (child < 0) return new int[0];
+                int start = labelStart[child], length = labelStart[child + 1] - start;
+                int m = Math.min(length, q.length() - pos);
+                for (int i = 0; i < m; i++) {
+                    if (labels[start + i] != q.charAt(pos + i)) return new int[0];
+                }
+                pos += m;
+                node = child;
+            }
+            int from = topStart[node];
+            return Arrays.copyOfRange(top, from, from + Math.min(limit, topStart[node + 1] - from));
+        }
+
+        // Copilul lui "node" a cărui etichetă începe cu "c", prin căutare binară; -1 dacă nu există
+        private int child(int node, char c) {
+            int lo = firstChild[node], hi = firstChild[node + 1] - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                char first = labels[labelStart[mid]];
+                if (first < c) lo = mid + 1;
+                else if (first > c) hi = mid - 1;
+                else return mid;
+            }
+            return -1;
+        }
+
+        public String uri(int id) {
+            return uris[id];
+        }
+
+        public String name(int id) {
+            return names[id];
+        }
+
+        public int size() {
+            return uris.length;
+        }
+
+        public int nodes() {
+            return labelStart.length - 1;
+        }
+    }
+
+    // Construiește trie-ul în lățime din cheile sortate: fiecare nod acoperă un interval de chei cu același
+    // prefix, iar copiii unui nod sunt alocați împreună, deci ajung contigui în tablouri
+    private static class Builder {
+
+        private final String[] keys;
+        private final int[] owners;
+        private final StringBuilder labels = new StringBuilder();
+        private final List<Integer> labelStart = new ArrayList<>();
+        private final List<Integer> firstChild = new ArrayList<>();
+        private final List<int[]> ranges = new ArrayList<>(); // nod -> {lo, hi, adâncime}
+
+        Builder(String[] keys, int[] owners) {
+            this.keys = keys;
+            this.owners = owners;
+
+            add(0, keys.length, 0, 0);  // rădăcina, cu eticheta vidă
+            for (int node = 0; node < ranges.size(); node++) {
+                int[] range = ranges.get(node);
+                int lo = range[0], hi = range[1], depth = range[2];
+                firstChild.add(ranges.size());
+
+                int i = lo;
+                while (i < hi && keys[i].length() == depth) i++;  // cheile care se termină aici
+                while (i < hi) {
+                    char c = keys[i].charAt(depth);
+                    int j = i + 1;
+                    while (j < hi && keys[j].charAt(depth) == c) j++;
+                    // Prefixul comun al grupului = prefixul comun al primei și ultimei chei (sunt sortate)
+                    int end = depth + 1, max = Math.min(keys[i].length(), keys[j - 1].length());
+                    while (end < max && keys[i].charAt(end) == keys[j - 1].charAt(end)) end++;
+                    add(i, j, depth, end);
+                    i = j;
+                }
+            }
+            firstChild.add(ranges.size());
+            labelStart.add(labels.length());
+        }
+
+        private void add(int lo, int hi, int from, int to) {
+            labelStart.add(labels.length());
+            if (to > from) labels.append(keys[lo], from, to);
+            ranges.add(new int[]{lo, hi, to});
+        }
+
+        // Sugestiile fiecărui nod, de jos în sus: cele mai mici TOP id-uri distincte dintre cheile care se
+        // termină în nod și sugestiile copiilor (deja calculate, pentru că au indici mai mari)
+        int[] top(int[] topStart) {
+            int n = ranges.size();
+            int[][] perNode = new int[n][];
+            int total = 0;
+            for (int node = n - 1; node >= 0; node--) {
+                int[] range = ranges.get(node);
+                TreeSet<Integer> best = new TreeSet<>();
+                for (int i = range[0]; i < range[1] && keys[i].length() == range[2]; i++) offer(best, owners[i]);
+                for (int child = firstChild.get(node); child < firstChild.get(node + 1); child++) {
+                    for (int id : perNode[child]) {
+                        if (best.size() == Domain.TOP && id > best.last()) break;
+                        offer(best, id);
+                    }
+                }
+                perNode[node] = best.stream().mapToInt(Integer::intValue).toArray();
+                total += perNode[node].length;
+            }
+
+            int[] top = new int[total];
+            for (int node = 0, pos = 0; node < n; node++) {
+                topStart[node] = pos;
+                System.arraycopy(perNode[node], 0, top, pos, perNode[node].length);
+                pos += perNode[node].length;
+                perNode[node] = null;
+            }
+            topStart[n] = total;
+            return top;
+        }
+
+        private static void offer(TreeSet<Integer> best, int id) {
+            best.add(id);
+            if (best.size() > Domain.TOP) best.pollLast();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import com.example.backend.model.Artwork;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Proiecție materializată: fiecare arp:Artwork devine un obiect Artwork complet, o singură dată pentru fiecare
+// versiune a grafului. Detaliile, listarea și operele unui artist devin căutări în memorie în loc de interogarea
+// mare cu OPTIONAL/GROUP_CONCAT. Obiectele sunt partajate între cereri, deci nu se modifică.
+@Component
+public class ArtworkIndex implements KnowledgeGraphListener {
+
+    private static final List<String> DOMAINS = List.of("ro", "int");
+
+    private final SparqlTemplates templates;
+
+    @Value("${arp.artwork-index.enabled:true}")
+    private boolean enabled;
+
+    public ArtworkIndex(SparqlTemplates templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        if (!enabled) return;
+
+        Map<String, Domain> domains = new HashMap<>();
+        for (String domain : DOMAINS) {
+            long start = System.currentTimeMillis();
+            Domain index = build(version, domain);
+            domains.put(domain, index);
+            System.out.println("[index] " + domain + ": " + index.size() + " opere în "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+        version.attach(Snapshot.class, new Snapshot(domains));
+    }
+
+    // null dacă indexul e dezactivat sau domeniul nu este indexat -> repository-ul folosește SPARQL
+    public Domain of(KnowledgeGraph.Version version, String domain) {
+        Snapshot snapshot = version.get(Snapshot.class);
+        return snapshot == null ? null : snapshot.domains().get(domain);
+    }
+
+    private Domain build(KnowledgeGraph.Version version, String domain) {
+        Model model = version.artworks(domain);
+
+        return version.calculateRead(() -> {
+            List<Artwork> ordered = new ArrayList<>();
+            try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artwork-find-next"), model)) {
+                ResultSet rs = qexec.execSelect();
+                while (rs.hasNext()) {
+                    ordered.add(ArtworkRepository.toArtwork(rs.nextSolution()));
+                }
+            }
+
+            Map<String, Artwork> byUri = new HashMap<>();
+            for (Artwork a : ordered) {
+                byUri.put(a.uri, a);
+            }
+
+            Map<String, List<Artwork>> byArtist = new HashMap<>();
+            try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artwork-artists"), model)) {
+                ResultSet rs = qexec.execSelect();
+                while (rs.hasNext()) {
+                    QuerySolution sol = rs.nextSolution();
+                    Artwork a = byUri.get(sol.getResource("subject").getURI());
+                    if (a != null) {
+                        byArtist.computeIfAbsent(sol.getResource("artist").getURI(), k -> new ArrayList<>()).add(a);
+                    }
+                }
+            }
+            byArtist.values().forEach(list -> list.sort(Comparator.comparing(a -> a.uri)));
+
+            return new Domain(ordered, byUri, byArtist);
+        });
+    }
+
+    record Snapshot(Map<String, Domain> domains) {}
+
+    public static class Domain {
+
+        // Ordonate după URI, ca ORDER BY ?subject din artwork-find-next.sparql
+        private final List<Artwork> ordered;
+        private final Map<String, Artwork> byUri;
+        private final Map<String, Artwork> byId = new HashMap<>();
+        private final Map<String, List<Artwork>> byArtist;
+
+        Domain(List<Artwork> ordered, Map<String, Artwork> byUri, Map<String, List<Artwork>> byArtist) {
+            ordered.sort(Comparator.comparing(a -> a.uri));
+            this.ordered = ordered;
+            this.byUri = byUri;
+            this.byArtist = byArtist;
+            for (Artwork a : ordered) {
+                byId.putIfAbsent(a.id, a);
+            }
+        }
+
+        public Artwork byUri(String uri) {
+            return byUri.get(uri);
+        }
+
+        public Artwork byId(String id) {
+            return byId.get(id);
+        }
+
+        public List<Artwork> byArtist(String artistUri) {
+            return new ArrayList<>(byArtist.getOrDefault(artistUri, List.of()));
+        }
+
+        public List<Artwork> page(int offset, int limit) {
+            if (offset < 0 || offset >= ordered.size()) return new ArrayList<>();
+            return new ArrayList<>(ordered.subList(offset, Math.min(ordered.size(), offset + limit)));
+        }
+
+        // Paginare cu cursor: prima operă cu URI strict mai mare decât "afterUri" se găsește prin căutare binară
+        public List<Artwork> after(String afterUri, int limit) {
+            int low = 0, high = ordered.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ordered.get(mid).uri.compareTo(afterUri) <= 0) low = mid + 1;
+                else high = mid;
+            }
+            return page(low, limit);
+        }
+
+        public int size() {
+            return ordered.size();
+        }
+    }
+}
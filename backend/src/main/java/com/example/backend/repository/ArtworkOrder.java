@@ -0,0 +1,91 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Doar URI-urile operelor, sortate, pentru fiecare versiune și domeniu: cu proiecția completă (ArtworkIndex)
+// dezactivată, listarea găsește pagina prin căutare binară (cursor) sau direct la poziția ei (offset), apoi cere
+// detaliile doar pentru operele din pagină. Fără el, fiecare pagină SPARQL sortează toate operele.
+@Component
+public class ArtworkOrder implements KnowledgeGraphListener {
+
+    private static final List<String> DOMAINS = List.of("ro", "int");
+
+    private final SparqlTemplates templates;
+
+    @Value("${arp.artwork-order.enabled:true}")
+    private boolean enabled;
+
+    @Value("${arp.artwork-index.enabled:true}")
+    private boolean artworkIndex;
+
+    public ArtworkOrder(SparqlTemplates templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        // Proiecția completă are deja ordinea operelor
+        if (!enabled || artworkIndex) return;
+
+        Map<String, Domain> domains = new HashMap<>();
+        for (String domain : DOMAINS) {
+            long start = System.currentTimeMillis();
+            Domain index = version.calculateRead(() -> build(templates, version.artworks(domain)));
+            domains.put(domain, index);
+            System.out.println("[index] ordinea operelor " + domain + ": " + index.size() + " URI-uri în "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+        version.attach(Snapshot.class, new Snapshot(domains));
+    }
+
+    // null dacă indexul e dezactivat (sau proiecția completă e activă) ori domeniul nu este indexat
+    public Domain of(KnowledgeGraph.Version version, String domain) {
+        Snapshot snapshot = version.get(Snapshot.class);
+        return snapshot == null ? null : snapshot.domains().get(domain);
+    }
+
+    public static Domain build(SparqlTemplates templates, Model artworks) {
+        List<String> uris = new ArrayList<>();
+        try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artwork-page"), artworks)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) uris.add(rs.nextSolution().getResource("subject").getURI());
+        }
+        return new Domain(uris.toArray(new String[0]));
+    }
+
+    record Snapshot(Map<String, Domain> domains) {}
+
+    public static class Domain {
+
+        // Sortate ca ORDER BY ?subject
+        private final String[] uris;
+
+        Domain(String[] uris) {
+            Arrays.sort(uris);
+            this.uris = uris;
+        }
+
+        public List<String> page(int offset, int limit) {
+            if (offset < 0 || offset >= uris.length) return new ArrayList<>();
+            return new ArrayList<>(Arrays.asList(uris).subList(offset, Math.min(uris.length, offset + limit)));
+        }
+
+        // Prima operă cu URI strict mai mare decât "afterUri", prin căutare binară, ca ArtworkIndex.Domain.after
+        public List<String> after(String afterUri, int limit) {
+            int position = Arrays.binarySearch(uris, afterUri);
+            return page(position >= 0 ? position + 1 : -position - 1, limit);
+        }
+
+        public int size() {
+            return uris.length;
+        }
+    }
+}
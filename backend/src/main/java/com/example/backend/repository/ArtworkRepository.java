@@ -1,248 +1,184 @@
 package com.example.backend.repository;
 
+import com.example.backend.config.KnowledgeGraph;
 import com.example.backend.model.*;
 import org.apache.jena.query.*;
 import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
 import org.apache.jena.rdf.model.RDFNode;
 import org.springframework.stereotype.Repository;
 
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 
 @Repository
 public class ArtworkRepository {
 
-    private final Model artworkModel;
-    private final Model wikiModel;
-
-    public ArtworkRepository(Model artworkModel, Model wikiModel) {
-        this.artworkModel = artworkModel;
-        this.wikiModel = wikiModel;
+    private final KnowledgeGraph graph;
+    private final SparqlTemplates templates;
+    private final ArtworkIndex index;
+    private final ArtworkOrder order;
+    private final RecommendationIndex recommendations;
+    private final SimilarityIndex similarity;
+    private final TextSimilarityIndex textSimilarity;
+    private final FacetIndex facets;
+    private final TimelineIndex timeline;
+
+    public ArtworkRepository(KnowledgeGraph graph, SparqlTemplates templates, ArtworkIndex index, ArtworkOrder order,
+                             RecommendationIndex recommendations, SimilarityIndex similarity,
+                             TextSimilarityIndex textSimilarity, FacetIndex facets, TimelineIndex timeline) {
+        this.graph = graph;
+        this.templates = templates;
+        this.index = index;
+        this.order = order;
+        this.recommendations = recommendations;
+        this.similarity = similarity;
+        this.textSimilarity = textSimilarity;
+        this.facets = facets;
+        this.timeline = timeline;
     }
 
 
     public Artwork findByUri(String uri, String domain) {
-        String sparqlTemplate = loadSparql("/sparql/artwork-find-by-uri.sparql");
-
-        String sparql = sparqlTemplate.replace("{{URI}}", uri);
-        Query query = QueryFactory.create(sparql);
-
-        Model modelChosen;
-        if(Objects.equals(domain, "ro")) {
-            modelChosen = artworkModel;
-        } else if(Objects.equals(domain, "int")) {
-            modelChosen = wikiModel;
-        } else {
-            modelChosen = ModelFactory.createUnion(artworkModel, wikiModel);
+        KnowledgeGraph.Version version = graph.current();
+
+        ArtworkIndex.Domain indexed = index.of(version, domain);
+        if (indexed != null) {
+            return indexed.byUri(uri);
         }
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(query, modelChosen)) {
-            ResultSet rs = qexec.execSelect();
-            if (!rs.hasNext()) return null;
+        Query query = templates.get("artwork-find-by-uri");
 
-            QuerySolution sol = rs.nextSolution();
-            Artwork a = new Artwork();
-            Creation creation = new Creation();
+        Model modelChosen = version.artworks(domain);
 
-            creation.startedAtTime  = getLiteral(sol, "date");
-            a.creation = creation;
-            a.uri = uri;
-            a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
-            a.title = getLiteral(sol, "title");
-            a.imageLink = getLiteral(sol, "img");
-            a.description = getLiteral(sol, "desc");
-            a.category = getLiteral(sol, "category");
-            a.condition = getLiteral(sol, "condition");
-            a.inventoryNumber = getLiteral(sol, "inv");
-            a.cimecLink = getLiteral(sol, "cimec");
-            a.wikidataLink = getLiteral(sol, "wikidataLink");
-            a.license = sol.contains("license") ? sol.getResource("license").getURI() : "";
-            a.dimensions = getLiteral(sol, "dimensions");
-
-            a.classification = splitConcat(sol, "classifications");
-            a.cultures = splitConcat(sol, "cultures");
-            a.techniques = splitConcat(sol, "techniques");
-            a.materialsUsed = splitConcat(sol, "materialsUsed");
-
-            a.recordedAt = getLiteral(sol, "recordedAt");
-            a.validatedAt = getLiteral(sol, "validatedAt");
-
-            if (sol.contains("artistName")) {
-                a.artist = new com.example.backend.model.Artist();
-                a.artist.name = getLiteral(sol, "artistName");
-                a.artist.uri = sol.getResource("artistUri").getURI();
-            }
-
-            if (sol.contains("museumName")) {
-                a.currentLocation = new com.example.backend.model.Agent();
-                a.currentLocation.name = getLiteral(sol, "museumName");
-                a.currentLocation.uri = sol.getResource("museumUri").getURI();
-            }
+        return version.calculateRead(() -> {
+            try (QueryExecution qexec = SparqlTemplates.execute(query, modelChosen, "uri", uri)) {
+                ResultSet rs = qexec.execSelect();
+                if (!rs.hasNext()) return null;
 
-            if (sol.contains("registrarUri")) {
-                Registrar registrar = new Registrar();
-                registrar.uri = sol.getResource("registrarUri").getURI();
-                registrar.name = getLiteral(sol, "registrarName");
-                a.registrar = registrar;
-            }
-
-            if (sol.contains("validatorUri")) {
-                Validator validator = new Validator();
-                validator.uri = sol.getResource("validatorUri").getURI();
-                validator.name = getLiteral(sol, "validatorName");
-                a.validator = validator;
+                return toArtwork(rs.nextSolution());
             }
+        });
+    }
 
-            if (sol.contains("ownershipHistory")) {
-                String raw = sol.getLiteral("ownershipHistory").getString();
+    public List<Artwork> findByArtist(String artistUri, String domain) {
+        KnowledgeGraph.Version version = graph.current();
 
-                for (String entry : raw.split(";;")) {
-                    String[] parts = entry.split("\\|\\|", -1);
+        ArtworkIndex.Domain indexed = index.of(version, domain);
+        if (indexed != null) {
+            return indexed.byArtist(artistUri);
+        }
 
-                    Collector o = new Collector();
-                    o.name = parts.length > 0 ? parts[0] : "?";
-                    o.startedAt = parts.length > 1 && !parts[1].isEmpty() ? parts[1] : null;
-                    o.endedAt = parts.length > 2 && !parts[2].isEmpty() ? parts[2] : null;
+        Query query = templates.get("artworks-by-artist");
+        List<Artwork> artworks = new ArrayList<>();
 
-                    if (o.startedAt == null) {
-                        o.startedAt = "?";
-                    }
-                    if (o.endedAt == null) {
-                        o.endedAt = "?";
-                    }
+        Model modelChosen = version.artworks(domain);
 
-                    a.ownershipHistory.add(o);
+        version.executeRead(() -> {
+            try (QueryExecution qexec = SparqlTemplates.execute(query, modelChosen, "artistInput", artistUri)) {
+                ResultSet rs = qexec.execSelect();
+                while (rs.hasNext()) {
+                    artworks.add(toArtwork(rs.nextSolution()));
                 }
             }
+        });
 
-            a.ownershipHistory.sort((o1, o2) -> {
-                // Păstrăm entry-urile cu "?" la final
-                if ("?".equals(o1.startedAt)) return 1;
-                if ("?".equals(o2.startedAt)) return -1;
-                return o1.startedAt.compareTo(o2.startedAt);
-            });
-
-            return a;
-        }
+        return artworks;
     }
 
-    public List<Artwork> findByArtist(String artistUri, String domain) {
-        String sparqlTemplate = loadSparql("/sparql/artworks-by-artist.sparql");
 
-        String sparql = sparqlTemplate.replace("{{ARTIST_URI}}", artistUri);
-        Query query = QueryFactory.create(sparql);
-        List<Artwork> artworks = new ArrayList<>();
 
-        Model modelChosen;
-        if(Objects.equals(domain, "ro")) {
-            modelChosen = artworkModel;
-        } else if(Objects.equals(domain, "int")) {
-            modelChosen = wikiModel;
-        } else {
-            modelChosen = ModelFactory.createUnion(artworkModel, wikiModel);
+    // Un rând din artwork-find-next / artwork-find-by-uri / artworks-by-artist -> Artwork complet (folosit și de ArtworkIndex)
+    static Artwork toArtwork(QuerySolution sol) {
+        Artwork a = new Artwork();
+        Creation creation = new Creation();
+        creation.startedAtTime  = getLiteral(sol, "date");
+        a.creation = creation;
+
+        a.uri = sol.getResource("subject").getURI();
+        a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
+        a.title = getLiteral(sol, "title");
+        a.imageLink = getLiteral(sol, "img");
+        a.description = getLiteral(sol, "desc");
+        a.category = getLiteral(sol, "category");
+        a.condition = getLiteral(sol, "condition");
+        a.inventoryNumber = getLiteral(sol, "inv");
+        a.cimecLink = getLiteral(sol, "cimec");
+        a.wikidataLink = getLiteral(sol, "wikidataLink");
+        a.license = sol.contains("license") ? sol.getResource("license").getURI() : "";
+        a.dimensions = getLiteral(sol, "dimensions");
+
+        a.classification = splitConcat(sol, "classifications");
+        a.cultures = splitConcat(sol, "cultures");
+        a.techniques = splitConcat(sol, "techniques");
+        a.materialsUsed = splitConcat(sol, "materialsUsed");
+
+        a.recordedAt = getLiteral(sol, "recordedAt");
+        a.validatedAt = getLiteral(sol, "validatedAt");
+
+        if (sol.contains("artistName")) {
+            a.artist = new com.example.backend.model.Artist();
+            a.artist.name = getLiteral(sol, "artistName");
+            a.artist.uri = sol.getResource("artistUri").getURI();
         }
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(query, modelChosen)) {
-            ResultSet rs = qexec.execSelect();
-            while (rs.hasNext()) {
-                QuerySolution sol = rs.nextSolution();
-                Artwork a = new Artwork();
-                Creation creation = new Creation();
-
-                creation.startedAtTime  = getLiteral(sol, "date");
-                a.creation = creation;
-                a.uri = sol.getResource("subject").getURI();
-                a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
-                a.title = getLiteral(sol, "title");
-                a.imageLink = getLiteral(sol, "img");
-                a.description = getLiteral(sol, "desc");
-                a.category = getLiteral(sol, "category");
-                a.condition = getLiteral(sol, "condition");
-                a.inventoryNumber = getLiteral(sol, "inv");
-                a.cimecLink = getLiteral(sol, "cimec");
-                a.license = sol.contains("license") ? sol.getResource("license").getURI() : "";
-                a.dimensions = getLiteral(sol, "dimensions");
-
-                a.classification = splitConcat(sol, "classifications");
-                a.cultures = splitConcat(sol, "cultures");
-                a.techniques = splitConcat(sol, "techniques");
-                a.materialsUsed = splitConcat(sol, "materialsUsed");
-
-                a.recordedAt = getLiteral(sol, "recordedAt");
-                a.validatedAt = getLiteral(sol, "validatedAt");
-
-                if (sol.contains("artistName") && sol.getResource("artistUri") != null) {
-                    a.artist = new com.example.backend.model.Artist();
-                    a.artist.name = getLiteral(sol, "artistName");
-                    a.artist.uri = sol.getResource("artistUri").getURI();
-                }
-
-                if (sol.contains("museumName")) {
-                    a.currentLocation = new com.example.backend.model.Agent();
-                    a.currentLocation.name = getLiteral(sol, "museumName");
-                    a.currentLocation.uri = sol.getResource("museumUri").getURI();
-                }
-
-                if (sol.contains("registrarUri")) {
-                    Registrar registrar = new Registrar();
-                    registrar.uri = sol.getResource("registrarUri").getURI();
-                    registrar.name = getLiteral(sol, "registrarName");
-                    a.registrar = registrar;
-                }
+        if (sol.contains("museumName")) {
+            a.currentLocation = new com.example.backend.model.Agent();
+            a.currentLocation.name = getLiteral(sol, "museumName");
+            a.currentLocation.uri = sol.getResource("museumUri").getURI();
+        }
 
-                if (sol.contains("validatorUri")) {
-                    Validator validator = new Validator();
-                    validator.uri = sol.getResource("validatorUri").getURI();
-                    validator.name = getLiteral(sol, "validatorName");
-                    a.validator = validator;
-                }
+        if (sol.contains("registrarUri")) {
+            Registrar registrar = new Registrar();
+            registrar.uri = sol.getResource("registrarUri").getURI();
+            registrar.name = getLiteral(sol, "registrarName");
+            a.registrar = registrar;
+        }
 
-                if (sol.contains("ownershipHistory")) {
-                    String raw = sol.getLiteral("ownershipHistory").getString();
+        if (sol.contains("validatorUri")) {
+            Validator validator = new Validator();
+            validator.uri = sol.getResource("validatorUri").getURI();
+            validator.name = getLiteral(sol, "validatorName");
+            a.validator = validator;
+        }
 
-                    for (String entry : raw.split(";;")) {
-                        String[] parts = entry.split("\\|\\|", -1);
+        if (sol.contains("ownershipHistory")) {
+            String raw = sol.getLiteral("ownershipHistory").getString();
 
-                        Collector o = new Collector();
-                        o.name = parts.length > 0 ? parts[0] : "?";
-                        o.startedAt = parts.length > 1 && !parts[1].isEmpty() ? parts[1] : null;
-                        o.endedAt = parts.length > 2 && !parts[2].isEmpty() ? parts[2] : null;
+            for (String entry : raw.split(";;")) {
+                String[] parts = entry.split("\\|\\|", -1);
 
-                        if (o.startedAt == null) {
-                            o.startedAt = "?";
-                        }
-                        if (o.endedAt == null) {
-                            o.endedAt = "?";
-                        }
+                Collector o = new Collector();
+                o.name = parts.length > 0 ? parts[0] : "?";
+                o.startedAt = parts.length > 1 && !parts[1].isEmpty() ? parts[1] : null;
+                o.endedAt = parts.length > 2 && !parts[2].isEmpty() ? parts[2] : null;
 
-                        a.ownershipHistory.add(o);
-                    }
+                if (o.startedAt == null) {
+                    o.startedAt = "?";
+                }
+                if (o.endedAt == null) {
+                    o.endedAt = "?";
                 }
 
-                a.ownershipHistory.sort((o1, o2) -> {
-                    if ("?".equals(o1.startedAt)) return 1;
-                    if ("?".equals(o2.startedAt)) return -1;
-                    return o1.startedAt.compareTo(o2.startedAt);
-                });
-
-                artworks.add(a);
+                a.ownershipHistory.add(o);
             }
         }
 
-        return artworks;
+        a.ownershipHistory.sort((o1, o2) -> {
+            // Păstrăm entry-urile cu "?" la final
+            if ("?".equals(o1.startedAt)) return 1;
+            if ("?".equals(o2.startedAt)) return -1;
+            return o1.startedAt.compareTo(o2.startedAt);
+        });
+        return a;
     }
 
-
-
-    private String getLiteral(QuerySolution sol, String var) {
+    private static String getLiteral(QuerySolution sol, String var) {
         return sol.contains(var) ? sol.getLiteral(var).getString() : "";
     }
 
-    private List<String> splitConcat(QuerySolution sol, String var) {
+    private static List<String> splitConcat(QuerySolution sol, String var) {
         List<String> list = new ArrayList<>();
         if (sol.contains(var)) {
             String raw = sol.getLiteral(var).getString();
@@ -250,272 +186,369 @@ public class ArtworkRepository {
         }
         return list;
     }
-    private String loadSparql(String path) {
-        try (InputStream is = getClass().getResourceAsStream(path)) {
-            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
-        } catch (Exception e) {
-            throw new RuntimeException("Cannot load SPARQL: " + path, e);
+
+    // Operele care trec de filtrele pe fațete, pagina [offset, offset + limit), cu numărătorile fațetelor;
+    // null dacă indexul de fațete e dezactivat
+    public Faceted findFaceted(Map<FacetIndex.Facet, List<String>> selected, Integer from, Integer to,
+                               int offset, int limit, int facetLimit, String domain) {
+        KnowledgeGraph.Version version = graph.current();
+        FacetIndex.Domain indexed = facets.of(version, domain);
+        if (indexed == null) return null;
+
+        FacetIndex.Result result = indexed.query(selected, from, to, offset, limit, facetLimit);
+        List<String> uris = new ArrayList<>();
+        for (int id : result.page()) uris.add(indexed.uri(id));
+        return new Faceted(byUris(version, uris, domain), result);
+    }
+
+    public record Faceted(List<Artwork> artworks, FacetIndex.Result result) {}
+
+    // Operele date, din aceeași versiune din care au venit URI-urile: din indexul de opere sau, dacă e dezactivat,
+    // într-o singură interogare (VALUES); ordinea se păstrează
+    private List<Artwork> byUris(KnowledgeGraph.Version version, List<String> uris, String domain) {
+        ArtworkIndex.Domain indexed = index.of(version, domain);
+        if (indexed == null) {
+            Model modelChosen = version.artworks(domain);
+            return version.calculateRead(() -> hydrate(uris, modelChosen));
+        }
+
+        List<Artwork> artworks = new ArrayList<>();
+        for (String uri : uris) {
+            Artwork a = indexed.byUri(uri);
+            if (a != null) artworks.add(a);
         }
+        return artworks;
     }
 
-    public List<Artwork> findNext(int pageSize, int offset, String domain) {
+    // Operele datate care se suprapun cu [from, to], în ordine cronologică, cu numărul de opere pe găleți de ani;
+    // null dacă indexul de timp e dezactivat
+    public Timeline findTimeline(Integer from, Integer to, int bucket, int offset, int limit, String domain) {
+        KnowledgeGraph.Version version = graph.current();
+        TimelineIndex.Domain indexed = timeline.of(version, domain);
+        if (indexed == null) return null;
+
+        TimelineIndex.Result result = indexed.query(from, to, offset, limit, bucket);
+        List<String> uris = new ArrayList<>();
+        for (int position : result.page()) uris.add(indexed.uri(position));
+        return new Timeline(byUris(version, uris, domain), result);
+    }
 
+    public record Timeline(List<Artwork> artworks, TimelineIndex.Result result) {}
 
-        String sparql = loadSparql("/sparql/artwork-find-next.sparql")
-                .replace("{{LIMIT}}", String.valueOf(pageSize))
-                .replace("{{OFFSET}}", String.valueOf(offset));
+    public List<Artwork> findNext(int pageSize, int offset, String domain) {
+        KnowledgeGraph.Version version = graph.current();
 
+        ArtworkIndex.Domain indexed = index.of(version, domain);
+        if (indexed != null) {
+            return indexed.page(offset, pageSize);
+        }
+        ArtworkOrder.Domain ordered = order.of(version, domain);
+        if (ordered != null) {
+            return byUris(version, ordered.page(offset, pageSize), domain);
+        }
 
-        List<Artwork> results = new ArrayList<>();
+        return findPage(version, domain, templates.page("artwork-page", pageSize, offset), null);
+    }
 
-        Model modelChosen;
-        if(Objects.equals(domain, "ro")) {
-            modelChosen = artworkModel;
-        } else {
-            modelChosen = wikiModel;
+    // Numărul de opere din domeniu, păstrat per versiune și domeniu
+    public int count(String domain) {
+        KnowledgeGraph.Version version = graph.current();
+
+        ArtworkIndex.Domain indexed = index.of(version, domain);
+        if (indexed != null) {
+            return indexed.size();
+        }
+        ArtworkOrder.Domain ordered = order.of(version, domain);
+        if (ordered != null) {
+            return ordered.size();
         }
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(sparql, modelChosen)) {
-            ResultSet rs = qexec.execSelect();
+        return version.cached("artwork-count:" + KnowledgeGraph.domain(domain),
+                () -> version.calculateRead(() -> SparqlTemplates.count(templates.get("artwork-count"), version.artworks(domain))));
+    }
 
-            while (rs.hasNext()) {
-                QuerySolution sol = rs.nextSolution();
-                Artwork a = new Artwork();
-                Creation creation = new Creation();
-                creation.startedAtTime  = getLiteral(sol, "date");
-                a.creation = creation;
-                List<Collector> ownershipHistory = new ArrayList<>();
-
-                a.uri = sol.getResource("subject").getURI();
-                a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
-                a.title = getLiteral(sol, "title");
-                a.imageLink = getLiteral(sol, "img");
-                a.description = getLiteral(sol, "desc");
-                a.category = getLiteral(sol, "category");
-                a.condition = getLiteral(sol, "condition");
-                a.inventoryNumber = getLiteral(sol, "inv");
-                a.cimecLink = getLiteral(sol, "cimec");
-                a.wikidataLink = getLiteral(sol, "wikidataLink");
-                a.license = sol.contains("license") ? sol.getResource("license").getURI() : "";
-                a.dimensions = getLiteral(sol, "dimensions");
-
-                a.classification = splitConcat(sol, "classifications");
-                a.cultures = splitConcat(sol, "cultures");
-                a.techniques = splitConcat(sol, "techniques");
-                a.materialsUsed = splitConcat(sol, "materialsUsed");
-
-                a.recordedAt = getLiteral(sol, "recordedAt");
-                a.validatedAt = getLiteral(sol, "validatedAt");
-
-                if (sol.contains("artistName")) {
-                    a.artist = new com.example.backend.model.Artist();
-                    a.artist.name = getLiteral(sol, "artistName");
-                    a.artist.uri = sol.getResource("artistUri").getURI();
-                }
+    // Pagina de după opera "afterUri" (în ordinea URI-urilor), fără OFFSET
+    public List<Artwork> findAfter(String afterUri, int pageSize, String domain) {
+        KnowledgeGraph.Version version = graph.current();
 
-                if (sol.contains("museumName")) {
-                    a.currentLocation = new com.example.backend.model.Agent();
-                    a.currentLocation.name = getLiteral(sol, "museumName");
-                    a.currentLocation.uri = sol.getResource("museumUri").getURI();
-                }
+        ArtworkIndex.Domain indexed = index.of(version, domain);
+        if (indexed != null) {
+            return indexed.after(afterUri, pageSize);
+        }
+        // Căutare binară în URI-urile sortate; interogarea SPARQL de mai jos filtrează și sortează toate operele
+        ArtworkOrder.Domain ordered = order.of(version, domain);
+        if (ordered != null) {
+            return byUris(version, ordered.after(afterUri, pageSize), domain);
+        }
 
-                if (sol.contains("registrarUri")) {
-                    Registrar registrar = new Registrar();
-                    registrar.uri = sol.getResource("registrarUri").getURI();
-                    registrar.name = getLiteral(sol, "registrarName");
-                    a.registrar = registrar;
-                }
+        return findPage(version, domain, templates.page("artwork-page-after", pageSize, 0), afterUri);
+    }
 
-                if (sol.contains("validatorUri")) {
-                    Validator validator = new Validator();
-                    validator.uri = sol.getResource("validatorUri").getURI();
-                    validator.name = getLiteral(sol, "validatorName");
-                    a.validator = validator;
+    // Listare în două faze: întâi doar URI-urile din pagină (ordonate, limitate), apoi detaliile doar pentru ele.
+    // Interogările mari rulează doar pentru pagină, dar prima fază tot sortează toate operele (fără ArtworkOrder).
+    private List<Artwork> findPage(KnowledgeGraph.Version version, String domain, Query pageQuery, String afterUri) {
+        Model modelChosen = version.artworks(domain);
+
+        return version.calculateRead(() -> {
+            List<String> subjects = new ArrayList<>();
+            try (QueryExecution qexec = afterUri == null
+                    ? SparqlTemplates.execute(pageQuery, modelChosen)
+                    : SparqlTemplates.execute(pageQuery, modelChosen, "after", afterUri)) {
+                ResultSet rs = qexec.execSelect();
+                while (rs.hasNext()) {
+                    subjects.add(rs.nextSolution().getResource("subject").getURI());
                 }
+            }
+            return hydrate(subjects, modelChosen);
+        });
+    }
 
-                if (sol.contains("ownershipHistory")) {
-                    String raw = sol.getLiteral("ownershipHistory").getString();
+    // Detaliile complete pentru operele date, într-o singură interogare (artwork-find-next restrâns cu VALUES;
+    // ORDER BY-ul ei sortează doar rândurile paginii), păstrând ordinea primită
+    List<Artwork> hydrate(List<String> subjects, Model model) {
+        List<Artwork> results = new ArrayList<>();
+        if (subjects.isEmpty()) return results;
 
-                    for (String entry : raw.split(";;")) {
-                        String[] parts = entry.split("\\|\\|", -1);
+        Map<String, Artwork> byUri = new HashMap<>();
+        try (QueryExecution qexec = SparqlTemplates.execute(templates.withValues("artwork-find-next", "subject", subjects), model)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) {
+                Artwork a = toArtwork(rs.nextSolution());
+                byUri.put(a.uri, a);
+            }
+        }
 
-                        Collector o = new Collector();
-                        o.name = parts.length > 0 ? parts[0] : "?";
-                        o.startedAt = parts.length > 1 && !parts[1].isEmpty() ? parts[1] : null;
-                        o.endedAt = parts.length > 2 && !parts[2].isEmpty() ? parts[2] : null;
+        for (String uri : subjects) {
+            Artwork a = byUri.get(uri);
+            if (a != null) results.add(a);
+        }
+        return results;
+    }
 
-                        if (o.startedAt == null) {
-                            o.startedAt = "?";
-                        }
-                        if (o.endedAt == null) {
-                            o.endedAt = "?";
-                        }
+    // Cardurile (uri, id, titlu, imagine) din RecommendationIndex, cu aceleași valori implicite ca interogările SPARQL
+    private List<Artwork> recommendationCards(RecommendationIndex.Domain indexed, RecommendationIndex.Kind kind,
+                                              String uri, int offset, int limit) {
+        List<Artwork> results = new ArrayList<>();
+        for (int id : indexed.recommend(kind, uri, offset, limit)) {
+            Artwork a = new Artwork();
+            a.uri = indexed.uri(id);
+            if (kind != RecommendationIndex.Kind.ARTIST && a.uri.endsWith("/")) {
+                a.uri = a.uri.substring(0, a.uri.length() - 1);
+            }
+            a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
 
-                        a.ownershipHistory.add(o);
-                    }
+            String title = indexed.title(id);
+            String image = indexed.image(id);
+            switch (kind) {
+                case ARTIST -> {
+                    a.title = title != null ? title : "";
+                    a.imageLink = image != null ? image : "";
+                }
+                case MUSEUM -> {
+                    a.title = title != null ? title : "";
+                    a.imageLink = image;
                 }
+                case CATEGORY -> {
+                    a.title = title != null ? title : "Fără titlu";
+                    a.imageLink = image;
+                }
+            }
+            results.add(a);
+        }
+        return results;
+    }
 
-                a.ownershipHistory.sort((o1, o2) -> {
-                    // Păstrăm entry-urile cu "?" la final
-                    if ("?".equals(o1.startedAt)) return 1;
-                    if ("?".equals(o2.startedAt)) return -1;
-                    return o1.startedAt.compareTo(o2.startedAt);
-                });
+    // Opere cu materiale, tehnici, clasificare și perioadă asemănătoare, din SimilarityIndex.
+    // Nu există variantă SPARQL: fără index (dezactivat sau domeniul reunit) lista este goală.
+    public List<Artwork> getRecommendationsBySimilarity(String uri, int pageSize, int offset, String domain) {
+        SimilarityIndex.Domain indexed = similarity.of(graph.current(), domain);
+        List<Artwork> results = new ArrayList<>();
+        if (indexed == null) return results;
 
-                results.add(a);
-            }
+        for (int id : indexed.similar(uri, offset, pageSize)) {
+            Artwork a = new Artwork();
+            a.uri = indexed.uri(id);
+            a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
+            a.title = indexed.title(id) != null ? indexed.title(id) : "Fără titlu";
+            a.imageLink = indexed.image(id);
+            results.add(a);
         }
         return results;
+    }
+
+    // Opere cu titlu și descriere asemănătoare, din TextSimilarityIndex; fără index lista este goală
+    public List<Artwork> getRecommendationsByText(String uri, int pageSize, int offset, String domain) {
+        TextSimilarityIndex.Domain indexed = textSimilarity.of(graph.current(), domain);
+        List<Artwork> results = new ArrayList<>();
+        if (indexed == null) return results;
 
+        for (int id : indexed.similar(uri, offset, pageSize)) {
+            Artwork a = new Artwork();
+            a.uri = indexed.uri(id);
+            a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
+            a.title = indexed.title(id).isEmpty() ? "Fără titlu" : indexed.title(id);
+            a.imageLink = indexed.image(id);
+            results.add(a);
+        }
+        return results;
     }
 
     public List<Artwork> getRecommendationsByArtist(String uri, int pageSize, int offset, String domain) {
+        KnowledgeGraph.Version version = graph.current();
 
-        String sparql = loadSparql("/sparql/artwork-recommendations.sparql")
-                .replace("{{INPUT_URI}}", uri)
-                .replace("{{LIMIT}}", String.valueOf(pageSize))
-                .replace("{{OFFSET}}", String.valueOf(offset));
+        RecommendationIndex.Domain indexed = recommendations.of(version, domain);
+        if (indexed != null) {
+            return recommendationCards(indexed, RecommendationIndex.Kind.ARTIST, uri, offset, pageSize);
+        }
+
+        Query query = templates.page("artwork-recommendations", pageSize, offset);
 
         List<Artwork> results = new ArrayList<>();
 
-        Model modelChosen;
-        if(Objects.equals(domain, "ro")) {
-            modelChosen = artworkModel;
-        } else {
-            modelChosen = wikiModel;
-        }
+        Model modelChosen = version.artworks(domain);
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(sparql, modelChosen)) {
-            ResultSet rs = qexec.execSelect();
+        version.executeRead(() -> {
+            try (QueryExecution qexec = SparqlTemplates.execute(query, modelChosen, "input", uri)) {
+                ResultSet rs = qexec.execSelect();
 
-            while (rs.hasNext()) {
-                QuerySolution sol = rs.nextSolution();
+                while (rs.hasNext()) {
+                    QuerySolution sol = rs.nextSolution();
 
-                Artwork a = new Artwork();
+                    Artwork a = new Artwork();
 
-                a.uri = sol.getResource("subject").getURI();
-                a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
-                a.title = getLiteral(sol, "title");
-                a.imageLink = getLiteral(sol, "image");
+                    a.uri = sol.getResource("subject").getURI();
+                    a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
+                    a.title = getLiteral(sol, "title");
+                    a.imageLink = getLiteral(sol, "image");
 
 
 
-                results.add(a);
+                    results.add(a);
+                }
+            } catch (QueryCancelledException e) {
+                // Termenul fan-out-ului: ParallelReads.Batch trece ramura printre cele lipsă
+                throw e;
+            } catch (Exception e) {
+                System.err.println("Eroare la obținerea recomandărilor: " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (Exception e) {
-            System.err.println("Eroare la obținerea recomandărilor: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
 
         return results;
     }
 
     public List<Artwork> getRecommendationsByMuseums(String uri, int pageSize, int offset, String domain) {
+        KnowledgeGraph.Version version = graph.current();
+
+        RecommendationIndex.Domain indexed = recommendations.of(version, domain);
+        if (indexed != null) {
+            return recommendationCards(indexed, RecommendationIndex.Kind.MUSEUM, uri, offset, pageSize);
+        }
 
-        String sparql = loadSparql("/sparql/artwork-recommendations-museums.sparql")
-                .replace("{{INPUT_URI}}", uri)
-                .replace("{{LIMIT}}", String.valueOf(pageSize))
-                .replace("{{OFFSET}}", String.valueOf(offset));
+        Query query = templates.page("artwork-recommendations-museums", pageSize, offset);
 
         List<Artwork> results = new ArrayList<>();
 
-        Model modelChosen;
-        if(Objects.equals(domain, "ro")) {
-            modelChosen = artworkModel;
-        } else {
-            modelChosen = wikiModel;
-        }
+        Model modelChosen = version.artworks(domain);
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(sparql, modelChosen)) {
-            ResultSet rs = qexec.execSelect();
+        version.executeRead(() -> {
+            try (QueryExecution qexec = SparqlTemplates.execute(query, modelChosen, "input", uri)) {
+                ResultSet rs = qexec.execSelect();
 
-            while (rs.hasNext()) {
-                QuerySolution sol = rs.nextSolution();
+                while (rs.hasNext()) {
+                    QuerySolution sol = rs.nextSolution();
 
-                Artwork a = new Artwork();
+                    Artwork a = new Artwork();
 
-                a.uri = sol.getResource("subject").getURI();
+                    a.uri = sol.getResource("subject").getURI();
 
-                if (a.uri.endsWith("/")) {
-                    a.uri = a.uri.substring(0, a.uri.length() - 1);
-                }
-                a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
+                    if (a.uri.endsWith("/")) {
+                        a.uri = a.uri.substring(0, a.uri.length() - 1);
+                    }
+                    a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
 
-                a.title = getLiteral(sol, "title");
+                    a.title = getLiteral(sol, "title");
 
-                if (sol.contains("image")) {
-                    RDFNode imgNode = sol.get("image");
-                    if (imgNode.isResource()) {
-                        a.imageLink = imgNode.asResource().getURI();
-                    } else {
-                        a.imageLink = imgNode.asLiteral().getString();
+                    if (sol.contains("image")) {
+                        RDFNode imgNode = sol.get("image");
+                        if (imgNode.isResource()) {
+                            a.imageLink = imgNode.asResource().getURI();
+                        } else {
+                            a.imageLink = imgNode.asLiteral().getString();
+                        }
                     }
-                }
 
-                results.add(a);
+                    results.add(a);
+                }
+            } catch (QueryCancelledException e) {
+                // Termenul fan-out-ului: ParallelReads.Batch trece ramura printre cele lipsă
+                throw e;
+            } catch (Exception e) {
+                System.err.println("Eroare la obținerea recomandărilor (Locație): " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (Exception e) {
-            System.err.println("Eroare la obținerea recomandărilor (Locație): " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
 
         return results;
     }
 
     public List<Artwork> getRecommendationsByCategory(String uri, int offset, int limit, String domain) {
+        KnowledgeGraph.Version version = graph.current();
 
-        String sparql = loadSparql("/sparql/artwork-recommendations-category.sparql")
-                .replace("{{INPUT_URI}}", uri)
-                .replace("{{LIMIT}}", String.valueOf(limit))
-                .replace("{{OFFSET}}", String.valueOf(offset));
+        RecommendationIndex.Domain indexed = recommendations.of(version, domain);
+        if (indexed != null) {
+            return recommendationCards(indexed, RecommendationIndex.Kind.CATEGORY, uri, offset, limit);
+        }
 
-        List<Artwork> results = new ArrayList<>();
+        Query query = templates.page("artwork-recommendations-category", limit, offset);
 
-        Model modelChosen;
-        if(Objects.equals(domain, "ro")) {
-            modelChosen = artworkModel;
-        } else {
-            modelChosen = wikiModel;
-        }
+        List<Artwork> results = new ArrayList<>();
 
-        try (QueryExecution qexec = QueryExecutionFactory.create(sparql, modelChosen)) {
-            ResultSet rs = qexec.execSelect();
+        Model modelChosen = version.artworks(domain);
 
-            while (rs.hasNext()) {
-                QuerySolution sol = rs.nextSolution();
-                Artwork a = new Artwork();
+        version.executeRead(() -> {
+            try (QueryExecution qexec = SparqlTemplates.execute(query, modelChosen, "input", uri)) {
+                ResultSet rs = qexec.execSelect();
 
-                a.uri = sol.getResource("subject").getURI();
+                while (rs.hasNext()) {
+                    QuerySolution sol = rs.nextSolution();
+                    Artwork a = new Artwork();
 
-                // ID
-                if (a.uri.endsWith("/")) {
-                    a.uri = a.uri.substring(0, a.uri.length() - 1);
-                }
-                a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
+                    a.uri = sol.getResource("subject").getURI();
 
-                // Titlu
-                if (sol.contains("title")) {
-                    a.title = sol.getLiteral("title").getString();
-                } else {
-                    a.title = "Fără titlu";
-                }
+                    // ID
+                    if (a.uri.endsWith("/")) {
+                        a.uri = a.uri.substring(0, a.uri.length() - 1);
+                    }
+                    a.id = a.uri.substring(a.uri.lastIndexOf("/") + 1);
 
-                // Imagine
-                if (sol.contains("image")) {
-                    RDFNode imgNode = sol.get("image");
-                    if (imgNode.isResource()) {
-                        a.imageLink = imgNode.asResource().getURI();
+                    // Titlu
+                    if (sol.contains("title")) {
+                        a.title = sol.getLiteral("title").getString();
                     } else {
-                        a.imageLink = imgNode.asLiteral().getString();
+                        a.title = "Fără titlu";
+                    }
+
+                    // Imagine
+                    if (sol.contains("image")) {
+                        RDFNode imgNode = sol.get("image");
+                        if (imgNode.isResource()) {
+                            a.imageLink = imgNode.asResource().getURI();
+                        } else {
+                            a.imageLink = imgNode.asLiteral().getString();
+                        }
                     }
-                }
 
-                results.add(a);
+                    results.add(a);
+                }
+            } catch (QueryCancelledException e) {
+                // Termenul fan-out-ului: ParallelReads.Batch trece ramura printre cele lipsă
+                throw e;
+            } catch (Exception e) {
+                System.err.println("Eroare la recomandări categorie: " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (Exception e) {
-            System.err.println("Eroare la recomandări categorie: " + e.getMessage());
-            e.printStackTrace();
-        }
+        });
 
         return results;
     }
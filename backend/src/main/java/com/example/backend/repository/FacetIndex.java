@@ -0,0 +1,394 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+// Navigare pe fațete: pentru fiecare valoare (muzeu, artist, categorie, material, tehnică, cultură, licență, an)
+// un bitmap comprimat (RoaringBitmap) cu id-urile dense ale operelor care o au. Un filtru devine o reuniune de
+// bitmap-uri pe fațetă și o intersecție între fațete, iar numărătorile sunt cardinalități de intersecții,
+// în loc de câte un GROUP BY peste tot graful la fiecare cerere. Se reconstruiește pentru fiecare versiune.
+@Component
+public class FacetIndex implements KnowledgeGraphListener {
+
+    public enum Facet {
+        MUSEUM("museum"), ARTIST("artist"), CATEGORY("category"), MATERIAL("material"),
+        TECHNIQUE("technique"), CULTURE("culture"), LICENSE("license");
+
+        public final String param;
+
+        Facet(String param) {
+            this.param = param;
+        }
+    }
+
+    private static final List<String> DOMAINS = List.of("ro", "int");
+    // Materialele vin uneori ca listă într-un singur literal ("terrazzo; rock asphalt; metal")
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("\\s*[;,]\\s*");
+
+    private final SparqlTemplates templates;
+
+    @Value("${arp.facet-index.enabled:true}")
+    private boolean enabled;
+
+    public FacetIndex(SparqlTemplates templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        if (!enabled) return;
+
+        Map<String, Domain> domains = new HashMap<>();
+        for (String domain : DOMAINS) {
+            long start = System.currentTimeMillis();
+            Domain index = version.calculateRead(() -> build(templates, version.artworks(domain)));
+            domains.put(domain, index);
+            System.out.println("[index] fațete " + domain + ": " + index.size() + " opere în "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+        version.attach(Snapshot.class, new Snapshot(domains));
+    }
+
+    // null dacă indexul e dezactivat sau domeniul nu este indexat
+    public Domain of(KnowledgeGraph.Version version, String domain) {
+        Snapshot snapshot = version.get(Snapshot.class);
+        return snapshot == null ? null : snapshot.domains().get(domain);
+    }
+
+    public static Domain build(SparqlTemplates templates, Model artworks) {
+        List<QuerySolution> rows = new ArrayList<>();
+        Set<String> subjects = new TreeSet<>();
+        try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artwork-facets"), artworks)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) {
+                QuerySolution sol = rs.nextSolution();
+                if (sol.getResource("subject").getURI() == null) continue;
+                subjects.add(sol.getResource("subject").getURI());
+                rows.add(sol);
+            }
+        }
+
+        // Id-urile dense urmează ordinea URI-urilor, ca listarea operelor
+        Builder builder = new Builder(subjects.toArray(new String[0]));
+        for (QuerySolution sol : rows) {
+            int id = builder.id(sol.getResource("subject").getURI());
+            if (sol.contains("museum")) builder.add(id, Facet.MUSEUM, uri(sol.get("museum")), text(sol, "museumName"));
+            if (sol.contains("artist")) builder.add(id, Facet.ARTIST, uri(sol.get("artist")), text(sol, "artistName"));
+            if (sol.contains("license")) builder.add(id, Facet.LICENSE, uri(sol.get("license")), null);
+            if (sol.contains("category")) builder.addLabel(id, Facet.CATEGORY, text(sol, "category"));
+            if (sol.contains("culture")) builder.addLabel(id, Facet.CULTURE, text(sol, "culture"));
+            if (sol.contains("technique")) builder.addLabel(id, Facet.TECHNIQUE, text(sol, "technique"));
+            if (sol.contains("material")) {
+                for (String material : LIST_SEPARATOR.split(text(sol, "material"))) builder.addLabel(id, Facet.MATERIAL, material);
+            }
+            // Anul de început normalizat la încărcare (xsd:gYear, vezi DateNormalizer)
+            if (sol.contains("started")) builder.year(id, Integer.parseInt(sol.getLiteral("started").getLexicalForm()));
+        }
+        return builder.build();
+    }
+
+    private static String uri(RDFNode node) {
+        return node.isResource() ? node.asResource().getURI() : node.asLiteral().getString();
+    }
+
+    private static String text(QuerySolution sol, String var) {
+        if (!sol.contains(var)) return null;
+        RDFNode node = sol.get(var);
+        return node.isResource() ? node.asResource().getURI() : node.asLiteral().getString();
+    }
+
+    record Snapshot(Map<String, Domain> domains) {}
+
+    public record Count(String value, String label, int count) {}
+
+    // "page" = id-urile paginii cerute, "facets" = cele mai frecvente valori ale fiecărei fațete
+    // (plus cele selectate), numărate cu toate filtrele în afară de cel al fațetei respective
+    public record Result(int[] page, int total, Map<Facet, List<Count>> facets, Integer minYear, Integer maxYear) {}
+
+    public static class Domain {
+
+        private static final int NO_YEAR = Integer.MIN_VALUE;
+        private static final int YEAR_SCAN = 4096;
+
+        private final String[] uris;
+        private final RoaringBitmap all;
+        private final Map<Facet, Values> facets;
+        private final NavigableMap<Integer, RoaringBitmap> years;
+        private final int[] yearOf;
+
+        private Domain(String[] uris, Map<Facet, Values> facets, NavigableMap<Integer, RoaringBitmap> years) {
+            this.uris = uris;
+            this.all = RoaringBitmap.bitmapOfRange(0, uris.length);
+            this.facets = facets;
+            this.years = years;
+            this.yearOf = new int[uris.length];
+            Arrays.fill(yearOf, NO_YEAR);
+            // Cu mai mulți ani pe operă (rar), păstrăm cel mai mic
+            years.descendingMap().forEach((year, ids) -> ids.forEach((int id) -> yearOf[id] = year));
+        }
+
+        // "selected": fațetă -> valorile acceptate (SAU în cadrul fațetei, ȘI între fațete);
+        // "from" / "to": intervalul de ani, capetele incluse, oricare poate lipsi
+        public Result query(Map<Facet, List<String>> selected, Integer from, Integer to,
+                            int offset, int limit, int facetLimit) {
+            Map<Facet, RoaringBitmap> filters = new EnumMap<>(Facet.class);
+            selected.forEach((facet, values) -> {
+                if (!values.isEmpty()) filters.put(facet, facets.get(facet).union(values));
+            });
+            RoaringBitmap dates = from == null && to == null ? null : years(from, to);
+
+            RoaringBitmap matched = intersect(filters.values(), dates, null);
+            Map<Facet, List<Count>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                RoaringBitmap base = filters.containsKey(facet) ? intersect(filters.values(), dates, filters.get(facet)) : matched;
+                counts.put(facet, facets.get(facet).top(base, facetLimit, selected.getOrDefault(facet, List.of())));
+            }
+
+            int[] bounds = yearBounds(matched, from, to);
+            return new Result(page(matched, offset, limit), matched.getCardinality(), counts,
+                    bounds == null ? null : bounds[0], bounds == null ? null : bounds[1]);
+        }
+
+        // Intersecția filtrelor (fără "skip"), de la cel mai mic bitmap; toate operele dacă nu e niciun filtru
+        private RoaringBitmap intersect(Collection<RoaringBitmap> filters, RoaringBitmap dates, RoaringBitmap skip) {
+            List<RoaringBitmap> bitmaps = new ArrayList<>();
+            for (RoaringBitmap filter : filters) {
+                if (filter != skip) bitmaps.add(filter);
+            }
+            if (dates != null) bitmaps.add(dates);
+            if (bitmaps.isEmpty()) return all;
+            if (bitmaps.size() == 1) return bitmaps.get(0);
+            bitmaps.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+            return FastAggregation.and(bitmaps.iterator());
+        }
+
+        // Primul și ultimul an al operelor din "matched": pe puține opere citim anul fiecăreia, altfel căutăm
+        // de la capetele intervalului primul bitmap de an care le intersectează
+        private int[] yearBounds(RoaringBitmap matched, Integer from, Integer to) {
+            if (matched.getCardinality() <= YEAR_SCAN) {
+                int[] bounds = null;
+                for (PeekableIntIterator it = matched.getIntIterator(); it.hasNext(); ) {
+                    int year = yearOf[it.next()];
+                    if (year == NO_YEAR) continue;
+                    if (bounds == null) bounds = new int[]{year, year};
+                    bounds[0] = Math.min(bounds[0], year);
+                    bounds[1] = Math.max(bounds[1], year);
+                }
+                return bounds;
+            }
+
+            NavigableMap<Integer, RoaringBitmap> range = years.subMap(
+                    from == null ? Integer.MIN_VALUE : from, true, to == null ? Integer.MAX_VALUE : to, true);
+            Integer min = null, max = null;
+            for (Map.Entry<Integer, RoaringBitmap> year : range.entrySet()) {
+                if (RoaringBitmap.intersects(year.getValue(), matched)) {
+                    min = year.getKey();
+                    break;
+                }
+            }
+            if (min == null) return null;
+            for (Map.Entry<Integer, RoaringBitmap> year : range.descendingMap().entrySet()) {
+                if (RoaringBitmap.intersects(year.getValue(), matched)) {
+                    max = year.getKey();
+                    break;
+                }
+            }
+            return new int[]{min, max};
+        }
+
+        private RoaringBitmap years(Integer from, Integer to) {
+            NavigableMap<Integer, RoaringBitmap> range = years.subMap(
+                    from == null ? Integer.MIN_VALUE : from, true, to == null ? Integer.MAX_VALUE : to, true);
+            return range.isEmpty() ? new RoaringBitmap() : FastAggregation.or(range.values().iterator());
+        }
+
+        private static int[] page(RoaringBitmap matched, int offset, int limit) {
+            int total = matched.getCardinality();
+            if (offset < 0 || offset >= total || limit <= 0) return new int[0];
+
+            int[] page = new int[Math.min(limit, total - offset)];
+            PeekableIntIterator it = matched.getIntIterator();
+            it.advanceIfNeeded(matched.select(offset));
+            for (int i = 0; i < page.length; i++) page[i] = it.next();
+            return page;
+        }
+
+        public String uri(int id) {
+            return uris[id];
+        }
+
+        public int size() {
+            return uris.length;
+        }
+    }
+
+    // Valorile unei fațete: cheie (URI sau eticheta normalizată), etichetă, bitmap-ul operelor și,
+    // invers, valorile fiecărei opere, pentru numărătorile pe mulțimi mici
+    private static class Values {
+
+        // O intersecție costă cât câteva zeci de incrementări, deci parcurgem operele cât timp sunt
+        // mai puțin de SCAN_FACTOR ori numărul de valori
+        private static final long SCAN_FACTOR = 64;
+
+        private final String[] keys;
+        private final String[] labels;
+        private final RoaringBitmap[] bitmaps;
+        private final int[] cardinalities;
+        private final int[] byCardinality;  // valorile în ordinea numărului de opere, pentru cererile fără filtre
+        // Valorile operei "id": values[start[id] .. start[id + 1])
+        private final int[] start;
+        private final int[] values;
+        private final Map<String, Integer> ordinals = new HashMap<>();
+
+        Values(Map<String, String> labels, Map<String, RoaringBitmap> bitmaps, int size) {
+            this.keys = bitmaps.keySet().stream().sorted().toArray(String[]::new);
+            this.labels = new String[keys.length];
+            this.bitmaps = new RoaringBitmap[keys.length];
+            this.cardinalities = new int[keys.length];
+            this.start = new int[size + 1];
+            for (int v = 0; v < keys.length; v++) {
+                ordinals.put(keys[v], v);
+                this.labels[v] = labels.getOrDefault(keys[v], keys[v]);
+                this.bitmaps[v] = bitmaps.get(keys[v]);
+                this.bitmaps[v].runOptimize();
+                this.cardinalities[v] = this.bitmaps[v].getCardinality();
+                this.bitmaps[v].forEach((int id) -> start[id + 1]++);
+            }
+            for (int id = 0; id < size; id++) start[id + 1] += start[id];
+            this.byCardinality = IntStream.range(0, keys.length).boxed()
+                    .sorted(Comparator.<Integer>comparingInt(v -> -cardinalities[v]).thenComparing(v -> keys[v]))
+                    .mapToInt(Integer::intValue).toArray();
+            this.values = new int[start[size]];
+            int[] next = Arrays.copyOf(start, size);
+            for (int v = 0; v < keys.length; v++) {
+                int value = v;
+                this.bitmaps[v].forEach((int id) -> values[next[id]++] = value);
+            }
+        }
+
+        RoaringBitmap union(Collection<String> values) {
+            List<RoaringBitmap> selected = new ArrayList<>();
+            for (String value : values) {
+                Integer v = ordinal(value);
+                if (v != null) selected.add(bitmaps[v]);
+            }
+            return selected.isEmpty() ? new RoaringBitmap() : FastAggregation.or(selected.iterator());
+        }
+
+        // Valorile cu cele mai multe opere din "base". Fără filtre, ordinea e precalculată; pe o mulțime mică
+        // (față de numărul de valori) numărăm parcurgând operele, altfel câte o cardinalitate de intersecție per valoare.
+        List<Count> top(RoaringBitmap base, int limit, Collection<String> selected) {
+            int cardinality = base.getCardinality();
+            int[] counts;
+            List<Integer> best = new ArrayList<>();
+            if (cardinality == start.length - 1) {
+                counts = cardinalities;
+                for (int i = 0; i < byCardinality.length && best.size() < limit; i++) best.add(byCardinality[i]);
+            } else {
+                if ((long) cardinality < SCAN_FACTOR * keys.length) {
+                    int[] c = new int[keys.length];
+                    base.forEach((int id) -> {
+                        for (int i = start[id]; i < start[id + 1]; i++) c[values[i]]++;
+                    });
+                    counts = c;
+                } else {
+                    counts = new int[keys.length];
+                    for (int v = 0; v < keys.length; v++) counts[v] = RoaringBitmap.andCardinality(bitmaps[v], base);
+                }
+
+                // Cheile sunt sortate, deci la egalitate ordinea alfabetică e chiar ordinea indicilor
+                PriorityQueue<Integer> queue = new PriorityQueue<>(
+                        Comparator.<Integer>comparingInt(v -> counts[v]).thenComparing(Comparator.reverseOrder()));
+                for (int v = 0; v < keys.length; v++) {
+                    // Valoarea cea mai slabă din coadă are indicele mai mic, deci o egalitate nu o poate înlocui
+                    if (counts[v] == 0 || queue.size() == limit && counts[v] <= counts[queue.peek()]) continue;
+                    queue.add(v);
+                    if (queue.size() > limit) queue.poll();
+                }
+                best.addAll(queue);
+            }
+            Set<Integer> chosen = new HashSet<>(best);
+            // Valorile selectate rămân vizibile chiar dacă nu intră în primele "limit"
+            for (String value : selected) {
+                Integer v = ordinal(value);
+                if (v != null) chosen.add(v);
+            }
+
+            List<Count> result = new ArrayList<>();
+            for (int v : chosen) result.add(new Count(keys[v], labels[v], counts[v]));
+            result.sort(Comparator.comparingInt(Count::count).reversed().thenComparing(Count::value));
+            return result;
+        }
+
+        private Integer ordinal(String value) {
+            Integer v = ordinals.get(value);
+            return v != null ? v : ordinals.get(normalize(value));
+        }
+    }
+
+    private static String normalize(String label) {
+        return label.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Adună valorile operelor și produce indexul; folosit și de benchmark
+    public static class Builder {
+
+        private final String[] uris;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+        private final Map<Facet, Map<String, String>> labels = new EnumMap<>(Facet.class);
+        private final NavigableMap<Integer, RoaringBitmap> years = new TreeMap<>();
+
+        public Builder(String[] uris) {
+            this.uris = uris;
+            for (int id = 0; id < uris.length; id++) ids.put(uris[id], id);
+            for (Facet facet : Facet.values()) {
+                bitmaps.put(facet, new HashMap<>());
+                labels.put(facet, new HashMap<>());
+            }
+        }
+
+        public int id(String uri) {
+            return ids.get(uri);
+        }
+
+        // Valoare identificată printr-un URI, cu eticheta ei (dacă există)
+        public void add(int id, Facet facet, String key, String label) {
+            bitmaps.get(facet).computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+            if (label != null) labels.get(facet).putIfAbsent(key, label);
+        }
+
+        // Valoare literală: cheia e eticheta cu litere mici, ca "Sculpture" și "sculpture" să fie aceeași valoare
+        public void addLabel(int id, Facet facet, String label) {
+            if (label == null || label.isBlank()) return;
+            add(id, facet, normalize(label), label.trim());
+        }
+
+        public void year(int id, int year) {
+            years.computeIfAbsent(year, y -> new RoaringBitmap()).add(id);
+        }
+
+        public Domain build() {
+            Map<Facet, Values> facets = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                facets.put(facet, new Values(labels.get(facet), bitmaps.get(facet), uris.length));
+            }
+            years.values().forEach(RoaringBitmap::runOptimize);
+            return new Domain(uris, facets, years);
+        }
+    }
+}
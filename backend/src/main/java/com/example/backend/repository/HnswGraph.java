@@ -0,0 +1,279 @@
+package com.example.backend.repository;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+// Graf HNSW (Malkov & Yashunin) peste elemente numerotate 0..n-1, cu asemănarea dată de "Vectors"
+// (mai mare = mai aproape). Se construiește o singură dată; după aceea doar se citește, deci căutările
+// pot rula în paralel. Structura se poate salva și reîncărca, ca să nu o reconstruim la fiecare pornire.
+public class HnswGraph {
+
+    public interface Vectors {
+        int size();
+
+        // Asemănarea în [0, 1]
+        double similarity(int a, int b);
+    }
+
+    static final int M = 16;
+    static final int M0 = 2 * M;
+    static final int EF_CONSTRUCTION = 100;
+
+    private final int[][][] links;  // nod -> nivel -> vecini
+    private float[][][] weights;    // asemănarea fiecărei legături, doar cât timp se construiește
+    private int entry = -1;
+    private int maxLevel = -1;
+
+    private HnswGraph(int[][][] links) {
+        this.links = links;
+    }
+
+    public static HnswGraph build(Vectors vectors, long seed) {
+        HnswGraph graph = new HnswGraph(new int[vectors.size()][][]);
+        graph.weights = new float[vectors.size()][][];
+        Random random = new Random(seed);
+        double ml = 1 / Math.log(M);
+        Marks marks = new Marks(vectors.size());
+        for (int id = 0; id < vectors.size(); id++) {
+            int level = (int) (-Math.log(1 - random.nextDouble()) * ml);
+            graph.insert(vectors, id, level, marks);
+        }
+        graph.weights = null;
+        return graph;
+    }
+
+    // Cele mai apropiate "ef" noduri de "query" (fără el), ca (asemănare << 32 | id), descrescător
+    public long[] search(Vectors vectors, int query, int ef) {
+        if (entry < 0) return new long[0];
+        int ep = entry;
+        for (int level = maxLevel; level > 0; level--) {
+            ep = greedy(vectors, query, ep, level);
+        }
+        Set<Integer> seen = new HashSet<>();
+        PriorityQueue<Long> found = searchLayer(vectors, query, new int[]{ep}, ef + 1, 0, seen::add);
+
+        long[] result = found.stream().filter(key -> id(key) != query).mapToLong(Long::longValue).toArray();
+        Arrays.sort(result);
+        reverse(result);
+        return result.length > ef ? Arrays.copyOf(result, ef) : result;
+    }
+
+    private void insert(Vectors vectors, int q, int level, Marks marks) {
+        links[q] = new int[level + 1][0];
+        weights[q] = new float[level + 1][0];
+        if (entry < 0) {
+            entry = q;
+            maxLevel = level;
+            return;
+        }
+
+        int ep = entry;
+        for (int l = maxLevel; l > level; l--) {
+            ep = greedy(vectors, q, ep, l);
+        }
+
+        int[] eps = {ep};
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            marks.next();
+            long[] candidates = descending(searchLayer(vectors, q, eps, EF_CONSTRUCTION, l, marks::add));
+            long[] neighbours = select(vectors, candidates, M);
+            links[q][l] = new int[neighbours.length];
+            weights[q][l] = new float[neighbours.length];
+            for (int i = 0; i < neighbours.length; i++) {
+                links[q][l][i] = id(neighbours[i]);
+                weights[q][l][i] = similarity(neighbours[i]);
+            }
+
+            int capacity = l == 0 ? M0 : M;
+            for (long neighbour : neighbours) {
+                connect(id(neighbour), q, similarity(neighbour), l, capacity);
+            }
+
+            eps = new int[candidates.length];
+            for (int i = 0; i < candidates.length; i++) eps[i] = id(candidates[i]);
+        }
+
+        if (level > maxLevel) {
+            entry = q;
+            maxLevel = level;
+        }
+    }
+
+    // Legătura inversă n -> q; dacă n are deja "capacity" legături, q o înlocuiește pe cea mai slabă, dacă e mai aproape
+    private void connect(int n, int q, float similarity, int level, int capacity) {
+        int[] current = links[n][level];
+        float[] currentWeights = weights[n][level];
+        if (current.length < capacity) {
+            links[n][level] = Arrays.copyOf(current, current.length + 1);
+            weights[n][level] = Arrays.copyOf(currentWeights, current.length + 1);
+            links[n][level][current.length] = q;
+            weights[n][level][current.length] = similarity;
+            return;
+        }
+        int weakest = 0;
+        for (int i = 1; i < current.length; i++) {
+            if (currentWeights[i] < currentWeights[weakest]) weakest = i;
+        }
+        if (similarity > currentWeights[weakest]) {
+            current[weakest] = q;
+            currentWeights[weakest] = similarity;
+        }
+    }
+
+    private int greedy(Vectors vectors, int q, int ep, int level) {
+        double best = vectors.similarity(q, ep);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int n : links[ep][level]) {
+                double s = vectors.similarity(q, n);
+                if (s > best) {
+                    best = s;
+                    ep = n;
+                    changed = true;
+                }
+            }
+        }
+        return ep;
+    }
+
+    // Căutarea pe un nivel: "candidates" = de explorat (cel mai apropiat primul), "found" = cele mai bune ef (cel mai slab primul)
+    private PriorityQueue<Long> searchLayer(Vectors vectors, int q, int[] eps, int ef, int level, Visit visit) {
+        PriorityQueue<Long> candidates = new PriorityQueue<>(Comparator.reverseOrder());
+        PriorityQueue<Long> found = new PriorityQueue<>();
+        for (int ep : eps) {
+            if (!visit.first(ep)) continue;
+            long key = key(vectors.similarity(q, ep), ep);
+            candidates.add(key);
+            found.add(key);
+            if (found.size() > ef) found.poll();
+        }
+
+        while (!candidates.isEmpty()) {
+            long current = candidates.poll();
+            if (found.size() >= ef && similarity(current) < similarity(found.peek())) break;
+
+            for (int n : links[id(current)][level]) {
+                if (!visit.first(n)) continue;
+                double s = vectors.similarity(q, n);
+                if (found.size() < ef || s > similarity(found.peek())) {
+                    long key = key(s, n);
+                    candidates.add(key);
+                    found.add(key);
+                    if (found.size() > ef) found.poll();
+                }
+            }
+        }
+        return found;
+    }
+
+    // Euristica de selecție: un candidat intră doar dacă e mai aproape de nod decât de vecinii deja aleși,
+    // ca legăturile să acopere direcții diferite; locurile rămase se completează cu cei respinși
+    private static long[] select(Vectors vectors, long[] candidates, int m) {
+        long[] selected = new long[Math.min(m, candidates.length)];
+        int count = 0;
+        List<Long> rejected = new ArrayList<>();
+        for (long candidate : candidates) {
+            if (count == selected.length) break;
+            int c = id(candidate);
+            double toNode = similarity(candidate);
+            boolean keep = true;
+            for (int i = 0; i < count; i++) {
+                if (vectors.similarity(c, id(selected[i])) > toNode) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) selected[count++] = candidate; else rejected.add(candidate);
+        }
+        for (int i = 0; count < selected.length && i < rejected.size(); i++) selected[count++] = rejected.get(i);
+        return selected;
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(links.length);
+        out.writeInt(entry);
+        out.writeInt(maxLevel);
+        for (int[][] node : links) {
+            out.writeByte(node.length);
+            for (int[] neighbours : node) {
+                out.writeByte(neighbours.length);
+                for (int n : neighbours) out.writeInt(n);
+            }
+        }
+    }
+
+    public static HnswGraph read(DataInputStream in) throws IOException {
+        HnswGraph graph = new HnswGraph(new int[in.readInt()][][]);
+        graph.entry = in.readInt();
+        graph.maxLevel = in.readInt();
+        for (int id = 0; id < graph.links.length; id++) {
+            int[][] node = new int[in.readUnsignedByte()][];
+            for (int l = 0; l < node.length; l++) {
+                node[l] = new int[in.readUnsignedByte()];
+                for (int i = 0; i < node[l].length; i++) node[l][i] = in.readInt();
+            }
+            graph.links[id] = node;
+        }
+        return graph;
+    }
+
+    public int size() {
+        return links.length;
+    }
+
+    // Asemănările sunt >= 0, deci biții float-ului se ordonează la fel ca valorile
+    static long key(double similarity, int id) {
+        return ((long) Float.floatToIntBits((float) Math.max(0, similarity)) << 32) | id;
+    }
+
+    static int id(long key) {
+        return (int) key;
+    }
+
+    static float similarity(long key) {
+        return Float.intBitsToFloat((int) (key >>> 32));
+    }
+
+    private static long[] descending(PriorityQueue<Long> queue) {
+        long[] keys = queue.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(keys);
+        reverse(keys);
+        return keys;
+    }
+
+    private static void reverse(long[] keys) {
+        for (int i = 0, j = keys.length - 1; i < j; i++, j--) {
+            long t = keys[i];
+            keys[i] = keys[j];
+            keys[j] = t;
+        }
+    }
+
+    private interface Visit {
+        // true la prima vizită a nodului în căutarea curentă
+        boolean first(int id);
+    }
+
+    // Noduri vizitate în timpul construirii, fără alocări: un nod e vizitat dacă marca lui e generația curentă
+    private static class Marks {
+        private final int[] marks;
+        private int generation;
+
+        Marks(int size) {
+            marks = new int[size];
+        }
+
+        void next() {
+            generation++;
+        }
+
+        boolean add(int id) {
+            if (marks[id] == generation) return false;
+            marks[id] = generation;
+            return true;
+        }
+    }
+}
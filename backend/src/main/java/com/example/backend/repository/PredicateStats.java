@@ -0,0 +1,171 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.Quad;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// Statistici de cardinalitate pe predicat, strânse la încărcare într-o singură trecere prin grafuri: numărul de
+// triple și câte o schiță Count Sketch (20 KB) pentru subiecte și obiecte. Din schiță aflăm de câte ori apare o
+// valoare anume (arp:Artwork ca obiect al rdf:type) și, pentru join-uri, numărul mediu de triple pe valoare
+// ponderat cu frecvența ei; media simplă (triple / valori distincte) ar ascunde valorile foarte frecvente.
+// Le folosește estimatorul de cost al interogărilor din /sparql.
+@Component
+public class PredicateStats implements KnowledgeGraphListener {
+
+    @Value("${arp.sparql.cost.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        if (!enabled) return;
+
+        long start = System.currentTimeMillis();
+        Stats stats = version.calculateRead(() -> build(version.dataset().asDatasetGraph().find()));
+        version.attach(Stats.class, stats);
+        System.out.println("[index] statistici predicate: " + stats.predicates.size() + " predicate, "
+                + stats.total.triples() + " triple în " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // null dacă statisticile sunt dezactivate
+    public Stats of(KnowledgeGraph.Version version) {
+        return version.get(Stats.class);
+    }
+
+    public static Stats build(Iterator<Quad> quads) {
+        Map<Node, Predicate> predicates = new HashMap<>();
+        Predicate total = new Predicate();
+        while (quads.hasNext()) {
+            Quad quad = quads.next();
+            long subject = hash(quad.getSubject());
+            long object = hash(quad.getObject());
+            predicates.computeIfAbsent(quad.getPredicate(), k -> new Predicate()).add(subject, object);
+            total.add(subject, object);
+        }
+        return new Stats(predicates, total);
+    }
+
+    public static class Stats {
+
+        private final Map<Node, Predicate> predicates;
+        private final Predicate total;
+
+        Stats(Map<Node, Predicate> predicates, Predicate total) {
+            this.predicates = predicates;
+            this.total = total;
+        }
+
+        // null dacă predicatul nu apare în date
+        public Predicate get(Node predicate) {
+            return predicates.get(predicate);
+        }
+
+        // Toate triplele, indiferent de predicat
+        public Predicate total() {
+            return total;
+        }
+    }
+
+    public static class Predicate {
+
+        private long triples;
+        private final Sketch subjects = new Sketch();
+        private final Sketch objects = new Sketch();
+
+        void add(long subject, long object) {
+            triples++;
+            subjects.add(subject);
+            objects.add(object);
+        }
+
+        public long triples() {
+            return triples;
+        }
+
+        // Triplele cu subiectul dat (estimat, cel puțin 1)
+        public double withSubject(Node subject) {
+            return clamp(subjects.frequency(hash(subject)));
+        }
+
+        public double withObject(Node object) {
+            return clamp(objects.frequency(hash(object)));
+        }
+
+        // Triplele pe subiect pentru un subiect venit dintr-un join: fiecare subiect apare de atâtea ori câte
+        // triple are, deci media e ponderată cu frecvența (suma pătratelor / triple)
+        public double perJoinedSubject() {
+            return triples == 0 ? 0 : clamp(subjects.squares() / triples);
+        }
+
+        public double perJoinedObject() {
+            return triples == 0 ? 0 : clamp(objects.squares() / triples);
+        }
+
+        private double clamp(double estimate) {
+            return Math.max(1, Math.min(triples, estimate));
+        }
+    }
+
+    // Count Sketch: fiecare rând împarte valorile în WIDTH găleți și adună ±1 după un semn pseudo-aleator, așa că
+    // valorile care ajung în aceeași găleată se anulează în medie. Frecvența unei valori și suma pătratelor
+    // frecvențelor sunt medianele estimărilor de pe rânduri
+    private static class Sketch {
+        private static final int DEPTH = 5;
+        private static final int WIDTH = 512;
+        private final long[] counts = new long[DEPTH * WIDTH];
+
+        void add(long hash) {
+            for (int row = 0; row < DEPTH; row++) {
+                long h = mix(hash + row * 0x9E3779B97F4A7C15L);
+                counts[row * WIDTH + (int) (h & (WIDTH - 1))] += h < 0 ? -1 : 1;
+            }
+        }
+
+        double frequency(long hash) {
+            double[] estimates = new double[DEPTH];
+            for (int row = 0; row < DEPTH; row++) {
+                long h = mix(hash + row * 0x9E3779B97F4A7C15L);
+                long count = counts[row * WIDTH + (int) (h & (WIDTH - 1))];
+                estimates[row] = h < 0 ? -count : count;
+            }
+            return median(estimates);
+        }
+
+        double squares() {
+            double[] estimates = new double[DEPTH];
+            for (int row = 0; row < DEPTH; row++) {
+                double sum = 0;
+                for (int i = row * WIDTH; i < (row + 1) * WIDTH; i++) sum += (double) counts[i] * counts[i];
+                estimates[row] = sum;
+            }
+            return median(estimates);
+        }
+
+        private static double median(double[] values) {
+            Arrays.sort(values);
+            return values[values.length / 2];
+        }
+    }
+
+    private static long hash(Node node) {
+        return mix(node.hashCode());
+    }
+
+    // Finalizatorul MurmurHash3: Node.hashCode are doar 32 de biți și e slab amestecat
+    private static long mix(long h) {
+        h *= 0x9E3779B97F4A7C15L;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53e4ec3L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import org.apache.jena.graph.Node;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.RDFNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Indecși inversați pentru recomandări: artist / locație / categorie -> id-urile operelor, ca tablouri int sortate.
+// Fiecare operă primește un id (poziția URI-ului în ordine alfabetică); o pagină de recomandări este o felie
+// din tabloul cheii, calculată în O(limit). Se reconstruiesc pentru fiecare versiune a grafului.
+@Component
+public class RecommendationIndex implements KnowledgeGraphListener {
+
+    public enum Kind { ARTIST, MUSEUM, CATEGORY }
+
+    private static final List<String> DOMAINS = List.of("ro", "int");
+
+    private final SparqlTemplates templates;
+
+    @Value("${arp.recommendation-index.enabled:true}")
+    private boolean enabled;
+
+    public RecommendationIndex(SparqlTemplates templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        if (!enabled) return;
+
+        Map<String, Domain> domains = new HashMap<>();
+        for (String domain : DOMAINS) {
+            long start = System.currentTimeMillis();
+            Domain index = version.calculateRead(() -> build(version, domain));
+            domains.put(domain, index);
+            System.out.println("[index] recomandări " + domain + ": " + index.size() + " opere în "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+        version.attach(Snapshot.class, new Snapshot(domains));
+    }
+
+    // null dacă indexul e dezactivat sau domeniul nu este indexat -> repository-ul folosește SPARQL
+    public Domain of(KnowledgeGraph.Version version, String domain) {
+        Snapshot snapshot = version.get(Snapshot.class);
+        return snapshot == null ? null : snapshot.domains().get(domain);
+    }
+
+    private Domain build(KnowledgeGraph.Version version, String domain) {
+        Map<String, String> titles = new HashMap<>();
+        Map<String, String> images = new HashMap<>();
+        Map<Kind, Map<String, Set<Node>>> keys = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) keys.put(kind, new HashMap<>());
+
+        try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artwork-recommendation-keys"), version.artworks(domain))) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) {
+                QuerySolution sol = rs.nextSolution();
+                String subject = sol.getResource("subject").getURI();
+                if (subject == null) continue;
+
+                if (sol.contains("artist")) keys.get(Kind.ARTIST).computeIfAbsent(subject, k -> new LinkedHashSet<>()).add(sol.get("artist").asNode());
+                if (sol.contains("museum")) keys.get(Kind.MUSEUM).computeIfAbsent(subject, k -> new LinkedHashSet<>()).add(sol.get("museum").asNode());
+                if (sol.contains("category")) keys.get(Kind.CATEGORY).computeIfAbsent(subject, k -> new LinkedHashSet<>()).add(sol.get("category").asNode());
+
+                if (sol.contains("title")) titles.putIfAbsent(subject, sol.getLiteral("title").getString());
+                if (sol.contains("image")) images.putIfAbsent(subject, text(sol.get("image")));
+            }
+        }
+
+        Set<String> subjects = new TreeSet<>();
+        keys.values().forEach(byKind -> subjects.addAll(byKind.keySet()));
+        return new Domain(subjects.toArray(new String[0]), titles, images, keys);
+    }
+
+    private static String text(RDFNode node) {
+        return node.isResource() ? node.asResource().getURI() : node.asLiteral().getString();
+    }
+
+    record Snapshot(Map<String, Domain> domains) {}
+
+    public static class Domain {
+
+        private final String[] uris;
+        private final String[] titles;
+        private final String[] images;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final Map<Kind, Map<Node, int[]>> postings = new EnumMap<>(Kind.class);
+        private final Map<Kind, Node[][]> keysOf = new EnumMap<>(Kind.class);
+
+        Domain(String[] uris, Map<String, String> titles, Map<String, String> images, Map<Kind, Map<String, Set<Node>>> keys) {
+            this.uris = uris;
+            this.titles = new String[uris.length];
+            this.images = new String[uris.length];
+            for (int id = 0; id < uris.length; id++) {
+                ids.put(uris[id], id);
+                this.titles[id] = titles.get(uris[id]);
+                this.images[id] = images.get(uris[id]);
+            }
+
+            for (Kind kind : Kind.values()) {
+                Map<Node, List<Integer>> lists = new HashMap<>();
+                Node[][] of = new Node[uris.length][];
+                for (int id = 0; id < uris.length; id++) {
+                    Set<Node> subjectKeys = keys.get(kind).getOrDefault(uris[id], Set.of());
+                    of[id] = subjectKeys.toArray(new Node[0]);
+                    for (Node key : subjectKeys) {
+                        lists.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+                    }
+                }
+                // id-urile sunt adăugate crescător, deci tablourile sunt deja sortate
+                Map<Node, int[]> arrays = new HashMap<>();
+                lists.forEach((key, list) -> arrays.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+                postings.put(kind, arrays);
+                keysOf.put(kind, of);
+            }
+        }
+
+        // Operele care au aceeași cheie ca "inputUri" (fără ea), pagina [offset, offset + limit)
+        public int[] recommend(Kind kind, String inputUri, int offset, int limit) {
+            Integer input = ids.get(inputUri);
+            if (input == null || offset < 0 || limit <= 0) return new int[0];
+
+            Node[] inputKeys = keysOf.get(kind)[input];
+            if (inputKeys.length == 0) return new int[0];
+
+            int[] candidates = inputKeys.length == 1
+                    ? postings.get(kind).get(inputKeys[0])
+                    : union(kind, inputKeys); // rar: operă cu mai mulți artiști / locații / categorii
+            return slice(candidates, input, offset, limit);
+        }
+
+        private int[] union(Kind kind, Node[] keys) {
+            return Arrays.stream(keys)
+                    .flatMapToInt(key -> Arrays.stream(postings.get(kind).get(key)))
+                    .sorted().distinct().toArray();
+        }
+
+        // Felia din "ids" fără "exclude": poziția lui se află prin căutare binară, restul în O(limit)
+        private static int[] slice(int[] ids, int exclude, int offset, int limit) {
+            int pos = Arrays.binarySearch(ids, exclude);
+            int size = pos >= 0 ? ids.length - 1 : ids.length;
+            if (offset >= size) return new int[0];
+
+            int[] page = new int[Math.min(limit, size - offset)];
+            for (int i = 0; i < page.length; i++) {
+                int k = offset + i;
+                page[i] = (pos >= 0 && k >= pos) ? ids[k + 1] : ids[k];
+            }
+            return page;
+        }
+
+        public String uri(int id) {
+            return uris[id];
+        }
+
+        public String title(int id) {
+            return titles[id];
+        }
+
+        public String image(int id) {
+            return images[id];
+        }
+
+        public int size() {
+            return uris.length;
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import com.example.backend.model.SearchResult;
+import jakarta.annotation.PreDestroy;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.text.*;
+import org.apache.jena.sparql.core.DatasetGraph;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.apache.lucene.analysis.*;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.*;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static com.example.backend.config.KnowledgeGraphLoader.*;
+
+// Căutare full-text (jena-text / Lucene) peste titluri, descrieri, nume de artiști și muzee și etichetele
+// categoriilor și materialelor, fără diacritice: "brancusi" găsește "Brâncuși", "tesatura" găsește "țesătură".
+// Același index răspunde la /api/search și la funcția text:query din /sparql. E păstrat pe disc, iar la
+// fiecare versiune nouă a grafului se șterg doar documentele tripletelor dispărute și se adaugă cele noi.
+// Fiecare versiune caută într-un cititor Lucene deschis când a fost pregătită, deci vede exact documentele ei;
+// modificările se salvează pe disc (și le vede text:query) abia după publicarea versiunii.
+@Component
+public class SearchIndex implements KnowledgeGraphListener {
+
+    private static final String ARP = "http://arp.ro/schema#";
+    private static final Map<String, String> FIELDS = new LinkedHashMap<>();  // câmp Lucene -> predicat
+
+    static {
+        FIELDS.put("title", ARP + "title");
+        FIELDS.put("name", ARP + "name");
+        FIELDS.put("wikidataName", ARP + "wikidataName");
+        FIELDS.put("label", RDFS.label.getURI());
+        FIELDS.put("category", ARP + "category");
+        FIELDS.put("description", ARP + "description");
+    }
+
+    // Un titlu sau un nume potrivit spune mai mult decât un cuvânt din descriere
+    private static final Map<String, Float> WEIGHTS = Map.of(
+            "title", 3f, "name", 3f, "wikidataName", 3f, "label", 2f, "category", 1.5f, "description", 1f);
+    private static final Map<String, String> TYPES = new LinkedHashMap<>();  // rdf:type -> tip în rezultate
+
+    static {
+        TYPES.put(ARP + "Artwork", "artwork");
+        TYPES.put(ARP + "Artist", "artist");
+        TYPES.put(ARP + "Museum", "museum");
+        TYPES.put(ARP + "Collector", "collector");
+    }
+
+    // URI-ul resursei și ca doc value, ca numărarea resurselor să nu citească documentele stocate
+    private static final String URI_KEY = "uriKey";
+    private static final String FORMAT = "3";
+
+    private final TextIndexLucene index;  // null dacă indexul e dezactivat
+    private Set<String> indexed = new HashSet<>();  // cheile documentelor din index (vezi key)
+    private boolean dirty;  // modificări încă nesalvate pe disc
+
+    // Cititorul versiunii pregătite dar nepublicate, al celei curente și al celei dinainte (cererile începute
+    // pe ea se pot termina); cel mai vechi se închide la următoarea publicare
+    private Snapshot pending, published, previous;
+
+    public SearchIndex(@Value("${arp.search.enabled:true}") boolean enabled,
+                       @Value("${arp.search.location:data/lucene}") String location) throws IOException {
+        if (!enabled) {
+            this.index = null;
+            return;
+        }
+
+        EntityDefinition definition = new EntityDefinition("uri", "title");
+        FIELDS.forEach((field, predicate) -> definition.set(field, NodeFactory.createURI(predicate)));
+        definition.setGraphField("graph");
+        definition.setLangField("lang");
+        definition.setUidField("uid");
+
+        TextIndexConfig config = new TextIndexConfig(definition);
+        config.setAnalyzer(new FoldingAnalyzer());
+        config.setQueryAnalyzer(new FoldingAnalyzer());
+        config.setValueStored(true);
+
+        Path directory = Files.createDirectories(Path.of(location));
+        this.index = new TextIndexLucene(FSDirectory.open(directory), config) {
+            // Tipul resursei ca termen exact, ca filtrul "type" să fie aplicat în interogare
+            @Override
+            protected Document doc(Entity entity) {
+                Document doc = super.doc(entity);
+                if (entity instanceof TypedEntity typed) doc.add(new StringField("type", typed.type, Field.Store.YES));
+                doc.add(new SortedDocValuesField(URI_KEY, new BytesRef(entity.getId())));
+                return doc;
+            }
+        };
+
+        // Un index scris cu alt analizor sau alte câmpuri nu mai poate fi actualizat incremental
+        IndexWriter writer = index.getIndexWriter();
+        if (!FORMAT.equals(commitData(writer).get("format"))) {
+            writer.deleteAll();
+            writer.setLiveCommitData(Map.of("format", FORMAT).entrySet());
+            writer.commit();
+        }
+        this.indexed = readKeys();
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        if (index == null) return;
+
+        long start = System.currentTimeMillis();
+        Map<String, Entity> entities = version.calculateRead(() -> entities(version.dataset().asDatasetGraph()));
+        int added = 0, removed = 0;
+        synchronized (this) {
+            try {
+                // "indexed" include și modificările unei versiuni care nu a mai fost publicată
+                IndexWriter writer = index.getIndexWriter();
+                for (String key : indexed) {
+                    if (!entities.containsKey(key)) {
+                        writer.deleteDocuments(new Term("uid", uid(key)));
+                        removed++;
+                    }
+                }
+                for (Map.Entry<String, Entity> entity : entities.entrySet()) {
+                    if (!indexed.contains(entity.getKey())) {
+                        index.addEntity(entity.getValue());
+                        added++;
+                    }
+                }
+                indexed = new HashSet<>(entities.keySet());
+                dirty |= added + removed > 0;
+
+                // Cititor near-real-time: vede modificările de mai sus fără commit
+                Snapshot snapshot = new Snapshot(DirectoryReader.open(writer));
+                if (pending != null) pending.close();
+                pending = snapshot;
+                version.attach(Snapshot.class, snapshot);
+            } catch (IOException e) {
+                System.err.println("[search] Indexul nu a putut fi actualizat: " + e.getMessage());
+            }
+        }
+
+        // text:query din /sparql caută în indexul din contextul dataset-ului
+        version.sparqlDataset().getContext().set(TextQuery.textIndex, index);
+        System.out.println("[search] " + entities.size() + " texte indexate (+" + added + " / -" + removed + ") în "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @Override
+    public synchronized void published(KnowledgeGraph.Version version) {
+        Snapshot snapshot = version.get(Snapshot.class);
+        if (snapshot == null) return;
+
+        try {
+            if (dirty) {
+                index.getIndexWriter().setLiveCommitData(Map.of("format", FORMAT).entrySet());
+                index.commit();
+                dirty = false;
+            }
+        } catch (RuntimeException e) {
+            // Documentele rămân în IndexWriter și se salvează la următorul commit
+            System.err.println("[search] Indexul nu a putut fi salvat: " + e.getMessage());
+        }
+        if (previous != null) previous.close();
+        previous = published;
+        published = snapshot;
+        if (pending == snapshot) pending = null;
+    }
+
+    public boolean isEnabled() {
+        return index != null;
+    }
+
+    public record Page(List<SearchResult> results, int total) {}
+
+    // Rezultatele pentru "text" ordonate după relevanță, câte unul per resursă (cu scorul celei mai bune potriviri).
+    // "text" folosește sintaxa SimpleQueryParser: toate cuvintele sunt obligatorii, "..." pentru fraze, prefix*, a | b.
+    // "type" și "domain" (ro / int, doar pentru opere) sunt opționale.
+    public Page search(KnowledgeGraph.Version version, String text, String type, String domain, int offset, int limit) throws IOException {
+        SimpleQueryParser parser = new SimpleQueryParser(index.getQueryAnalyzer(), WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        // Filtrele fac parte din interogare, deci numărul de rezultate e cel al resurselor care le trec
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(parser.parse(text), BooleanClause.Occur.MUST);
+        if (type != null) query.add(new TermQuery(new Term("type", type)), BooleanClause.Occur.FILTER);
+        if (domain != null) {
+            // Domeniul restrânge doar operele; celelalte resurse nu sunt în grafurile ro / int
+            String other = domain.equals("ro") ? GRAPH_INT : GRAPH_RO;
+            query.add(new TermQuery(new Term("graph", other)), BooleanClause.Occur.MUST_NOT);
+        }
+
+        List<SearchResult> page = new ArrayList<>();
+        int total;
+        Snapshot snapshot = acquire(version);
+        try {
+            BestPerUri collector = new BestPerUri();
+            snapshot.searcher.search(query.build(), collector);
+            total = collector.best.size();
+            // Ordinea lui TopDocs: scor descrescător, apoi documentul mai vechi
+            List<Hit> hits = collector.best.values().stream()
+                    .sorted(Comparator.comparingDouble((Hit hit) -> -hit.score()).thenComparingInt(Hit::doc))
+                    .skip(offset).limit(limit).toList();
+
+            StoredFields stored = snapshot.searcher.storedFields();
+            for (Hit hit : hits) {
+                Document doc = stored.document(hit.doc());
+                String uri = doc.get("uri");
+                String graph = doc.get("graph");
+                SearchResult result = new SearchResult();
+                result.uri = uri;
+                result.id = uri.substring(uri.lastIndexOf('/') + 1);
+                result.type = doc.get("type");
+                result.domain = GRAPH_RO.equals(graph) ? "ro" : GRAPH_INT.equals(graph) ? "int" : null;
+                result.score = hit.score();
+                for (String field : FIELDS.keySet()) {
+                    if (doc.get(field) != null) {
+                        result.field = field;
+                        result.text = doc.get(field);
+                        break;
+                    }
+                }
+                page.add(result);
+            }
+        } finally {
+            snapshot.reader.decRef();
+        }
+
+        return version.calculateRead(() -> {
+            DatasetGraph dsg = version.dataset().asDatasetGraph();
+            for (SearchResult result : page) result.label = label(dsg, result.uri);
+            return new Page(page, total);
+        });
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (index == null) return;
+        synchronized (this) {
+            for (Snapshot snapshot : new Snapshot[]{pending, published, previous}) {
+                if (snapshot != null) snapshot.close();
+            }
+        }
+        index.close();
+    }
+
+    // Cititorul versiunii, cu o referință în plus pe care apelantul o eliberează cu decRef(). Dacă între timp s-au
+    // publicat două versiuni noi și cititorul a fost închis, căutăm în versiunea curentă
+    private Snapshot acquire(KnowledgeGraph.Version version) throws IOException {
+        Snapshot snapshot = version.get(Snapshot.class);
+        if (snapshot != null && snapshot.reader.tryIncRef()) return snapshot;
+        synchronized (this) {
+            if (published == null) throw new IOException("Search index is not available");
+            published.reader.incRef();
+            return published;
+        }
+    }
+
+    // Câte o entitate jena-text per triplu (resursă, predicat indexat, literal), cu uid-ul calculat ca în
+    // TextIndexLucene. Cheia cuprinde și tipul resursei, ca documentul să fie refăcut dacă acesta se schimbă
+    private Map<String, Entity> entities(DatasetGraph dsg) {
+        EntityDefinition definition = index.getDocDef();
+        Node label = RDFS.label.asNode();
+        Map<String, Entity> entities = new HashMap<>();
+        Map<String, String> types = new HashMap<>();
+        for (String predicate : FIELDS.values()) {
+            Node p = NodeFactory.createURI(predicate);
+            dsg.find(Node.ANY, Node.ANY, p, Node.ANY).forEachRemaining(quad -> {
+                if (!quad.getObject().isLiteral() || quad.isDefaultGraph()) return;
+                // În grafurile operelor rdfs:label e doar "Crearea operei ...", care ar repeta titlul
+                if (p.equals(label) && !GRAPH_GETTY.equals(quad.getGraph().getURI())) return;
+
+                Entity entity = TextQueryFuncs.entityFromQuad(definition, quad);
+                if (entity == null) return;
+                Map.Entry<String, Object> field = entity.getMap().entrySet().iterator().next();
+                String type = types.computeIfAbsent(entity.getId(), uri -> type(dsg, uri));
+                String uid = entity.getChecksum(field.getKey(), String.valueOf(field.getValue()));
+                entities.put(key(uid, type), new TypedEntity(entity, type));
+            });
+        }
+        return entities;
+    }
+
+    private Set<String> readKeys() throws IOException {
+        Set<String> keys = new HashSet<>();
+        try (DirectoryReader directory = DirectoryReader.open(index.getIndexWriter())) {
+            for (LeafReaderContext leaf : directory.leaves()) {
+                LeafReader reader = leaf.reader();
+                Bits live = reader.getLiveDocs();
+                StoredFields stored = reader.storedFields();
+                for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                    if (live != null && !live.get(doc)) continue;
+                    Document fields = stored.document(doc, Set.of("uid", "type"));
+                    if (fields.get("uid") != null) keys.add(key(fields.get("uid"), fields.get("type")));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static String key(String uid, String type) {
+        return type + " " + uid;
+    }
+
+    private static String uid(String key) {
+        return key.substring(key.indexOf(' ') + 1);
+    }
+
+    private static Map<String, String> commitData(IndexWriter writer) {
+        Map<String, String> data = new HashMap<>();
+        Iterable<Map.Entry<String, String>> live = writer.getLiveCommitData();
+        if (live != null) live.forEach(e -> data.put(e.getKey(), e.getValue()));
+        return data;
+    }
+
+    private static String type(DatasetGraph dsg, String uri) {
+        if (uri.startsWith("http://arp.ro/category/")) return "category";
+        if (uri.startsWith("http://arp.ro/material/")) return "material";
+
+        Set<String> types = new HashSet<>();
+        dsg.find(Node.ANY, NodeFactory.createURI(uri), RDF.type.asNode(), Node.ANY)
+                .forEachRemaining(quad -> types.add(quad.getObject().toString()));
+        for (Map.Entry<String, String> type : TYPES.entrySet()) {
+            if (types.contains(type.getKey())) return type.getValue();
+        }
+        return "other";
+    }
+
+    // Titlul / numele / eticheta resursei, de preferință în română
+    private static String label(DatasetGraph dsg, String uri) {
+        Node subject = NodeFactory.createURI(uri);
+        for (String field : List.of("title", "name", "wikidataName", "label")) {
+            String fallback = null;
+            for (Iterator<Quad> it = dsg.find(Node.ANY, subject, NodeFactory.createURI(FIELDS.get(field)), Node.ANY); it.hasNext(); ) {
+                Node o = it.next().getObject();
+                if (!o.isLiteral()) continue;
+                String lang = o.getLiteralLanguage();
+                if (lang.isEmpty() || lang.equals("ro")) return o.getLiteralLexicalForm();
+                if (fallback == null) fallback = o.getLiteralLexicalForm();
+            }
+            if (fallback != null) return fallback;
+        }
+        return null;
+    }
+
+    private static class Snapshot {
+        final DirectoryReader reader;
+        final IndexSearcher searcher;
+
+        Snapshot(DirectoryReader reader) {
+            this.reader = reader;
+            this.searcher = new IndexSearcher(reader);
+        }
+
+        void close() {
+            try {
+                reader.decRef();
+            } catch (IOException e) {
+                System.err.println("[search] Cititorul indexului nu a putut fi închis: " + e.getMessage());
+            }
+        }
+    }
+
+    private record Hit(int doc, float score) {}
+
+    // Cel mai bun document al fiecărei resurse, din toate potrivirile: jena-text are câte un document per triplu,
+    // deci numărul de resurse (și paginile de după primele documente) se află doar trecând prin toate
+    private static class BestPerUri extends SimpleCollector {
+        final Map<String, Hit> best = new HashMap<>();
+        private Scorable scorer;
+        private SortedDocValues uris;
+        private int docBase;
+
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) throws IOException {
+            docBase = context.docBase;
+            uris = DocValues.getSorted(context.reader(), URI_KEY);
+        }
+
+        @Override
+        public void setScorer(Scorable scorer) {
+            this.scorer = scorer;
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+            if (!uris.advanceExact(doc)) return;
+            String uri = uris.lookupOrd(uris.ordValue()).utf8ToString();
+            float score = scorer.score();
+            Hit hit = best.get(uri);
+            // Documentele vin în ordine, deci la scor egal rămâne primul
+            if (hit == null || score > hit.score()) best.put(uri, new Hit(docBase + doc, score));
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE;
+        }
+    }
+
+    private static class TypedEntity extends Entity {
+        final String type;
+
+        TypedEntity(Entity entity, String type) {
+            super(entity.getId(), entity.getGraph(), entity.getLanguage(), entity.getDatatype());
+            entity.getMap().forEach(this::put);
+            this.type = type;
+        }
+    }
+
+    // Litere mici și fără diacritice, atât la indexare cât și la interogare
+    static class FoldingAnalyzer extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            return new TokenStreamComponents(source, new ASCIIFoldingFilter(new LowerCaseFilter(source)));
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Recomandări "opere similare": asemănarea a două opere este indicele Jaccard al mulțimilor lor de trăsături
+// (materiale, tehnici, cultură, clasificare, perioadă, concepte Getty AAT). Candidații vin dintr-un index LSH
+// peste semnături MinHash și sunt ordonați după Jaccard exact, fără comparații pe perechi în SPARQL.
+// Se reconstruiește pentru fiecare versiune a grafului.
+@Component
+public class SimilarityIndex implements KnowledgeGraphListener {
+
+    private static final List<String> DOMAINS = List.of("ro", "int");
+
+    private final SparqlTemplates templates;
+
+    @Value("${arp.similarity-index.enabled:true}")
+    private boolean enabled;
+
+    public SimilarityIndex(SparqlTemplates templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        if (!enabled) return;
+
+        Map<String, Domain> domains = new HashMap<>();
+        for (String domain : DOMAINS) {
+            long start = System.currentTimeMillis();
+            Domain index = version.calculateRead(() -> build(templates, version.artworks(domain), version.getty()));
+            domains.put(domain, index);
+            System.out.println("[index] similaritate " + domain + ": " + index.size() + " opere, " + index.vocabulary()
+                    + " trăsături în " + (System.currentTimeMillis() - start) + " ms");
+        }
+        version.attach(Snapshot.class, new Snapshot(domains));
+    }
+
+    // null dacă indexul e dezactivat sau domeniul nu este indexat
+    public Domain of(KnowledgeGraph.Version version, String domain) {
+        Snapshot snapshot = version.get(Snapshot.class);
+        return snapshot == null ? null : snapshot.domains().get(domain);
+    }
+
+    // Trăsăturile fiecărei opere din "artworks", cu conceptele AAT găsite prin etichetele din "getty"
+    public static Domain build(SparqlTemplates templates, Model artworks, Model getty) {
+        Map<String, String> aat = gettyLabels(templates, getty);
+        Map<String, Set<String>> features = new TreeMap<>();
+        Map<String, String> titles = new HashMap<>();
+        Map<String, String> images = new HashMap<>();
+
+        try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artwork-similarity-features"), artworks)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) {
+                QuerySolution sol = rs.nextSolution();
+                String subject = sol.getResource("subject").getURI();
+                if (subject == null) continue;
+                Set<String> f = features.computeIfAbsent(subject, k -> new HashSet<>());
+
+                if (sol.contains("material")) {
+                    for (String material : sol.getLiteral("material").getString().split("[;,]")) {
+                        addTerm(f, "material:", material, aat);
+                    }
+                }
+                if (sol.contains("technique")) addTerm(f, "technique:", sol.getLiteral("technique").getString(), aat);
+                if (sol.contains("culture")) addTerm(f, "culture:", text(sol.get("culture")), aat);
+                if (sol.contains("classification")) addTerm(f, "classification:", sol.getLiteral("classification").getString(), aat);
+                if (sol.contains("category")) addAat(f, normalize(sol.getLiteral("category").getString()), aat);
+                // Anul de început normalizat la încărcare (xsd:gYear, vezi DateNormalizer)
+                if (sol.contains("started")) addPeriod(f, Integer.parseInt(sol.getLiteral("started").getLexicalForm()));
+
+                if (sol.contains("title")) titles.putIfAbsent(subject, sol.getLiteral("title").getString());
+                if (sol.contains("image")) images.putIfAbsent(subject, text(sol.get("image")));
+            }
+        }
+
+        String[] uris = features.keySet().toArray(new String[0]);
+        String[] titleOf = new String[uris.length];
+        String[] imageOf = new String[uris.length];
+        for (int id = 0; id < uris.length; id++) {
+            titleOf[id] = titles.get(uris[id]);
+            imageOf[id] = images.get(uris[id]);
+        }
+        return new Domain(uris, new ArrayList<>(features.values()), titleOf, imageOf);
+    }
+
+    private static Map<String, String> gettyLabels(SparqlTemplates templates, Model getty) {
+        Map<String, String> labels = new HashMap<>();
+        try (QueryExecution qexec = SparqlTemplates.execute(templates.get("getty-labels"), getty)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) {
+                QuerySolution sol = rs.nextSolution();
+                labels.putIfAbsent(normalize(sol.getLiteral("label").getString()), sol.getResource("aat").getURI());
+            }
+        }
+        return labels;
+    }
+
+    private static void addTerm(Set<String> f, String prefix, String value, Map<String, String> aat) {
+        String term = normalize(value);
+        if (term.isEmpty()) return;
+        f.add(prefix + term);
+        addAat(f, term, aat);
+    }
+
+    // "oil on canvas" și "ulei" ajung la același concept dacă eticheta apare ca cuvânt întreg
+    private static void addAat(Set<String> f, String term, Map<String, String> aat) {
+        aat.forEach((label, concept) -> {
+            if (containsWord(term, label)) f.add("aat:" + concept);
+        });
+    }
+
+    // Secolul și sfertul de secol al anului de creare
+    private static void addPeriod(Set<String> f, int year) {
+        f.add("century:" + Math.floorDiv(year, 100));
+        f.add("period:" + Math.floorDiv(year, 25) * 25);
+    }
+
+    static boolean containsWord(String text, String word) {
+        if (word.isEmpty()) return false;
+        for (int i = text.indexOf(word); i >= 0; i = text.indexOf(word, i + 1)) {
+            int end = i + word.length();
+            boolean startOk = i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1));
+            boolean endOk = end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+            if (startOk && endOk) return true;
+        }
+        return false;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String text(RDFNode node) {
+        return node.isResource() ? node.asResource().getURI() : node.asLiteral().getLexicalForm();
+    }
+
+    record Snapshot(Map<String, Domain> domains) {}
+
+    public static class Domain {
+
+        // 16 benzi x 4 rânduri: perechile cu Jaccard 0.7 ajung candidate cu probabilitate ~99%, cele cu 0.5 ~64%
+        static final int BANDS = 16;
+        static final int ROWS = 4;
+        // Câți membri citim dintr-o găleată LSH; operele cu trăsături identice pot umple găleți foarte mari
+        static final int MAX_BUCKET = 64;
+        // Sub această dimensiune comparăm cu toate operele: e exact și tot sub o milisecundă
+        static final int EXHAUSTIVE = 4096;
+
+        private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+        private static final int SCALE = 1_000_000;
+
+        private final String[] uris;
+        private final String[] titles;
+        private final String[] images;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final int[][] tokens;     // id-urile trăsăturilor fiecărei opere, sortate
+        private final int[][] hashes;     // trăsătură -> cele BANDS * ROWS valori de hash
+        private final long[][] bands;     // bandă -> (cheie << 32 | operă), sortat
+
+        public Domain(String[] uris, List<? extends Collection<String>> features, String[] titles, String[] images) {
+            int n = uris.length;
+            this.uris = uris;
+            this.titles = titles != null ? titles : new String[n];
+            this.images = images != null ? images : new String[n];
+            for (int id = 0; id < n; id++) ids.put(uris[id], id);
+
+            Map<String, Integer> dictionary = new HashMap<>();
+            int[] frequency = new int[16];
+            int[][] raw = new int[n][];
+            for (int id = 0; id < n; id++) {
+                raw[id] = features.get(id).stream().distinct()
+                        .mapToInt(token -> dictionary.computeIfAbsent(token, k -> dictionary.size()))
+                        .toArray();
+                for (int token : raw[id]) {
+                    if (token >= frequency.length) frequency = Arrays.copyOf(frequency, Math.max(token + 1, frequency.length * 2));
+                    frequency[token]++;
+                }
+            }
+
+            // Trăsăturile prezente la mai mult de jumătate din opere (ex. "work of art") nu deosebesc nimic
+            int cutoff = Math.max(1, n / 2);
+            int[] df = frequency;
+            this.tokens = new int[n][];
+            int indexed = 0;
+            for (int id = 0; id < n; id++) {
+                int[] f = raw[id];
+                tokens[id] = Arrays.stream(f).filter(token -> df[token] <= cutoff).sorted().toArray();
+                if (tokens[id].length > 0) indexed++;
+            }
+
+            this.hashes = new int[dictionary.size()][];
+            dictionary.forEach((token, id) -> hashes[id] = hashes(token));
+
+            this.bands = new long[BANDS][indexed];
+            int row = 0;
+            for (int id = 0; id < n; id++) {
+                if (tokens[id].length == 0) continue;
+                int[] signature = signature(tokens[id]);
+                for (int b = 0; b < BANDS; b++) {
+                    bands[b][row] = ((long) bandKey(signature, b) << 32) | id;
+                }
+                row++;
+            }
+            for (long[] band : bands) Arrays.sort(band);
+        }
+
+        // Operele cele mai asemănătoare cu "inputUri" (fără ea), pagina [offset, offset + limit) din clasament
+        public int[] similar(String inputUri, int offset, int limit) {
+            Integer input = ids.get(inputUri);
+            if (input == null || offset < 0 || limit <= 0 || tokens[input].length == 0) return new int[0];
+
+            int[] candidates;
+            int count = 0;
+            if (uris.length <= EXHAUSTIVE) {
+                candidates = new int[uris.length];
+                for (int id = 0; id < uris.length; id++) {
+                    if (id != input && tokens[id].length > 0) candidates[count++] = id;
+                }
+                return rank(input, candidates, count, offset, limit);
+            }
+
+            int[] signature = signature(tokens[input]);
+            candidates = new int[BANDS * MAX_BUCKET];
+            for (int b = 0; b < BANDS; b++) {
+                long[] band = bands[b];
+                int key = bandKey(signature, b);
+                int from = lowerBound(band, key);
+                int to = upperBound(band, key);
+                int size = to - from;
+
+                // Găleată mare: citim o fereastră care începe după operă, ca interogări diferite să vadă vecini diferiți
+                int start = Arrays.binarySearch(band, from, to, ((long) key << 32) | input) - from + 1;
+                for (int i = 0; i < Math.min(size, MAX_BUCKET); i++) {
+                    int candidate = (int) band[from + (start + i) % size];
+                    if (candidate != input) candidates[count++] = candidate;
+                }
+            }
+            Arrays.sort(candidates, 0, count);
+            return rank(input, candidates, count, offset, limit);
+        }
+
+        // Candidații (sortați) ordonați după Jaccard descrescător, apoi după id
+        private int[] rank(int input, int[] candidates, int count, int offset, int limit) {
+            long[] ranked = new long[count];
+            int unique = 0;
+            for (int i = 0; i < count; i++) {
+                if (i > 0 && candidates[i] == candidates[i - 1]) continue;
+                int score = (int) Math.round(jaccard(tokens[input], tokens[candidates[i]]) * SCALE);
+                if (score > 0) ranked[unique++] = ((long) (SCALE - score) << 32) | candidates[i];
+            }
+            Arrays.sort(ranked, 0, unique);
+
+            if (offset >= unique) return new int[0];
+            int[] page = new int[Math.min(limit, unique - offset)];
+            for (int i = 0; i < page.length; i++) page[i] = (int) ranked[offset + i];
+            return page;
+        }
+
+        // Jaccard exact între două opere, pe trăsăturile indexate
+        public double similarity(int a, int b) {
+            return jaccard(tokens[a], tokens[b]);
+        }
+
+        public int id(String uri) {
+            Integer id = ids.get(uri);
+            return id == null ? -1 : id;
+        }
+
+        public String uri(int id) {
+            return uris[id];
+        }
+
+        public String title(int id) {
+            return titles[id];
+        }
+
+        public String image(int id) {
+            return images[id];
+        }
+
+        public int size() {
+            return uris.length;
+        }
+
+        public int vocabulary() {
+            return hashes.length;
+        }
+
+        private int[] signature(int[] f) {
+            int[] signature = new int[BANDS * ROWS];
+            Arrays.fill(signature, Integer.MAX_VALUE);
+            for (int token : f) {
+                int[] h = hashes[token];
+                for (int j = 0; j < signature.length; j++) {
+                    if (h[j] < signature[j]) signature[j] = h[j];
+                }
+            }
+            return signature;
+        }
+
+        private static int bandKey(int[] signature, int band) {
+            long packed = 0;
+            for (int r = 0; r < ROWS; r++) packed = packed * 31 + signature[band * ROWS + r];
+            return (int) mix(packed + band * GOLDEN);
+        }
+
+        // BANDS * ROWS funcții de hash independente, derivate din FNV-1a al trăsăturii
+        private static int[] hashes(String token) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : token.getBytes(StandardCharsets.UTF_8)) {
+                h = (h ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            int[] values = new int[BANDS * ROWS];
+            for (int j = 0; j < values.length; j++) values[j] = (int) mix(h + (j + 1) * GOLDEN);
+            return values;
+        }
+
+        // Finalizatorul splitmix64
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+
+        private static double jaccard(int[] a, int[] b) {
+            int i = 0, j = 0, common = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] == b[j]) {
+                    common++;
+                    i++;
+                    j++;
+                } else if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            int union = a.length + b.length - common;
+            return union == 0 ? 0 : (double) common / union;
+        }
+
+        // Prima poziție cu cheia (cei 32 de biți superiori) >= key
+        private static int lowerBound(long[] band, int key) {
+            int lo = 0, hi = band.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if ((int) (band[mid] >> 32) < key) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+
+        // Prima poziție cu cheia > key
+        private static int upperBound(long[] band, int key) {
+            int lo = 0, hi = band.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if ((int) (band[mid] >> 32) <= key) lo = mid + 1; else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.backend.repository;
+
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QueryExecutionDatasetBuilder;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.QueryParseException;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.Binding;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+// Interogările din resources/sparql, citite și parsate o singură dată la pornire. Șabloanele utilitarelor offline
+// (Wikidata, generate.sparql) au încă substituții textuale și stau separat, în sparql/offline.
+// Parametrii (URI-uri) se leagă prin substituție de variabile, nu prin înlocuire de text,
+// deci un URI primit în cerere nu poate modifica structura interogării.
+@Component
+public class SparqlTemplates {
+
+    // Termenul (System.nanoTime()) ramurii paralele care rulează pe firul curent, vezi ParallelReads
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private final Map<String, Query> queries = new HashMap<>();
+
+    public SparqlTemplates() throws IOException {
+        Resource[] files = new PathMatchingResourcePatternResolver().getResources("classpath*:sparql/*.sparql");
+        for (Resource file : files) {
+            String name = file.getFilename().replace(".sparql", "");
+            try (InputStream is = file.getInputStream()) {
+                queries.put(name, QueryFactory.create(new String(is.readAllBytes(), StandardCharsets.UTF_8)));
+            } catch (QueryParseException e) {
+                // Toate șabloanele de aici sunt folosite de aplicație: unul invalid oprește pornirea
+                throw new IllegalStateException("Invalid SPARQL template " + file.getFilename() + ": " + e.getMessage(), e);
+            }
+        }
+        System.out.println("[sparql] " + queries.size() + " interogări precompilate");
+    }
+
+    // Interogarea compilată; este partajată între cereri, deci nu se modifică
+    public Query get(String name) {
+        Query query = queries.get(name);
+        if (query == null) {
+            throw new IllegalArgumentException("Unknown SPARQL template: " + name);
+        }
+        return query;
+    }
+
+    // Copie cu LIMIT / OFFSET proprii
+    public Query page(String name, long limit, long offset) {
+        Query query = get(name).cloneQuery();
+        query.setLimit(limit);
+        query.setOffset(offset);
+        return query;
+    }
+
+    // Copie cu VALUES ?var { <uri1> <uri2> ... } la începutul WHERE, ca fiecare URI să fie legat înaintea OPTIONAL-urilor
+    public Query withValues(String name, String var, List<String> uris) {
+        Query query = get(name).cloneQuery();
+
+        Var v = Var.alloc(var);
+        List<Binding> rows = new ArrayList<>();
+        for (String uri : uris) {
+            rows.add(BindingFactory.binding(v, NodeFactory.createURI(uri)));
+        }
+
+        // Grup nou: elementele șablonului partajat nu se modifică
+        ElementGroup group = new ElementGroup();
+        group.addElement(new ElementData(List.of(v), rows));
+        Element pattern = query.getQueryPattern();
+        if (pattern instanceof ElementGroup original) {
+            original.getElements().forEach(group::addElement);
+        } else {
+            group.addElement(pattern);
+        }
+        query.setQueryPattern(group);
+        return query;
+    }
+
+    // ?var devine <uri> în interogare
+    public static QueryExecution execute(Query query, Model model, String var, String uri) {
+        return builder(query, model)
+                .substitution(var, ResourceFactory.createResource(uri))
+                .build();
+    }
+
+    public static QueryExecution execute(Query query, Model model) {
+        return builder(query, model).build();
+    }
+
+    // Rulează "task" cu un termen: interogările pornite de el se opresc singure când acesta expiră, iar tranzacția
+    // de citire se închide odată cu ele. Jena nu reacționează la întreruperea firului (Future.cancel)
+    public static <T> T withDeadline(long deadlineNanos, Callable<T> task) throws Exception {
+        DEADLINE.set(deadlineNanos);
+        try {
+            return task.call();
+        } finally {
+            DEADLINE.remove();
+        }
+    }
+
+    private static QueryExecutionDatasetBuilder builder(Query query, Model model) {
+        QueryExecutionDatasetBuilder builder = QueryExecution.model(model).query(query);
+        Long deadline = DEADLINE.get();
+        if (deadline != null) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            builder.overallTimeout(Math.max(1, remaining), TimeUnit.MILLISECONDS);
+        }
+        return builder;
+    }
+
+    // Interogări de forma SELECT (COUNT(...) AS ?count)
+    public static int count(Query query, Model model) {
+        try (QueryExecution qexec = execute(query, model)) {
+            ResultSet rs = qexec.execSelect();
+            return rs.hasNext() ? rs.nextSolution().getLiteral("count").getInt() : 0;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.RDFNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+// Opere asemănătoare ca text: fiecare operă are un vector TF-IDF peste cuvintele și trigramele de caractere
+// din titlu și descriere (hashed, fără vocabular), iar vecinii se caută într-un graf HNSW.
+// Graful e salvat lângă snapshot-ul dataset-ului și refolosit cât timp textele nu s-au schimbat.
+@Component
+public class TextSimilarityIndex implements KnowledgeGraphListener {
+
+    private static final List<String> DOMAINS = List.of("ro", "int");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final SparqlTemplates templates;
+
+    @Value("${arp.text-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${arp.text-index.location:data/snapshot}")
+    private String location;
+
+    public TextSimilarityIndex(SparqlTemplates templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        if (!enabled) return;
+
+        Map<String, Domain> domains = new HashMap<>();
+        for (String domain : DOMAINS) {
+            long start = System.currentTimeMillis();
+            Domain index = version.calculateRead(() -> build(templates, version.artworks(domain)));
+            String source = index.index(Path.of(location, "text-similarity-" + domain + ".hnsw"));
+            domains.put(domain, index);
+            System.out.println("[index] text " + domain + ": " + index.size() + " opere, graf HNSW " + source + " în "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+        version.attach(Snapshot.class, new Snapshot(domains));
+    }
+
+    // null dacă indexul e dezactivat sau domeniul nu este indexat
+    public Domain of(KnowledgeGraph.Version version, String domain) {
+        Snapshot snapshot = version.get(Snapshot.class);
+        return snapshot == null ? null : snapshot.domains().get(domain);
+    }
+
+    // Vectorii operelor din "artworks"; graful se construiește separat, prin Domain.index
+    public static Domain build(SparqlTemplates templates, Model artworks) {
+        Map<String, StringBuilder> titles = new TreeMap<>();
+        Map<String, StringBuilder> descriptions = new HashMap<>();
+        Map<String, String> images = new HashMap<>();
+
+        try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artwork-text"), artworks)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) {
+                QuerySolution sol = rs.nextSolution();
+                String subject = sol.getResource("subject").getURI();
+                if (subject == null) continue;
+                StringBuilder title = titles.computeIfAbsent(subject, k -> new StringBuilder());
+
+                if (sol.contains("title")) title.append(sol.getLiteral("title").getString()).append(' ');
+                if (sol.contains("description")) {
+                    descriptions.computeIfAbsent(subject, k -> new StringBuilder())
+                            .append(sol.getLiteral("description").getString()).append(' ');
+                }
+                if (sol.contains("image")) images.putIfAbsent(subject, text(sol.get("image")));
+            }
+        }
+
+        String[] uris = titles.keySet().toArray(new String[0]);
+        String[] titleOf = new String[uris.length];
+        String[] descriptionOf = new String[uris.length];
+        String[] imageOf = new String[uris.length];
+        for (int id = 0; id < uris.length; id++) {
+            titleOf[id] = titles.get(uris[id]).toString().trim();
+            StringBuilder description = descriptions.get(uris[id]);
+            descriptionOf[id] = description == null ? "" : description.toString().trim();
+            imageOf[id] = images.get(uris[id]);
+        }
+        return new Domain(uris, titleOf, descriptionOf, imageOf);
+    }
+
+    // Cuvintele (fără diacritice, litere mici) și trigramele lor de caractere: "picturi" și "pictura"
+    // au în comun "pic", "ict", "ctu", chiar dacă nu împart cuvântul întreg
+    static List<String> terms(String text) {
+        String folded = MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)).replaceAll("");
+        List<String> terms = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded)) {
+            if (word.length() < 2) continue;
+            terms.add("w:" + word);
+            String padded = "_" + word + "_";
+            for (int i = 0; i + 3 <= padded.length(); i++) terms.add("g:" + padded.substring(i, i + 3));
+        }
+        return terms;
+    }
+
+    private static String text(RDFNode node) {
+        return node.isResource() ? node.asResource().getURI() : node.asLiteral().getString();
+    }
+
+    record Snapshot(Map<String, Domain> domains) {}
+
+    public static class Domain implements HnswGraph.Vectors {
+
+        // 2^20 dimensiuni: coliziunile dintre termeni sunt rare la vocabularul unei colecții de muzeu
+        private static final int DIMENSIONS = 1 << 20;
+        // Titlul e scurt și descrie opera mai bine decât descrierea, așa că termenii lui contează dublu
+        private static final int TITLE_WEIGHT = 2;
+        private static final int MAX_TERMS = 64;
+        private static final int EF_SEARCH = 64;
+        // Plafonul lui ef: mai departe de atâția vecini rezultatele nu mai au sens, iar căutarea ar costa ca o scanare
+        private static final int MAX_EF_SEARCH = 512;
+        private static final int MAGIC = 0x484E5357; // "HNSW"
+        private static final int FORMAT = 1;
+
+        private final String[] uris;
+        private final String[] titles;
+        private final String[] images;
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final int[][] terms;      // dimensiunile nenule, sortate
+        private final float[][] weights;  // ponderile TF-IDF, vector de normă 1
+        private final long fingerprint;
+        private HnswGraph graph;
+
+        public Domain(String[] uris, String[] titles, String[] descriptions, String[] images) {
+            int n = uris.length;
+            this.uris = uris;
+            this.titles = titles;
+            this.images = images != null ? images : new String[n];
+            for (int id = 0; id < n; id++) ids.put(uris[id], id);
+
+            // Amprenta textelor și a parametrilor: graful salvat e valabil doar dacă nu s-a schimbat niciuna
+            long hash = fnv(0xcbf29ce484222325L, DIMENSIONS + "/" + TITLE_WEIGHT + "/" + MAX_TERMS + "/" + HnswGraph.M + "/" + HnswGraph.EF_CONSTRUCTION);
+            List<Map<Integer, Integer>> counts = new ArrayList<>(n);
+            Map<Integer, Integer> frequency = new HashMap<>();
+            for (int id = 0; id < n; id++) {
+                Map<Integer, Integer> tf = new HashMap<>();
+                for (String term : terms(titles[id])) tf.merge(dimension(term), TITLE_WEIGHT, Integer::sum);
+                for (String term : terms(descriptions[id])) tf.merge(dimension(term), 1, Integer::sum);
+                tf.keySet().forEach(d -> frequency.merge(d, 1, Integer::sum));
+                counts.add(tf);
+                hash = fnv(fnv(fnv(hash, uris[id]), titles[id]), descriptions[id]);
+            }
+            this.fingerprint = hash;
+
+            this.terms = new int[n][];
+            this.weights = new float[n][];
+            for (int id = 0; id < n; id++) {
+                Map<Integer, Integer> tf = counts.get(id);
+                Map<Integer, Double> tfidf = new HashMap<>();
+                tf.forEach((d, count) -> tfidf.put(d, (1 + Math.log(count)) * (Math.log((1.0 + n) / (1.0 + frequency.get(d))) + 1)));
+
+                // Doar termenii cu ponderea cea mai mare: restul schimbă puțin cosinusul, dar înmulțesc costul comparațiilor
+                int[] dims = tfidf.entrySet().stream()
+                        .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed())
+                        .limit(MAX_TERMS)
+                        .mapToInt(Map.Entry::getKey)
+                        .sorted().toArray();
+                float[] w = new float[dims.length];
+                double norm = 0;
+                for (int i = 0; i < dims.length; i++) {
+                    w[i] = (float) (double) tfidf.get(dims[i]);
+                    norm += w[i] * w[i];
+                }
+                norm = Math.sqrt(norm);
+                for (int i = 0; i < w.length && norm > 0; i++) w[i] /= (float) norm;
+                terms[id] = dims;
+                weights[id] = w;
+                counts.set(id, null);
+            }
+        }
+
+        // Graful din fișier dacă a fost construit pentru aceleași texte, altfel îl construim și îl salvăm
+        public String index(Path file) {
+            if (Files.exists(file)) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    if (in.readInt() == MAGIC && in.readInt() == FORMAT && in.readLong() == fingerprint) {
+                        HnswGraph loaded = HnswGraph.read(in);
+                        if (loaded.size() == uris.length) {
+                            graph = loaded;
+                            return "citit din " + file;
+                        }
+                    }
+                } catch (IOException e) {
+                    System.err.println("[index] " + file + " nu poate fi citit, reconstruim graful: " + e.getMessage());
+                }
+            }
+
+            graph = HnswGraph.build(this, 42);
+            try {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+                Path tmp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT);
+                    out.writeLong(fingerprint);
+                    graph.write(out);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("[index] Nu am putut salva " + file + ": " + e.getMessage());
+            }
+            return "construit";
+        }
+
+        // Graful doar în memorie (benchmark)
+        public void index() {
+            graph = HnswGraph.build(this, 42);
+        }
+
+        // Operele cu textul cel mai apropiat de al lui "inputUri" (fără ea), pagina [offset, offset + limit)
+        public int[] similar(String inputUri, int offset, int limit) {
+            Integer input = ids.get(inputUri);
+            if (input == null || graph == null || offset < 0 || limit <= 0 || terms[input].length == 0) return new int[0];
+
+            long[] found = graph.search(this, input, Math.min(MAX_EF_SEARCH, Math.max(EF_SEARCH, offset + limit)));
+            int available = 0;
+            while (available < found.length && HnswGraph.similarity(found[available]) > 0) available++;
+            if (offset >= available) return new int[0];
+
+            int[] page = new int[Math.min(limit, available - offset)];
+            for (int i = 0; i < page.length; i++) page[i] = HnswGraph.id(found[offset + i]);
+            return page;
+        }
+
+        // Cosinusul dintre doi vectori rari de normă 1
+        @Override
+        public double similarity(int a, int b) {
+            int[] ta = terms[a], tb = terms[b];
+            float[] wa = weights[a], wb = weights[b];
+            double dot = 0;
+            int i = 0, j = 0;
+            // Fără ramificații imprevizibile: indicii avansează prin comparații, nu prin if/else
+            while (i < ta.length && j < tb.length) {
+                int x = ta[i], y = tb[j];
+                dot += x == y ? wa[i] * wb[j] : 0;
+                i += x <= y ? 1 : 0;
+                j += x >= y ? 1 : 0;
+            }
+            return dot;
+        }
+
+        public int id(String uri) {
+            Integer id = ids.get(uri);
+            return id == null ? -1 : id;
+        }
+
+        public String uri(int id) {
+            return uris[id];
+        }
+
+        public String title(int id) {
+            return titles[id];
+        }
+
+        public String image(int id) {
+            return images[id];
+        }
+
+        @Override
+        public int size() {
+            return uris.length;
+        }
+
+        private static int dimension(String term) {
+            return (int) (fnv(0xcbf29ce484222325L, term) & (DIMENSIONS - 1));
+        }
+
+        private static long fnv(long h, String value) {
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h = (h ^ (b & 0xff)) * 0x100000001b3L;
+            }
+            return (h ^ 0xff) * 0x100000001b3L;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.backend.repository;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.config.KnowledgeGraphListener;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.QuerySolution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Index de intervale pentru datarea creațiilor: operele sortate după [earliestYear, latestYear] (normalizate la
+// încărcare de DateNormalizer) într-un arbore de intervale implicit peste tablouri sortate. Fiecare nod (mijlocul
+// unui segment) ține cel mai mare "latest" din segment, așa că o cerere "se suprapune cu [from, to]" coboară doar
+// în segmentele care pot conține rezultate: O(log n + k), în ordine cronologică.
+@Component
+public class TimelineIndex implements KnowledgeGraphListener {
+
+    private static final List<String> DOMAINS = List.of("ro", "int");
+
+    private final SparqlTemplates templates;
+
+    @Value("${arp.timeline-index.enabled:true}")
+    private boolean enabled;
+
+    public TimelineIndex(SparqlTemplates templates) {
+        this.templates = templates;
+    }
+
+    @Override
+    public void prepare(KnowledgeGraph.Version version) {
+        if (!enabled) return;
+
+        Map<String, Domain> domains = new HashMap<>();
+        for (String domain : DOMAINS) {
+            long start = System.currentTimeMillis();
+            Domain index = version.calculateRead(() -> build(templates, version.artworks(domain)));
+            domains.put(domain, index);
+            System.out.println("[index] timeline " + domain + ": " + index.size() + " opere datate în "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+        version.attach(Snapshot.class, new Snapshot(domains));
+    }
+
+    // null dacă indexul e dezactivat sau domeniul nu este indexat
+    public Domain of(KnowledgeGraph.Version version, String domain) {
+        Snapshot snapshot = version.get(Snapshot.class);
+        return snapshot == null ? null : snapshot.domains().get(domain);
+    }
+
+    public static Domain build(SparqlTemplates templates, Model artworks) {
+        Map<String, int[]> ranges = new HashMap<>();
+        try (QueryExecution qexec = SparqlTemplates.execute(templates.get("artwork-timeline"), artworks)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) {
+                QuerySolution sol = rs.nextSolution();
+                String uri = sol.getResource("subject").getURI();
+                if (uri == null) continue;
+                int earliest = Integer.parseInt(sol.getLiteral("earliest").getLexicalForm());
+                int latest = Integer.parseInt(sol.getLiteral("latest").getLexicalForm());
+                // Mai multe creații pentru aceeași operă: păstrăm intervalul care le cuprinde pe toate
+                ranges.merge(uri, new int[]{earliest, latest},
+                        (a, b) -> new int[]{Math.min(a[0], b[0]), Math.max(a[1], b[1])});
+            }
+        }
+
+        String[] uris = new String[ranges.size()];
+        int[] earliest = new int[uris.length];
+        int[] latest = new int[uris.length];
+        int i = 0;
+        for (Map.Entry<String, int[]> range : ranges.entrySet()) {
+            uris[i] = range.getKey();
+            earliest[i] = range.getValue()[0];
+            latest[i] = range.getValue()[1];
+            i++;
+        }
+        return new Domain(uris, earliest, latest);
+    }
+
+    public record Bucket(int from, int to, int count) {}
+
+    // "page" = pozițiile operelor din pagină, în ordine cronologică; min/max = anii extremi din tot indexul
+    public record Result(int[] page, int total, List<Bucket> buckets, Integer minYear, Integer maxYear) {}
+
+    public static class Domain {
+
+        // Aliniate și sortate după (earliest, latest, uri)
+        private final String[] uris;
+        private final int[] earliest;
+        private final int[] latest;
+        // maxLatest[mid] = cel mai mare "latest" din segmentul [lo, hi) al cărui mijloc este mid
+        private final int[] maxLatest;
+
+        public Domain(String[] uris, int[] earliest, int[] latest) {
+            Integer[] order = new Integer[uris.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, Comparator.<Integer>comparingInt(i -> earliest[i])
+                    .thenComparingInt(i -> latest[i]).thenComparing(i -> uris[i]));
+
+            this.uris = new String[uris.length];
+            this.earliest = new int[uris.length];
+            this.latest = new int[uris.length];
+            for (int i = 0; i < order.length; i++) {
+                this.uris[i] = uris[order[i]];
+                this.earliest[i] = earliest[order[i]];
+                this.latest[i] = latest[order[i]];
+            }
+            this.maxLatest = new int[uris.length];
+            fillMax(0, uris.length);
+        }
+
+        public int size() {
+            return uris.length;
+        }
+
+        public String uri(int position) {
+            return uris[position];
+        }
+
+        // Operele a căror datare se suprapune cu [from, to] (capete null = nelimitat), cu pagina cerută și
+        // numărul de opere pe găleți de "bucket" ani, după anul de început (adus în interval)
+        public Result query(Integer from, Integer to, int offset, int limit, int bucket) {
+            if (uris.length == 0) return new Result(new int[0], 0, List.of(), null, null);
+            int lo = from == null ? Integer.MIN_VALUE : from;
+            int hi = to == null ? Integer.MAX_VALUE : to;
+
+            Matches matches = new Matches();
+            collect(0, uris.length, lo, hi, matches);
+
+            // Pozițiile sunt în ordinea anului de început, deci gălețile apar una după alta
+            List<Bucket> buckets = new ArrayList<>();
+            int current = 0, count = 0;
+            for (int i = 0; i < matches.size; i++) {
+                int start = Math.floorDiv(Math.max(earliest[matches.positions[i]], lo), bucket) * bucket;
+                if (count > 0 && start != current) {
+                    buckets.add(new Bucket(current, current + bucket - 1, count));
+                    count = 0;
+                }
+                current = start;
+                count++;
+            }
+            if (count > 0) buckets.add(new Bucket(current, current + bucket - 1, count));
+
+            int first = Math.min(offset, matches.size);
+            int[] page = Arrays.copyOfRange(matches.positions, first, Math.min(matches.size, first + limit));
+            return new Result(page, matches.size, buckets, earliest[0], maxLatest[uris.length >>> 1]);
+        }
+
+        // Parcurgere în ordine a segmentului [start, end): sărim subarborii care se termină înainte de "from",
+        // iar după primul interval care începe după "to" nu mai urmează nicio suprapunere
+        private void collect(int start, int end, int from, int to, Matches out) {
+            if (start >= end || earliest[start] > to) return;
+            int mid = (start + end) >>> 1;
+            if (maxLatest[mid] < from) return;
+            collect(start, mid, from, to, out);
+            if (earliest[mid] > to) return;
+            if (latest[mid] >= from) out.add(mid);
+            collect(mid + 1, end, from, to, out);
+        }
+
+        private int fillMax(int start, int end) {
+            if (start >= end) return Integer.MIN_VALUE;
+            int mid = (start + end) >>> 1;
+            int max = Math.max(latest[mid], Math.max(fillMax(start, mid), fillMax(mid + 1, end)));
+            maxLatest[mid] = max;
+            return max;
+        }
+    }
+
+    private static class Matches {
+        int[] positions = new int[64];
+        int size;
+
+        void add(int position) {
+            if (size == positions.length) positions = Arrays.copyOf(positions, size * 2);
+            positions[size++] = position;
+        }
+    }
+
+    record Snapshot(Map<String, Domain> domains) {}
+}
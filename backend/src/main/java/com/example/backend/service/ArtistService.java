@@ -20,11 +20,15 @@ public class ArtistService {
         return repository.findByUri(artistUri, domain);
     }
 
-    public List<Artist> getAllArtistsWithFirstArtwork(String domain) {
-        return repository.findAllArtistWithFirstArtwork(domain);
+    public int countArtists(String domain) {
+        return repository.count(domain);
     }
 
 
+    public List<Artist> suggestArtists(String prefix, String domain, int limit) {
+        return repository.suggest(prefix, domain, limit);
+    }
+
     public List<Artist> getAllArtistsWithFirstArtworkHome(String domain, int page, int pageSize) {
 
         // (Pagina 1 -> 0, Pagina 2 -> 20, etc.)
@@ -2,9 +2,13 @@ package com.example.backend.service;
 
 import com.example.backend.model.Artwork;
 import com.example.backend.repository.ArtworkRepository;
+import com.example.backend.repository.FacetIndex;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ArtworkService {
@@ -22,11 +26,48 @@ public class ArtworkService {
         return repository.findByArtist(artistUri, domain);
     }
 
+    public ArtworkRepository.Faceted getFaceted(Map<FacetIndex.Facet, List<String>> selected, Integer from, Integer to,
+                                                int page, int pageSize, int facetLimit, String domain) {
+        int offset = (page - 1) * pageSize;
+        if (offset < 0) offset = 0;
+        return repository.findFaceted(selected, from, to, offset, pageSize, facetLimit, domain);
+    }
+
+    public ArtworkRepository.Timeline getTimeline(Integer from, Integer to, int bucket, int page, int pageSize, String domain) {
+        int offset = (page - 1) * pageSize;
+        if (offset < 0) offset = 0;
+        return repository.findTimeline(from, to, bucket, offset, pageSize, domain);
+    }
+
+    public int countArtworks(String domain) {
+        return repository.count(domain);
+    }
+
     public List<Artwork> getHomepageArtworks(int page, int pageSize, String domain) {
         int offset = (page - 1) * pageSize;
         return repository.findNext(pageSize, offset, domain);
     }
 
+    // Paginare cu cursor: "after" este tokenul primit cu pagina anterioară
+    public List<Artwork> getArtworksAfter(String after, int pageSize, String domain) {
+        return repository.findAfter(decodeCursor(after), pageSize, domain);
+    }
+
+    // Token opac pentru pagina următoare (URI-ul ultimei opere, base64 URL-safe); null dacă pagina nu e plină
+    public static String nextCursor(List<Artwork> page, int pageSize) {
+        if (page.isEmpty() || page.size() < pageSize) return null;
+        String lastUri = page.get(page.size() - 1).uri;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastUri.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decodeCursor(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid 'after' token");
+        }
+    }
+
     public List<Artwork> getRecommendations(String uri, int offset, int pageSize, String domain) {
 
         return repository.getRecommendationsByArtist(uri, pageSize, offset, domain);
@@ -39,4 +80,12 @@ public class ArtworkService {
     public List<Artwork> getRecommendationsCategory(String uri, int offset, int limit, String domain) {
         return repository.getRecommendationsByCategory(uri, offset, limit, domain);
     }
+
+    public List<Artwork> getRecommendationsSimilar(String uri, int offset, int limit, String domain) {
+        return repository.getRecommendationsBySimilarity(uri, limit, offset, domain);
+    }
+
+    public List<Artwork> getRecommendationsText(String uri, int offset, int limit, String domain) {
+        return repository.getRecommendationsByText(uri, limit, offset, domain);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.SparqlTemplates;
+import org.apache.jena.query.QueryCancelledException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Rulează citirile independente ale unei pagini în paralel, pe fire virtuale, cu un termen comun.
+// Latența paginii devine maximul ramurilor, nu suma lor; o ramură care depășește termenul sau eșuează
+// este înlocuită cu valoarea implicită, iar pagina se afișează parțial. Interogările SPARQL ale ramurii primesc
+// timpul rămas până la termen, așa că o ramură întârziată se oprește singură în loc să țină firul și tranzacția.
+@Component
+public class ParallelReads {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${arp.fan-out.deadline:PT3S}")
+    private Duration deadline;
+
+    public Batch batch() {
+        return new Batch(System.nanoTime() + deadline.toNanos());
+    }
+
+    public class Batch {
+
+        private final long deadlineNanos;
+        private final List<String> missing = Collections.synchronizedList(new ArrayList<>());
+
+        private Batch(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        public <T> Future<T> submit(Callable<T> task) {
+            return executor.submit(() -> SparqlTemplates.withDeadline(deadlineNanos, task));
+        }
+
+        // Rezultatul ramurii, sau "fallback" dacă termenul comun a expirat ori ramura a eșuat
+        public <T> T get(String name, Future<T> future, T fallback) {
+            long remaining = deadlineNanos - System.nanoTime();
+            try {
+                return future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                System.err.println("[fan-out] " + name + " a depășit termenul de " + deadline.toMillis() + " ms");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof QueryCancelledException) {
+                    // Interogarea a primit restul termenului ca timeout (SparqlTemplates.withDeadline)
+                    System.err.println("[fan-out] " + name + " a depășit termenul de " + deadline.toMillis() + " ms (interogare oprită)");
+                } else {
+                    System.err.println("[fan-out] " + name + " a eșuat: " + e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            missing.add(name);
+            return fallback;
+        }
+
+        // Ramurile care lipsesc din rezultat (termen depășit sau eroare)
+        public List<String> missing() {
+            return List.copyOf(missing);
+        }
+
+        public boolean isPartial() {
+            return !missing.isEmpty();
+        }
+    }
+}
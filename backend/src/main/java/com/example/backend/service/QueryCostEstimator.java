@@ -0,0 +1,452 @@
+package com.example.backend.service;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.repository.PredicateStats;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
+import org.apache.jena.sparql.algebra.Algebra;
+import org.apache.jena.sparql.algebra.Op;
+import org.apache.jena.sparql.algebra.op.*;
+import org.apache.jena.sparql.algebra.walker.Walker;
+import org.apache.jena.sparql.core.Prologue;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.expr.*;
+import org.apache.jena.sparql.path.*;
+import org.apache.jena.sparql.pfunction.PropertyFunctionRegistry;
+import org.apache.jena.sparql.util.ExprUtils;
+import org.apache.jena.sparql.util.FmtUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Estimarea costului unei interogări libere înainte de execuție, din algebra ei (Algebra.compile) și statisticile
+// pe predicat (PredicateStats). Costul aproximează numărul de legări intermediare produse: fiecare tipar de triplă e
+// evaluat ca o căutare în index pentru fiecare legare primită, ca în motorul Jena. Semnalează produsele
+// carteziene, regex-urile peste toate literalele și lipsa LIMIT; peste "arp.sparql.cost.max" interogarea e
+// respinsă cu explicația, fără să fi consumat timp de procesor.
+@Component
+public class QueryCostEstimator {
+
+    // Selectivitatea presupusă a unui FILTER și costul relativ al unui regex față de o comparație simplă
+    private static final double FILTER_SELECTIVITY = 0.3;
+    private static final double REGEX_COST = 10;
+    // Rezultatele presupuse pentru funcțiile-proprietate (text:query) și pentru SERVICE
+    private static final double PROPERTY_FUNCTION_ROWS = 1_000;
+    private static final double SERVICE_ROWS = 1_000;
+    // Un drum tranzitiv (p*, p+) parcurge în medie câteva niveluri
+    private static final double PATH_DEPTH = 10;
+    // Peste atâtea repetiții (p{n,m}) estimarea nu mai crește în mod util
+    private static final long MAX_REPEAT = 100;
+
+    private final PredicateStats predicateStats;
+    private final double maxCost;
+    private final long maxRows;
+
+    public QueryCostEstimator(PredicateStats predicateStats,
+                              @Value("${arp.sparql.cost.max:50000000}") double maxCost,
+                              @Value("${arp.sparql.max-rows:100000}") long maxRows) {
+        this.predicateStats = predicateStats;
+        this.maxCost = maxCost;
+        this.maxRows = maxRows;
+    }
+
+    // "problems" explică de unde vine costul; "rejected" = costul depășește limita
+    public record Estimate(double rows, double cost, double maxCost, List<String> problems) {
+
+        public boolean rejected() {
+            return cost > maxCost;
+        }
+    }
+
+    // null dacă statisticile sunt dezactivate
+    public Estimate estimate(Query query, KnowledgeGraph.Version version) {
+        PredicateStats.Stats stats = predicateStats.of(version);
+        return stats == null ? null : estimate(query, stats);
+    }
+
+    Estimate estimate(Query query, PredicateStats.Stats stats) {
+        Walk walk = new Walk(stats, query);
+        Card card = walk.visit(Algebra.compile(query), Set.of());
+        if (query.isAskType()) {
+            // ASK se oprește la prima soluție
+            card = walk.slice(card, 0, 1);
+        } else if (!query.hasLimit() || query.getLimit() > maxRows) {
+            // Fără LIMIT rezultatul e oricum tăiat la max-rows (vezi SparqlController), dar doar după ce a fost produs
+            if (card.rows > maxRows && !query.hasLimit()) {
+                walk.problems.add("No LIMIT: about " + format(card.rows) + " results estimated, only the first "
+                        + maxRows + " are returned.");
+            }
+            card = walk.slice(card, 0, maxRows + 1);
+        }
+        return new Estimate(card.rows, card.cost, maxCost, List.copyOf(walk.problems));
+    }
+
+    // Pentru o legare primită: rândurile produse, munca făcută, variabilele legate și variabilele legate la
+    // obiectul unui tipar cu predicat variabil (orice literal din date). "streaming" = rezultatele ies pe
+    // măsură ce sunt găsite, deci un LIMIT oprește evaluarea devreme (nu și după ORDER BY sau GROUP BY)
+    private record Card(double rows, double cost, Set<Var> vars, Set<Var> anyObject, boolean streaming) {}
+
+    private static class Walk {
+
+        private final PredicateStats.Stats stats;
+        // Prefixele interogării, ca explicațiile să arate tiparele așa cum au fost scrise
+        private final Prologue prologue;
+        private final List<String> problems = new ArrayList<>();
+
+        Walk(PredicateStats.Stats stats, Prologue prologue) {
+            this.stats = stats;
+            this.prologue = prologue;
+        }
+
+        // "bound" = variabilele deja legate când operatorul este evaluat (partea stângă a unei secvențe)
+        Card visit(Op op, Set<Var> bound) {
+            if (op instanceof OpBGP bgp) return patterns(bgp.getPattern().getList(), bound);
+            if (op instanceof OpTriple triple) return patterns(List.of(triple.getTriple()), bound);
+            if (op instanceof OpQuadPattern quads) return patterns(quads.getBasicPattern().getList(), bound);
+            if (op instanceof OpPath path) return path(path.getTriplePath(), bound);
+            if (op instanceof OpFilter filter) return filter(filter, bound);
+            if (op instanceof OpSequence sequence) return sequence(sequence.getElements(), bound);
+            if (op instanceof OpJoin join) return join(join.getLeft(), join.getRight(), bound);
+            if (op instanceof OpLeftJoin leftJoin) return optional(leftJoin.getLeft(), leftJoin.getRight(), bound);
+            if (op instanceof OpConditional conditional) return optional(conditional.getLeft(), conditional.getRight(), bound);
+            if (op instanceof OpUnion union) return union(List.of(union.getLeft(), union.getRight()), bound);
+            if (op instanceof OpDisjunction disjunction) return union(disjunction.getElements(), bound);
+            if (op instanceof OpSlice slice) {
+                Card sub = visit(slice.getSubOp(), bound);
+                return slice.getLength() < 0 ? sub : slice(sub, Math.max(0, slice.getStart()), slice.getLength());
+            }
+            if (op instanceof OpOrder order) {
+                Card sub = visit(order.getSubOp(), bound);
+                double sort = sub.rows * Math.log(sub.rows + 2) / Math.log(2);
+                return new Card(sub.rows, sub.cost + sort, sub.vars, sub.anyObject, false);
+            }
+            if (op instanceof OpGroup group) {
+                Card sub = visit(group.getSubOp(), bound);
+                Set<Var> vars = new HashSet<>(group.getGroupVars().getVars());
+                group.getAggregators().forEach(aggregator -> vars.add(aggregator.getVar()));
+                double rows = group.getGroupVars().isEmpty() ? 1 : sub.rows;
+                return new Card(rows, sub.cost + sub.rows, vars, Set.of(), false);
+            }
+            if (op instanceof OpProject project) {
+                Card sub = visit(project.getSubOp(), bound);
+                return new Card(sub.rows, sub.cost, new HashSet<>(project.getVars()), sub.anyObject, sub.streaming);
+            }
+            if (op instanceof OpExtendAssign extend) {
+                Card sub = visit(extend.getSubOp(), bound);
+                Set<Var> vars = new HashSet<>(sub.vars);
+                vars.addAll(extend.getVarExprList().getVars());
+                return new Card(sub.rows, sub.cost + sub.rows, vars, sub.anyObject, sub.streaming);
+            }
+            if (op instanceof OpTable table) {
+                double rows = table.isJoinIdentity() ? 1 : table.getTable().size();
+                return new Card(rows, rows, new HashSet<>(table.getTable().getVars()), Set.of(), true);
+            }
+            if (op instanceof OpService) return new Card(SERVICE_ROWS, SERVICE_ROWS, Set.of(), Set.of(), true);
+            if (op instanceof Op1 op1) return visit(op1.getSubOp(), bound);
+            if (op instanceof Op2 op2) {
+                // MINUS și celelalte operații binare păstrează partea stângă, dar evaluează ambele părți
+                Card left = visit(op2.getLeft(), bound);
+                Card right = visit(op2.getRight(), bound);
+                return new Card(left.rows, left.cost + right.cost, left.vars, left.anyObject, false);
+            }
+            if (op instanceof OpN opN) return union(opN.getElements(), bound);
+            return new Card(1, 1, Set.of(), Set.of(), true);
+        }
+
+        // Tiparele unui bloc, în ordinea în care le-ar lega un optimizator: întâi cele conectate la ce e deja
+        // legat, dintre ele cel mai selectiv. Un tipar fără nicio variabilă comună înmulțește rezultatele
+        Card patterns(List<Triple> triples, Set<Var> bound) {
+            Set<Var> vars = new HashSet<>(bound);
+            Set<Var> anyObject = new HashSet<>();
+            List<Triple> remaining = new ArrayList<>(triples);
+            double rows = 1;
+            double cost = 0;
+            while (!remaining.isEmpty()) {
+                Triple best = null;
+                boolean bestConnected = false;
+                double bestFanout = 0;
+                for (Triple triple : remaining) {
+                    boolean connected = vars.isEmpty() || connected(triple, vars);
+                    double fanout = fanout(triple, vars);
+                    if (best == null || connected && !bestConnected || connected == bestConnected && fanout < bestFanout) {
+                        best = triple;
+                        bestConnected = connected;
+                        bestFanout = fanout;
+                    }
+                }
+                remaining.remove(best);
+                if (!bestConnected && rows > 1 && bestFanout > 1) {
+                    problems.add("Cartesian product: " + FmtUtils.stringForTriple(best, prologue.getPrefixMapping()) + " shares no variable with the "
+                            + "patterns before it (" + format(rows) + " x " + format(bestFanout) + " rows).");
+                }
+                cost += rows;
+                rows *= bestFanout;
+                cost += rows;
+                addVars(best, vars);
+                if (best.getPredicate().isVariable() && best.getObject().isVariable()) {
+                    anyObject.add(Var.alloc(best.getObject()));
+                }
+            }
+            vars.removeAll(bound);
+            return new Card(rows, cost, vars, anyObject, true);
+        }
+
+        // Câte triple se potrivesc pentru o legare, după statisticile predicatului și pozițiile deja legate
+        double fanout(Triple triple, Set<Var> vars) {
+            Node predicate = triple.getPredicate();
+            PredicateStats.Predicate stat;
+            if (predicate.isVariable()) {
+                stat = stats.total();
+            } else if (predicate.isURI() && PropertyFunctionRegistry.get().isRegistered(predicate.getURI())) {
+                return PROPERTY_FUNCTION_ROWS;
+            } else {
+                stat = stats.get(predicate);
+                if (stat == null) return 0;
+            }
+            return matches(stat, triple.getSubject(), triple.getObject(), vars);
+        }
+
+        // O constantă contează cât frecvența ei, o variabilă legată într-un join cât media ponderată cu frecvența;
+        // subiectul și obiectul legate împreună sunt presupuse independente
+        private static double matches(PredicateStats.Predicate stat, Node subject, Node object, Set<Var> vars) {
+            double rows = stat.triples();
+            if (rows == 0) return 0;
+            if (isBound(subject, vars)) {
+                rows *= (subject.isVariable() ? stat.perJoinedSubject() : stat.withSubject(subject)) / stat.triples();
+            }
+            if (isBound(object, vars)) {
+                rows *= (object.isVariable() ? stat.perJoinedObject() : stat.withObject(object)) / stat.triples();
+            }
+            return rows;
+        }
+
+        Card path(TriplePath triplePath, Set<Var> bound) {
+            Set<Var> vars = new HashSet<>(bound);
+            Node subject = triplePath.getSubject();
+            Node object = triplePath.getObject();
+
+            double rows;
+            boolean transitive;
+            if (triplePath.getPath() instanceof P_Link link) {
+                // Un singur predicat: constantele își folosesc frecvența exactă, ca la un tipar obișnuit
+                PredicateStats.Predicate stat = stats.get(link.getNode());
+                rows = stat == null ? 0 : matches(stat, subject, object, vars);
+                transitive = false;
+            } else {
+                // Un drum nu găsește mai multe capete decât noduri are graful
+                double nodes = stats.total().triples();
+                Steps steps = steps(triplePath.getPath());
+                steps = new Steps(Math.min(steps.pairs, nodes * nodes), Math.min(steps.forward, nodes),
+                        Math.min(steps.backward, nodes), steps.transitive);
+                boolean from = isBound(subject, vars);
+                boolean to = isBound(object, vars);
+                rows = from && to ? (steps.pairs == 0 ? 0 : Math.min(1, steps.forward * steps.backward / steps.pairs))
+                        : from ? steps.forward
+                        : to ? steps.backward
+                        : steps.pairs;
+                transitive = steps.transitive;
+                if (transitive && !from && !to) {
+                    problems.add("Transitive path " + FmtUtils.stringForNode(subject, prologue) + " "
+                            + PathWriter.asString(triplePath.getPath(), prologue) + " "
+                            + FmtUtils.stringForNode(object, prologue) + " has both ends unbound.");
+                }
+            }
+            if (subject.isVariable()) vars.add(Var.alloc(subject));
+            if (object.isVariable()) vars.add(Var.alloc(object));
+            vars.removeAll(bound);
+            return new Card(rows, 1 + rows, vars, Set.of(), true);
+        }
+
+        // Un drum rezumat din statisticile predicatelor lui: perechile (început, sfârșit) găsite cu ambele capete
+        // libere, rezultatele pentru un început legat (forward) și pentru un sfârșit legat (backward).
+        // "transitive" = drumul conține o repetiție nelimitată (p*, p+, p{n,})
+        private record Steps(double pairs, double forward, double backward, boolean transitive) {
+
+            Steps inverse() {
+                return new Steps(pairs, backward, forward, transitive);
+            }
+
+            // "this" urmat de "next": fiecare pas se aplică rezultatelor celui dinainte. Perechile se pot număra
+            // pornind din oricare capăt; ambele sunt margini de sus, așa că o păstrăm pe cea mai mică (și drumul
+            // invers primește aceeași estimare)
+            Steps then(Steps next) {
+                return new Steps(Math.min(pairs * next.forward, backward * next.pairs),
+                        forward * next.forward, backward * next.backward,
+                        transitive || next.transitive);
+            }
+
+            Steps or(Steps other) {
+                return new Steps(pairs + other.pairs, forward + other.forward, backward + other.backward,
+                        transitive || other.transitive);
+            }
+
+            // Între "min" și "max" repetiții (max < 0 = nelimitat, aproximat cu PATH_DEPTH niveluri)
+            Steps repeat(long min, long max) {
+                long depth = Math.min(MAX_REPEAT, max < 0 ? Math.max(min, (long) PATH_DEPTH) : max);
+                Steps identity = new Steps(0, 1, 1, false);
+                Steps result = min == 0 ? identity : null;
+                Steps level = this;
+                for (long k = 1; k <= depth; k++) {
+                    if (k > 1) level = level.then(this);
+                    if (k >= Math.min(min, depth)) result = result == null ? level : result.or(level);
+                }
+                if (result == null) result = identity;
+                return new Steps(result.pairs, result.forward, result.backward, transitive || max < 0);
+            }
+        }
+
+        private Steps steps(Path path) {
+            if (path instanceof P_Link link) return steps(stats.get(link.getNode()));
+            if (path instanceof P_ReverseLink link) return steps(stats.get(link.getNode())).inverse();
+            if (path instanceof P_Inverse inverse) return steps(inverse.getSubPath()).inverse();
+            if (path instanceof P_Seq seq) return steps(seq.getLeft()).then(steps(seq.getRight()));
+            if (path instanceof P_Alt alt) return steps(alt.getLeft()).or(steps(alt.getRight()));
+            if (path instanceof P_ZeroOrOne zeroOrOne) return steps(zeroOrOne.getSubPath()).repeat(0, 1);
+            if (path instanceof P_ZeroOrMore1 || path instanceof P_ZeroOrMoreN) {
+                return steps(((P_Path1) path).getSubPath()).repeat(0, -1);
+            }
+            if (path instanceof P_OneOrMore1 || path instanceof P_OneOrMoreN) {
+                return steps(((P_Path1) path).getSubPath()).repeat(1, -1);
+            }
+            if (path instanceof P_Mod mod) {
+                return steps(mod.getSubPath()).repeat(Math.max(0, mod.getMin()), mod.getMax());
+            }
+            if (path instanceof P_FixedLength fixed) return steps(fixed.getSubPath()).repeat(fixed.getCount(), fixed.getCount());
+            if (path instanceof P_Path1 path1) return steps(path1.getSubPath());
+            // Mulțimi negate (!p): orice predicat
+            return steps(stats.total());
+        }
+
+        private static Steps steps(PredicateStats.Predicate stat) {
+            if (stat == null || stat.triples() == 0) return new Steps(0, 0, 0, false);
+            return new Steps(stat.triples(), stat.perJoinedSubject(), stat.perJoinedObject(), false);
+        }
+
+        Card filter(OpFilter filter, Set<Var> bound) {
+            Card sub = visit(filter.getSubOp(), bound);
+            double rows = sub.rows;
+            double cost = sub.cost;
+            for (Expr expr : filter.getExprs()) {
+                boolean regex = false;
+                for (Var var : regexTargets(expr)) {
+                    regex = true;
+                    if (sub.anyObject.contains(var)) {
+                        problems.add("Unbounded regex: FILTER " + ExprUtils.fmtSPARQL(expr)
+                                + " is tested against every literal bound to ?" + var.getVarName()
+                                + " by a pattern with a variable predicate (" + format(sub.rows) + " values).");
+                    }
+                }
+                cost += rows * (regex ? REGEX_COST : 1);
+                rows *= FILTER_SELECTIVITY;
+            }
+            return new Card(rows, cost, sub.vars, sub.anyObject, sub.streaming);
+        }
+
+        // Variabilele testate cu regex / CONTAINS / STRSTARTS / STRENDS (direct sau prin STR, LCASE, ...)
+        private static Set<Var> regexTargets(Expr expr) {
+            Set<Var> vars = new HashSet<>();
+            Walker.walk(expr, new ExprVisitorBase() {
+                @Override
+                public void visit(ExprFunction2 func) {
+                    if (func instanceof E_StrContains || func instanceof E_StrStartsWith || func instanceof E_StrEndsWith) {
+                        vars.addAll(func.getArg1().getVarsMentioned());
+                    }
+                }
+
+                @Override
+                public void visit(ExprFunctionN func) {
+                    if (func instanceof E_Regex) vars.addAll(func.getArg(1).getVarsMentioned());
+                }
+            });
+            return vars;
+        }
+
+        // Partea dreaptă se evaluează pentru fiecare legare din stânga, cu variabilele ei deja legate
+        Card sequence(List<Op> elements, Set<Var> bound) {
+            Card result = null;
+            for (Op element : elements) {
+                result = result == null ? visit(element, bound) : then(result, element, bound, false);
+            }
+            return result == null ? new Card(1, 1, Set.of(), Set.of(), true) : result;
+        }
+
+        // Jena transformă un JOIN cu variabile comune într-o secvență; fără variabile comune e un produs cartezian
+        Card join(Op leftOp, Op rightOp, Set<Var> bound) {
+            Card left = visit(leftOp, bound);
+            Card right = visit(rightOp, bound);
+            if (!Collections.disjoint(left.vars, right.vars)) return then(left, rightOp, bound, false);
+            if (left.rows > 1 && right.rows > 1) {
+                problems.add("Cartesian product: two groups share no variable (" + format(left.rows) + " x "
+                        + format(right.rows) + " rows).");
+            }
+            return new Card(left.rows * right.rows, left.cost + right.cost + left.rows * right.rows,
+                    union(left.vars, right.vars), union(left.anyObject, right.anyObject), left.streaming && right.streaming);
+        }
+
+        Card optional(Op leftOp, Op rightOp, Set<Var> bound) {
+            return then(visit(leftOp, bound), rightOp, bound, true);
+        }
+
+        private Card then(Card left, Op rightOp, Set<Var> bound, boolean optional) {
+            Card right = visit(rightOp, union(bound, left.vars));
+            double fanout = optional ? Math.max(1, right.rows) : right.rows;
+            return new Card(left.rows * fanout, left.cost + left.rows * right.cost,
+                    union(left.vars, right.vars), union(left.anyObject, right.anyObject), left.streaming && right.streaming);
+        }
+
+        Card union(List<Op> elements, Set<Var> bound) {
+            double rows = 0;
+            double cost = 0;
+            Set<Var> vars = new HashSet<>();
+            Set<Var> anyObject = new HashSet<>();
+            boolean streaming = true;
+            for (Op element : elements) {
+                Card card = visit(element, bound);
+                rows += card.rows;
+                cost += card.cost;
+                vars.addAll(card.vars);
+                anyObject.addAll(card.anyObject);
+                streaming &= card.streaming;
+            }
+            return new Card(rows, cost, vars, anyObject, streaming);
+        }
+
+        // LIMIT: dacă rezultatele ies în flux, evaluarea se oprește după primele start + length
+        Card slice(Card sub, long start, long length) {
+            double needed = (double) start + length;
+            double cost = sub.streaming && sub.rows > needed ? sub.cost * needed / sub.rows : sub.cost;
+            double rows = Math.min(length, Math.max(0, sub.rows - start));
+            return new Card(rows, cost, sub.vars, sub.anyObject, sub.streaming);
+        }
+
+        private static boolean connected(Triple triple, Set<Var> vars) {
+            return isBound(triple.getSubject(), vars) && triple.getSubject().isVariable()
+                    || isBound(triple.getPredicate(), vars) && triple.getPredicate().isVariable()
+                    || isBound(triple.getObject(), vars) && triple.getObject().isVariable()
+                    || !triple.getSubject().isVariable() && !triple.getPredicate().isVariable() && !triple.getObject().isVariable();
+        }
+
+        private static boolean isBound(Node node, Set<Var> vars) {
+            return !node.isVariable() || vars.contains(Var.alloc(node));
+        }
+
+        private static void addVars(Triple triple, Set<Var> vars) {
+            for (Node node : List.of(triple.getSubject(), triple.getPredicate(), triple.getObject())) {
+                if (node.isVariable()) vars.add(Var.alloc(node));
+            }
+        }
+
+        private static <T> Set<T> union(Set<T> a, Set<T> b) {
+            Set<T> result = new HashSet<>(a);
+            result.addAll(b);
+            return result;
+        }
+    }
+
+    static String format(double value) {
+        return String.format(Locale.ROOT, "%,.0f", value);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.backend.service;
+
+import com.example.backend.config.KnowledgeGraph;
+import com.example.backend.repository.SearchIndex;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+@Service
+public class SearchService {
+
+    private final SearchIndex index;
+    private final KnowledgeGraph graph;
+
+    public SearchService(SearchIndex index, KnowledgeGraph graph) {
+        this.index = index;
+        this.graph = graph;
+    }
+
+    public boolean isEnabled() {
+        return index.isEnabled();
+    }
+
+    public SearchIndex.Page search(String query, String type, String domain, int page, int pageSize) throws IOException {
+        int offset = (page - 1) * pageSize;
+        if (offset < 0) offset = 0;
+
+        return index.search(graph.current(), query, type, domain, offset, pageSize);
+    }
+}
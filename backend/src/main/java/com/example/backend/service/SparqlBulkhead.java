@@ -0,0 +1,121 @@
+package com.example.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Compartiment separat pentru interogările libere din /sparql: un număr fix de fire proprii și o coadă
+// limitată, plus o limită de interogări simultane per client. Firele Tomcat doar așteaptă rezultatul, așa că
+// o rafală de interogări grele ocupă cel mult aceste fire și nu încetinește paginile și restul API-ului.
+// Când coada e plină (sau clientul are deja prea multe interogări) cererea este respinsă imediat.
+@Component
+public class SparqlBulkhead {
+
+    @Value("${arp.sparql.bulkhead.threads:4}")
+    private int threads;
+
+    @Value("${arp.sparql.bulkhead.queue:16}")
+    private int queue;
+
+    @Value("${arp.sparql.bulkhead.per-client:2}")
+    private int perClient;
+
+    @Value("${arp.sparql.bulkhead.retry-after:PT5S}")
+    private Duration retryAfter;
+
+    private ThreadPoolExecutor executor;
+
+    // Interogările fiecărui client, în execuție sau în coadă
+    private final ConcurrentHashMap<String, Integer> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedPerClient = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queue),
+                task -> {
+                    Thread thread = new Thread(task, "sparql-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    // Rulează "task" pe firele compartimentului și așteaptă rezultatul; RejectedException dacă nu este loc
+    public <T> T run(String client, Callable<T> task) throws InterruptedException {
+        boolean[] admitted = {false};
+        inFlight.compute(client, (key, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= perClient) return count;
+            admitted[0] = true;
+            return current + 1;
+        });
+        if (!admitted[0]) {
+            rejectedPerClient.increment();
+            throw new RejectedException(true, retryAfter);
+        }
+
+        try {
+            Future<T> future;
+            try {
+                future = executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                rejectedQueueFull.increment();
+                throw new RejectedException(false, retryAfter);
+            }
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                throw e;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                if (e.getCause() instanceof Error error) throw error;
+                throw new IllegalStateException(e.getCause());
+            }
+        } finally {
+            inFlight.computeIfPresent(client, (key, count) -> count <= 1 ? null : count - 1);
+        }
+    }
+
+    // Ocuparea compartimentului și respingerile de la pornire
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threads", threads);
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queue);
+        stats.put("perClientLimit", perClient);
+        stats.put("clients", inFlight.size());
+        stats.put("completed", executor.getCompletedTaskCount());
+        stats.put("rejectedQueueFull", rejectedQueueFull.sum());
+        stats.put("rejectedPerClient", rejectedPerClient.sum());
+        return stats;
+    }
+
+    public static class RejectedException extends RuntimeException {
+
+        // true = limita clientului (429), false = coada plină (503)
+        public final boolean perClient;
+        public final Duration retryAfter;
+
+        RejectedException(boolean perClient, Duration retryAfter) {
+            super(perClient ? "Too many concurrent queries from this client." : "SPARQL query queue is full.");
+            this.perClient = perClient;
+            this.retryAfter = retryAfter;
+        }
+    }
+}
@@ -104,13 +104,34 @@ async function runQuery() {
             method: "POST",
             headers: {
                 "Content-Type": "text/plain",
-                "Accept": "application/sparql-results+json"
+                // SELECT / ASK ca tabel, CONSTRUCT / DESCRIBE ca Turtle
+                "Accept": "application/sparql-results+json, text/turtle;q=0.9"
             },
             body: query
         });
 
+        if ((response.headers.get("Content-Type") || "").startsWith("text/turtle")) {
+            resultContainer.innerHTML = "<pre></pre>";
+            resultContainer.firstChild.textContent = await response.text();
+            return;
+        }
         const json = await response.json();
+        if (json.error) {
+            resultContainer.innerHTML = "<p style='color:red'></p>";
+            resultContainer.firstChild.textContent = "Error: " + json.error;
+            return;
+        }
         renderTable(json);
+
+        // Serverul oprește rezultatul la X-Result-Row-Cap rânduri sau la expirarea timpului și o spune în "truncated"
+        const cap = parseInt(response.headers.get("X-Result-Row-Cap"), 10);
+        if (json.truncated === "row-cap") {
+            resultContainer.insertAdjacentHTML("afterbegin",
+                "<p style='color:orange'>Showing the first " + cap + " rows only; add a LIMIT or narrow the query.</p>");
+        } else if (json.truncated === "timeout") {
+            resultContainer.insertAdjacentHTML("afterbegin",
+                "<p style='color:orange'>The query timed out; showing the rows found until then.</p>");
+        }
     } catch (err) {
         resultContainer.innerHTML = "<p style='color:red'>Error: " + err.message + "</p>";
     } finally {
@@ -119,6 +140,10 @@ async function runQuery() {
 }
 
 function renderTable(data) {
+    if (typeof data.boolean === "boolean") {
+        document.getElementById("result").innerHTML = "<p>" + data.boolean + "</p>";
+        return;
+    }
     const vars = data.head.vars;
     const bindings = data.results.bindings;
 
@@ -1,17 +1,109 @@
 document.addEventListener("DOMContentLoaded", function () {
     const form = document.getElementById("artistForm");
-    const select = document.getElementById("artistSelect");
+    const input = document.getElementById("artistInput");
+    const list = document.getElementById("artistSuggestions");
 
     const domainInput = document.getElementById("domainInput");
+    const domainValue = domainInput ? domainInput.value : 'ro';
 
-    form.addEventListener("submit", function (e) {
+    let suggestions = [];
+    let active = -1;
+    let timer = null;
+    let lastQuery = "";
+    // Textul pentru care au sosit sugestiile afișate (lastQuery e cel cerut ultima dată, poate încă în curs)
+    let suggestionsQuery = "";
+
+    function openArtist(artist) {
+        window.location.href = `/artists/${artist.id}/artworks?domain=${domainValue}`;
+    }
+
+    function render() {
+        list.innerHTML = "";
+        suggestions.forEach((artist, i) => {
+            const li = document.createElement("li");
+            li.textContent = artist.name;
+            li.setAttribute("role", "option");
+            if (i === active) li.classList.add("active");
+            // mousedown, ca să nu pierdem focusul înainte de click
+            li.addEventListener("mousedown", (e) => {
+                e.preventDefault();
+                openArtist(artist);
+            });
+            list.appendChild(li);
+        });
+        list.hidden = suggestions.length === 0;
+        input.setAttribute("aria-expanded", String(!list.hidden));
+    }
+
+    async function fetchSuggestions(query) {
+        lastQuery = query;
+        if (!query) {
+            suggestions = [];
+            suggestionsQuery = query;
+            render();
+            return;
+        }
+        try {
+            const response = await fetch(`/api/artists/suggest?q=${encodeURIComponent(query)}&domain=${domainValue}`);
+            if (!response.ok) return;
+            const data = await response.json();
+            // Un răspuns întârziat pentru un text mai vechi nu mai e relevant
+            if (query !== lastQuery) return;
+            suggestions = data.artists || [];
+            suggestionsQuery = query;
+            active = -1;
+            render();
+        } catch (e) {
+            console.error("Artist suggestions failed:", e);
+        }
+    }
+
+    input.addEventListener("input", function () {
+        clearTimeout(timer);
+        const query = input.value.trim();
+        timer = setTimeout(() => fetchSuggestions(query), 120);
+    });
+
+    input.addEventListener("keydown", function (e) {
+        if (list.hidden) return;
+        if (e.key === "ArrowDown") {
+            e.preventDefault();
+            active = (active + 1) % suggestions.length;
+            render();
+        } else if (e.key === "ArrowUp") {
+            e.preventDefault();
+            active = (active - 1 + suggestions.length) % suggestions.length;
+            render();
+        } else if (e.key === "Escape") {
+            suggestions = [];
+            render();
+        }
+    });
+
+    input.addEventListener("blur", function () {
+        list.hidden = true;
+        input.setAttribute("aria-expanded", "false");
+    });
+
+    input.addEventListener("focus", function () {
+        if (suggestions.length > 0) render();
+    });
+
+    form.addEventListener("submit", async function (e) {
         e.preventDefault();
 
-        const artistId = select.value;
-        if (!artistId) return;
+        // Enter apăsat înainte de debounce sau de răspuns: sugestiile afișate sunt pentru textul vechi
+        const query = input.value.trim();
+        if (query !== suggestionsQuery) {
+            clearTimeout(timer);
+            await fetchSuggestions(query);
+            if (input.value.trim() !== query || suggestionsQuery !== query) return;
+        }
 
-        const domainValue = domainInput ? domainInput.value : 'ro';
+        // Enter alege sugestia selectată sau, dacă nu e niciuna, prima
+        const artist = suggestions[active >= 0 ? active : 0];
+        if (!artist) return;
 
-        window.location.href = `/artists/${artistId}/artworks?domain=${domainValue}`;
+        openArtist(artist);
     });
-});
\ No newline at end of file
+});
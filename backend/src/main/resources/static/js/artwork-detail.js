@@ -1,10 +1,13 @@
 document.addEventListener("DOMContentLoaded", function() {
-    initWrapperState('rec-wrapper-artist');
-    initWrapperState('rec-wrapper-museum');
-    initWrapperState('rec-wrapper-category');
+    initWrapperState('rec-wrapper-artist', 'artist');
+    initWrapperState('rec-wrapper-museum', 'museum');
+    initWrapperState('rec-wrapper-category', 'category');
 });
 
-function initWrapperState(wrapperId) {
+// Paginile deja cerute, per carusel: wrapperId -> (offset -> Promise<html>)
+const recPageCache = new Map();
+
+function initWrapperState(wrapperId, type) {
     const wrapper = document.getElementById(wrapperId);
     if (!wrapper) return;
 
@@ -16,49 +19,72 @@ function initWrapperState(wrapperId) {
         const itemsCount = grid.querySelectorAll('.rec-card').length;
         if (nextBtn && itemsCount < limit) {
             nextBtn.disabled = true;
+        } else {
+            prefetchNextPage(wrapper, type, 0);
         }
     }
 }
 
+function fetchRecommendationPage(wrapper, type, offset) {
+    let pages = recPageCache.get(wrapper.id);
+    if (!pages) {
+        pages = new Map();
+        recPageCache.set(wrapper.id, pages);
+    }
+    if (pages.has(offset)) return pages.get(offset);
+
+    const uri = wrapper.getAttribute('data-uri');
+    const domain = wrapper.getAttribute('data-domain');
+    const limit = parseInt(wrapper.getAttribute('data-limit'));
+
+    const url = `/artworks/recommendations-fragment?uri=${encodeURIComponent(uri)}&type=${type}&offset=${offset}&limit=${limit}&domain=${domain}`;
+
+    const page = fetch(url).then(response => {
+        if (!response.ok) throw new Error('Network response was not ok');
+        return response.text();
+    });
+    // O cerere eșuată nu rămâne în cache, ca să poată fi reîncercată
+    page.catch(() => pages.delete(offset));
+    pages.set(offset, page);
+    return page;
+}
+
+// Cere în fundal pagina următoare; dacă e goală, butonul "înainte" se dezactivează
+function prefetchNextPage(wrapper, type, offset) {
+    const limit = parseInt(wrapper.getAttribute('data-limit'));
+    const nextOffset = offset + limit;
+
+    fetchRecommendationPage(wrapper, type, nextOffset)
+        .then(html => {
+            if (parseInt(wrapper.getAttribute('data-offset')) !== offset) return;
+            const nextBtn = wrapper.querySelector('.next-btn');
+            const grid = new DOMParser().parseFromString(html, "text/html").querySelector('.rec-grid');
+            if (nextBtn && grid && grid.querySelectorAll('.rec-card').length === 0) {
+                nextBtn.disabled = true;
+            }
+        })
+        .catch(() => {});
+}
+
 function changeRecommendationPage(direction, wrapperId, type) {
     const wrapper = document.getElementById(wrapperId);
     if (!wrapper) return;
 
-    const uri = wrapper.getAttribute('data-uri');
-    const domain = wrapper.getAttribute('data-domain');
     const limit = parseInt(wrapper.getAttribute('data-limit'));
     let currentOffset = parseInt(wrapper.getAttribute('data-offset'));
 
     let newOffset = currentOffset + (direction * limit);
     if (newOffset < 0) newOffset = 0;
 
-    const url = `/artworks/recommendations-fragment?uri=${encodeURIComponent(uri)}&offset=${newOffset}&limit=${limit}&domain=${domain}`;
-
-    fetch(url)
-        .then(response => {
-            if (!response.ok) throw new Error('Network response was not ok');
-            return response.text();
-        })
+    fetchRecommendationPage(wrapper, type, newOffset)
         .then(html => {
             const parser = new DOMParser();
             const doc = parser.parseFromString(html, "text/html");
-
-            let newContent = "";
-
-            if (type === 'artist') {
-                const source = doc.getElementById('ajax-source-artist');
-                if (source) newContent = source.innerHTML;
-            } else if (type === 'museum') {
-                const source = doc.getElementById('ajax-source-museum');
-                if (source) newContent = source.innerHTML;
-            } else if (type === 'category') {
-                const source = doc.getElementById('ajax-source-category');
-                if (source) newContent = source.innerHTML;
-            }
+            const source = doc.querySelector('.rec-grid');
 
             const oldGrid = wrapper.querySelector('.rec-grid');
-            if (oldGrid && newContent) {
-                oldGrid.outerHTML = newContent;
+            if (oldGrid && source) {
+                oldGrid.outerHTML = source.outerHTML;
             }
 
             wrapper.setAttribute('data-offset', newOffset);
@@ -72,6 +98,9 @@ function changeRecommendationPage(direction, wrapperId, type) {
             if (newGrid && nextBtn) {
                 const itemsCount = newGrid.querySelectorAll('.rec-card').length;
                 nextBtn.disabled = (itemsCount < limit);
+                if (itemsCount === limit) {
+                    prefetchNextPage(wrapper, type, newOffset);
+                }
             }
         })
         .catch(error => console.error('Error:', error));
@@ -0,0 +1,88 @@
+package com.example.backend.config;
+
+import com.example.backend.repository.ArtistSuggestIndex;
+
+import java.util.*;
+
+// Sugestiile de artiști (trie compact) pe liste sintetice de nume "Nume, Prenume" cu diacritice:
+// construirea trie-ului și latența unei interogări pentru prefixe de 1-8 caractere,
+// comparate cu filtrarea listei complete (ce făcea pagina /artists cu lista din <select>).
+// Rulare: java -Xmx2g -cp target/test-classes:target/classes:... com.example.backend.config.ArtistSuggestBenchmark 10000 100000
+public class ArtistSuggestBenchmark {
+
+    private static final int QUERIES = 20_000;
+    private static final String[] SYLLABLES = {"ba", "brân", "cu", "și", "gri", "go", "res", "cu", "lu", "chian",
+            "pal", "ady", "tă", "ți", "ma", "ri", "an", "ton", "nes", "scu", "ve", "la", "mir", "cea", "ște"};
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{10_000, 100_000};
+
+        for (int size : sizes) {
+            Random random = new Random(42);
+            String[] uris = new String[size];
+            String[] names = new String[size];
+            int[] artworks = new int[size];
+            List<List<String>> variants = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                uris[i] = String.format("http://arp.ro/resource/agent/S%07d", i);
+                names[i] = capitalize(word(random, 2 + random.nextInt(2))) + ", " + capitalize(word(random, 2));
+                artworks[i] = (int) Math.pow(200, random.nextDouble());
+                variants.add(List.of(names[i]));
+            }
+
+            long start = System.currentTimeMillis();
+            ArtistSuggestIndex.Domain index = new ArtistSuggestIndex.Domain(uris, names, artworks, variants);
+            long buildMillis = System.currentTimeMillis() - start;
+            System.out.printf("%n== %d artiști: trie în %d ms, %d noduri%n", size, buildMillis, index.nodes());
+
+            String[] prefixes = new String[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                String name = names[random.nextInt(size)];
+                // Jumătate din interogări încep cu prenumele, ca atunci când utilizatorul scrie "Prenume Nume"
+                if (random.nextBoolean()) name = name.substring(name.indexOf(", ") + 2) + " " + name.substring(0, name.indexOf(','));
+                prefixes[i] = name.substring(0, Math.min(name.length(), 1 + random.nextInt(8)));
+            }
+
+            for (int i = 0; i < 5_000; i++) index.suggest(prefixes[i % QUERIES], 10); // încălzire
+            long[] nanos = new long[QUERIES];
+            int empty = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                long t = System.nanoTime();
+                int[] found = index.suggest(prefixes[i], 10);
+                nanos[i] = System.nanoTime() - t;
+                if (found.length == 0) empty++;
+            }
+            Arrays.sort(nanos);
+            System.out.printf("  trie top-10:     p50 %6.1f µs, p99 %6.1f µs (%d interogări, %d fără rezultat)%n",
+                    nanos[QUERIES / 2] / 1e3, nanos[QUERIES * 99 / 100] / 1e3, QUERIES, empty);
+
+            // Referința: normalizarea și filtrarea tuturor numelor la fiecare interogare
+            int scans = 200;
+            start = System.nanoTime();
+            for (int i = 0; i < scans; i++) {
+                String q = ArtistSuggestIndex.normalize(prefixes[i]);
+                int hits = 0;
+                for (String name : names) {
+                    for (String key : ArtistSuggestIndex.keys(name)) {
+                        if (key.startsWith(q)) {
+                            hits++;
+                            break;
+                        }
+                    }
+                }
+                if (hits < 0) System.out.println(hits);
+            }
+            System.out.printf("  filtrare listă:  %8.1f µs / interogare%n", (System.nanoTime() - start) / 1e3 / scans);
+        }
+    }
+
+    private static String word(Random random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int s = 0; s < syllables; s++) word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        return word.toString();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.backend.config;
+
+import com.example.backend.config.DateNormalizer.YearRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.Year;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DateNormalizerTest {
+
+    @Test
+    void yearsAndYearRanges() {
+        assertThat(DateNormalizer.parse("1890")).isEqualTo(new YearRange(1890, 1890));
+        assertThat(DateNormalizer.parse("+1890-00-00T00:00:00Z")).isEqualTo(new YearRange(1890, 1890));
+        assertThat(DateNormalizer.parse("c. 1900-1910")).isEqualTo(new YearRange(1900, 1910));
+        assertThat(DateNormalizer.parse("1900-10")).isEqualTo(new YearRange(1900, 1910));
+        assertThat(DateNormalizer.parse("12.05.1890")).isEqualTo(new YearRange(1890, 1890));
+        assertThat(DateNormalizer.parse("1890s")).isEqualTo(new YearRange(1890, 1899));
+        assertThat(DateNormalizer.parse("anii 1930")).isEqualTo(new YearRange(1930, 1939));
+    }
+
+    @Test
+    void centuriesAndQualifiers() {
+        assertThat(DateNormalizer.parse("sec. XIX")).isEqualTo(new YearRange(1801, 1900));
+        assertThat(DateNormalizer.parse("19th century")).isEqualTo(new YearRange(1801, 1900));
+        assertThat(DateNormalizer.parse("secolele XVIII-XIX")).isEqualTo(new YearRange(1701, 1900));
+        assertThat(DateNormalizer.parse("a doua jumătate a sec. XVIII")).isEqualTo(new YearRange(1751, 1800));
+        assertThat(DateNormalizer.parse("sec. XIX, prima jumătate")).isEqualTo(new YearRange(1801, 1850));
+        assertThat(DateNormalizer.parse("prima jum. a sec. XVIII")).isEqualTo(new YearRange(1701, 1750));
+        assertThat(DateNormalizer.parse("mij. sec. XIX")).isEqualTo(new YearRange(1834, 1867));
+        assertThat(DateNormalizer.parse("sf. sec. XIX")).isEqualTo(new YearRange(1868, 1900));
+        assertThat(DateNormalizer.parse("inc. sec. XX")).isEqualTo(new YearRange(1901, 1933));
+        assertThat(DateNormalizer.parse("late 19th century")).isEqualTo(new YearRange(1868, 1900));
+        // "inc" doar ca prescurtare, nu în interiorul altor cuvinte
+        assertThat(DateNormalizer.parse("incizie, sec. XIX")).isEqualTo(new YearRange(1801, 1900));
+    }
+
+    @Test
+    void rangesBetweenQualifiedCenturies() {
+        assertThat(DateNormalizer.parse("sf. sec. XIX - inc. sec. XX")).isEqualTo(new YearRange(1868, 1933));
+        assertThat(DateNormalizer.parse("sfârșitul sec. XIX - începutul sec. XX")).isEqualTo(new YearRange(1868, 1933));
+        assertThat(DateNormalizer.parse("late 19th century - early 20th century")).isEqualTo(new YearRange(1868, 1933));
+        assertThat(DateNormalizer.parse("sec. XVIII - a doua jumătate a sec. XIX")).isEqualTo(new YearRange(1701, 1900));
+    }
+
+    @Test
+    void beforeChrist() {
+        assertThat(DateNormalizer.parse("sec. II î.Hr.")).isEqualTo(new YearRange(-200, -101));
+        assertThat(DateNormalizer.parse("sf. sec. II î.Hr.")).isEqualTo(new YearRange(-133, -101));
+        assertThat(DateNormalizer.parse("100 î.Hr.")).isEqualTo(new YearRange(-100, -100));
+        assertThat(DateNormalizer.parse("-0100")).isEqualTo(new YearRange(-100, -100));
+    }
+
+    @Test
+    void rangesEndingAfterThisYearAreCapped() {
+        int now = Year.now().getValue();
+        assertThat(DateNormalizer.parse("sec. XXI")).isEqualTo(new YearRange(2001, now));
+        assertThat(DateNormalizer.parse("21st century")).isEqualTo(new YearRange(2001, now));
+        assertThat(DateNormalizer.parse("2020s")).isEqualTo(new YearRange(2020, Math.min(2029, now)));
+    }
+
+    @Test
+    void unrecognisedOrFutureDatingsAreRejected() {
+        assertThat(DateNormalizer.parse(null)).isNull();
+        assertThat(DateNormalizer.parse(" ")).isNull();
+        assertThat(DateNormalizer.parse("necunoscută")).isNull();
+        assertThat(DateNormalizer.parse("3183")).isNull();
+        assertThat(DateNormalizer.parse("sec. XXV")).isNull();
+    }
+
+    @Test
+    void gYearLexicalForm() {
+        assertThat(DateNormalizer.gYear(1890)).isEqualTo("1890");
+        assertThat(DateNormalizer.gYear(800)).isEqualTo("0800");
+        assertThat(DateNormalizer.gYear(-100)).isEqualTo("-0100");
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backend.config;
+
+import com.example.backend.repository.FacetIndex;
+import com.example.backend.repository.FacetIndex.Facet;
+import com.example.backend.repository.SparqlTemplates;
+import org.apache.jena.query.*;
+import org.apache.jena.rdf.model.Model;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// Navigarea pe fațete (RoaringBitmap) pe cataloage sintetice: construirea indexului și latența unei cereri
+// (pagina + numărătorile tuturor fațetelor) pentru câteva combinații de filtre. Pe catalogul RDF o comparăm
+// cu interogarea predefinită artworks_count_by_museum, adică un GROUP BY peste tot graful pentru o singură fațetă.
+// Rulare: java -Xmx3g -cp target/test-classes:target/classes:... com.example.backend.config.FacetBenchmark 100000 1000000
+public class FacetBenchmark {
+
+    private static final int QUERIES = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{100_000, 1_000_000};
+
+        int rdfSize = 20_000;
+        Model model = SyntheticCatalog.artworks(rdfSize, 42);
+        long start = System.currentTimeMillis();
+        FacetIndex.Domain fromRdf = FacetIndex.build(new SparqlTemplates(), model);
+        System.out.printf("%n== %d opere din RDF: index în %d ms%n", rdfSize, System.currentTimeMillis() - start);
+        measure(fromRdf, new Random(7), rdfSize / 20, rdfSize / 300, "artist_", "museum_");
+
+        String groupBy;
+        try (InputStream in = FacetBenchmark.class.getResourceAsStream("/predefined-queries/artworks_count_by_museum.sparql")) {
+            groupBy = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Query query = QueryFactory.create(groupBy);
+        long[] nanos = new long[20];
+        for (int i = 0; i < nanos.length; i++) {
+            long t = System.nanoTime();
+            try (QueryExecution qexec = QueryExecutionFactory.create(query, model)) {
+                ResultSetFormatter.consume(qexec.execSelect());
+            }
+            nanos[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("  SPARQL GROUP BY muzeu:        p50 %8.1f ms (o singură fațetă, fără filtre)%n", nanos[nanos.length / 2] / 1e6);
+        model = null;
+
+        for (int size : sizes) {
+            Random random = new Random(42);
+            int artists = Math.max(1, size / 20);
+            int museums = Math.max(1, size / 300);
+            String[] uris = new String[size];
+            for (int i = 0; i < size; i++) uris[i] = String.format("http://arp.ro/resource/artwork/S%07d", i);
+
+            start = System.currentTimeMillis();
+            FacetIndex.Builder builder = new FacetIndex.Builder(uris);
+            for (int id = 0; id < size; id++) {
+                builder.add(id, Facet.ARTIST, "http://arp.ro/resource/agent/artist_" + random.nextInt(artists), null);
+                builder.add(id, Facet.MUSEUM, "http://arp.ro/resource/agent/museum_" + random.nextInt(museums), null);
+                builder.add(id, Facet.LICENSE, "http://creativecommons.org/publicdomain/zero/1.0/", null);
+                builder.addLabel(id, Facet.CATEGORY, SyntheticCatalog.CATEGORIES[random.nextInt(SyntheticCatalog.CATEGORIES.length)]);
+                builder.addLabel(id, Facet.TECHNIQUE, SyntheticCatalog.TECHNIQUES[random.nextInt(SyntheticCatalog.TECHNIQUES.length)]);
+                builder.addLabel(id, Facet.MATERIAL, SyntheticCatalog.MATERIALS[random.nextInt(SyntheticCatalog.MATERIALS.length)]);
+                builder.addLabel(id, Facet.MATERIAL, SyntheticCatalog.MATERIALS[random.nextInt(SyntheticCatalog.MATERIALS.length)]);
+                builder.addLabel(id, Facet.CULTURE, random.nextBoolean() ? "romanian" : "european");
+                builder.year(id, 1500 + random.nextInt(500));
+            }
+            FacetIndex.Domain index = builder.build();
+            System.out.printf("%n== %d opere: index în %d ms%n", size, System.currentTimeMillis() - start);
+            measure(index, new Random(7), artists, museums, "artist_", "museum_");
+        }
+    }
+
+    private static void measure(FacetIndex.Domain index, Random random, int artists, int museums, String artist, String museum) {
+        String agent = "http://arp.ro/resource/agent/";
+        Map<String, java.util.function.Supplier<Map<Facet, List<String>>>> scenarios = new LinkedHashMap<>();
+        scenarios.put("fără filtre", Map::of);
+        scenarios.put("un muzeu", () -> Map.of(Facet.MUSEUM, List.of(agent + museum + random.nextInt(museums))));
+        scenarios.put("categorie + 2 materiale", () -> Map.of(
+                Facet.CATEGORY, List.of(SyntheticCatalog.CATEGORIES[random.nextInt(SyntheticCatalog.CATEGORIES.length)]),
+                Facet.MATERIAL, List.of(SyntheticCatalog.MATERIALS[random.nextInt(SyntheticCatalog.MATERIALS.length)],
+                        SyntheticCatalog.MATERIALS[random.nextInt(SyntheticCatalog.MATERIALS.length)])));
+        scenarios.put("artist + categorie", () -> Map.of(
+                Facet.ARTIST, List.of(agent + artist + random.nextInt(artists)),
+                Facet.CATEGORY, List.of(SyntheticCatalog.CATEGORIES[random.nextInt(SyntheticCatalog.CATEGORIES.length)])));
+
+        for (Map.Entry<String, java.util.function.Supplier<Map<Facet, List<String>>>> scenario : scenarios.entrySet()) {
+            boolean dates = scenario.getKey().equals("categorie + 2 materiale");
+            for (int i = 0; i < 200; i++) index.query(scenario.getValue().get(), null, null, 0, 30, 20); // încălzire
+            long[] nanos = new long[QUERIES];
+            long matched = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                Map<Facet, List<String>> selected = scenario.getValue().get();
+                Integer from = dates ? 1600 + random.nextInt(300) : null;
+                long t = System.nanoTime();
+                FacetIndex.Result result = index.query(selected, from, from == null ? null : from + 50, 0, 30, 20);
+                nanos[i] = System.nanoTime() - t;
+                matched += result.total();
+            }
+            Arrays.sort(nanos);
+            System.out.printf("  %-28s p50 %8.1f µs, p99 %8.1f µs (în medie %d opere)%n", scenario.getKey() + (dates ? " + ani" : "") + ":",
+                    nanos[QUERIES / 2] / 1e3, nanos[QUERIES * 99 / 100] / 1e3, matched / QUERIES);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.backend.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.jena.graph.Graph;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFParser;
+import org.apache.jena.sparql.graph.GraphFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLdStreamTest {
+
+    private static final Node S = NodeFactory.createURI("http://arp.ro/resource/artwork/1");
+    private static final Node T = NodeFactory.createURI("http://arp.ro/resource/artwork/2");
+    private static final Node TITLE = NodeFactory.createURI("http://arp.ro/schema#title");
+    private static final Node MATERIAL = NodeFactory.createURI("http://arp.ro/schema#materialsUsed");
+
+    @Test
+    void alternatingPredicatesNeverRepeatAKeyInOneObject() throws Exception {
+        // Ordinea produsă de execConstructTriples pentru un șablon cu două triple
+        List<Triple> triples = List.of(
+                Triple.create(S, TITLE, NodeFactory.createLiteralLang("Rugăciune", "ro")),
+                Triple.create(S, MATERIAL, NodeFactory.createLiteralString("bronz")),
+                Triple.create(S, TITLE, NodeFactory.createLiteralLang("Prayer", "en")),
+                Triple.create(S, MATERIAL, NodeFactory.createLiteralString("piatră")),
+                Triple.create(T, TITLE, NodeFactory.createLiteralString("Cap de copil")),
+                Triple.create(S, TITLE, NodeFactory.createLiteralString("\"citat\"\n")));
+
+        String json = write(triples);
+
+        ObjectMapper strict = new ObjectMapper().enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+        JsonNode nodes = strict.readTree(json);
+        assertThat(nodes.size()).isEqualTo(4);
+        assertThat(nodes.get(0).get("@id").asText()).isEqualTo(S.getURI());
+        assertThat(nodes.get(1).get("@id").asText()).isEqualTo(S.getURI());
+
+        Graph expected = GraphFactory.createDefaultGraph();
+        triples.forEach(expected::add);
+        assertThat(read(json).isIsomorphicWith(expected)).isTrue();
+    }
+
+    @Test
+    void emptyStreamIsAnEmptyArray() throws Exception {
+        assertThat(new ObjectMapper().readTree(write(List.of())).size()).isZero();
+    }
+
+    @Test
+    void blankNodesAndTypedLiteralsRoundTrip() {
+        Node blank = NodeFactory.createBlankNode("b0");
+        List<Triple> triples = List.of(
+                Triple.create(S, MATERIAL, blank),
+                Triple.create(blank, TITLE, NodeFactory.createLiteralDT("1890", org.apache.jena.datatypes.xsd.XSDDatatype.XSDgYear)));
+
+        Graph expected = GraphFactory.createDefaultGraph();
+        triples.forEach(expected::add);
+        assertThat(read(write(triples)).isIsomorphicWith(expected)).isTrue();
+    }
+
+    private static String write(List<Triple> triples) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonLdStream stream = new JsonLdStream(out);
+        stream.start();
+        triples.forEach(stream::triple);
+        stream.finish();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Graph read(String json) {
+        Graph graph = GraphFactory.createDefaultGraph();
+        RDFParser.fromString(json, Lang.JSONLD).parse(graph);
+        return graph;
+    }
+}
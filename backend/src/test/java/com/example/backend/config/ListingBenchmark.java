@@ -0,0 +1,86 @@
+package com.example.backend.config;
+
+import com.example.backend.repository.ArtworkOrder;
+import com.example.backend.repository.SparqlTemplates;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryExecution;
+import org.apache.jena.query.ResultSet;
+import org.apache.jena.rdf.model.Model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Listarea operelor pe un catalog sintetic: interogarea veche (toate operele grupate, apoi LIMIT/OFFSET)
+// față de listarea în două faze (pagina de URI-uri + VALUES), față de cursor și față de cursorul peste
+// URI-urile sortate din ArtworkOrder.
+// Rulare: java -Xmx3g -cp target/test-classes:target/classes:... com.example.backend.config.ListingBenchmark 10000 100000
+public class ListingBenchmark {
+
+    private static final int PAGE_SIZE = 30;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{10_000, 100_000};
+        SparqlTemplates templates = new SparqlTemplates();
+
+        for (int size : sizes) {
+            long start = System.currentTimeMillis();
+            Model model = SyntheticCatalog.artworks(size, 42);
+            System.out.printf("%n== %d opere, %d triple (generat în %d ms)%n", size, model.size(), System.currentTimeMillis() - start);
+
+            int runs = size > 20_000 ? 2 : 5;
+            int deep = size - PAGE_SIZE;
+
+            measure("veche, pagina 1", runs, () -> count(templates.page("artwork-find-next", PAGE_SIZE, 0), model));
+            measure("veche, offset " + deep, runs, () -> count(templates.page("artwork-find-next", PAGE_SIZE, deep), model));
+            measure("două faze, pagina 1", runs, () -> twoPhase(templates, templates.page("artwork-page", PAGE_SIZE, 0), null, model));
+            measure("două faze, offset " + deep, runs, () -> twoPhase(templates, templates.page("artwork-page", PAGE_SIZE, deep), null, model));
+
+            String after = String.format("http://arp.ro/resource/artwork/S%07d", deep - 1);
+            measure("două faze, cursor la " + deep, runs, () -> twoPhase(templates, templates.page("artwork-page-after", PAGE_SIZE, 0), after, model));
+
+            start = System.currentTimeMillis();
+            ArtworkOrder.Domain order = ArtworkOrder.build(templates, model);
+            System.out.printf("URI-uri sortate în %d ms%n", System.currentTimeMillis() - start);
+            measure("URI-uri sortate, cursor la " + deep, runs,
+                    () -> count(templates.withValues("artwork-find-next", "subject", order.after(after, PAGE_SIZE)), model));
+        }
+    }
+
+    private static int twoPhase(SparqlTemplates templates, Query page, String after, Model model) {
+        List<String> subjects = new ArrayList<>();
+        try (QueryExecution qexec = after == null
+                ? SparqlTemplates.execute(page, model)
+                : SparqlTemplates.execute(page, model, "after", after)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) subjects.add(rs.nextSolution().getResource("subject").getURI());
+        }
+        return count(templates.withValues("artwork-find-next", "subject", subjects), model);
+    }
+
+    private static int count(Query query, Model model) {
+        int rows = 0;
+        try (QueryExecution qexec = SparqlTemplates.execute(query, model)) {
+            ResultSet rs = qexec.execSelect();
+            while (rs.hasNext()) {
+                rs.next();
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void measure(String label, int runs, Supplier<Integer> action) {
+        action.get(); // încălzire
+        long[] times = new long[runs];
+        int rows = 0;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            rows = action.get();
+            times[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(times);
+        System.out.printf("  %-32s %6d ms (mediană din %d, %d rânduri)%n", label, times[runs / 2], runs, rows);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.backend.config;
+
+import com.example.backend.repository.SimilarityIndex;
+import com.example.backend.repository.SparqlTemplates;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.riot.RDFDataMgr;
+
+import java.util.*;
+
+// "Opere similare" (MinHash + LSH) pe cataloage sintetice: construirea indexului, latența unei interogări
+// și recall@10 față de căutarea exhaustivă (Jaccard cu toate operele, echivalentul join-ului pe perechi).
+// Prima măsurătoare trece prin RDF + SPARQL ca în aplicație; cele mari generează direct trăsăturile,
+// cu aceeași distribuție ca SyntheticCatalog, pentru că un model Jena cu 1M de opere nu încape în memorie.
+// Rulare: java -Xmx3g -cp target/test-classes:target/classes:... com.example.backend.config.SimilarityBenchmark 100000 1000000
+public class SimilarityBenchmark {
+
+    private static final int TOP = 10;
+    private static final int QUERIES = 10_000;
+    private static final int EXACT_QUERIES = 100;
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{100_000, 1_000_000};
+        SparqlTemplates templates = new SparqlTemplates();
+
+        Model getty = ModelFactory.createDefaultModel();
+        RDFDataMgr.read(getty, "data_ttl/getty-materials.ttl");
+        RDFDataMgr.read(getty, "data_ttl/getty-categories.ttl");
+
+        int rdfSize = 20_000;
+        Model model = SyntheticCatalog.artworks(rdfSize, 42);
+        long start = System.currentTimeMillis();
+        SimilarityIndex.Domain fromRdf = SimilarityIndex.build(templates, model, getty);
+        System.out.printf("%n== %d opere din RDF: trăsături + index în %d ms, %d trăsături distincte%n",
+                rdfSize, System.currentTimeMillis() - start, fromRdf.vocabulary());
+        measure(fromRdf);
+        model = null;
+
+        for (int size : sizes) {
+            System.gc();
+            long before = usedMemory();
+            String[] uris = new String[size];
+            List<List<String>> features = features(size, 42, uris);
+
+            start = System.currentTimeMillis();
+            SimilarityIndex.Domain index = new SimilarityIndex.Domain(uris, features, null, null);
+            long buildMillis = System.currentTimeMillis() - start;
+            features = null;
+            System.gc();
+            System.out.printf("%n== %d opere: index în %d ms, ~%d MB, %d trăsături distincte%n",
+                    size, buildMillis, (usedMemory() - before) / (1 << 20), index.vocabulary());
+            measure(index);
+        }
+    }
+
+    // Aceleași valori ca SyntheticCatalog: clasificare, cultură, tehnică, două materiale, secol și sfert de secol
+    private static List<List<String>> features(int count, long seed, String[] uris) {
+        Random random = new Random(seed);
+        List<List<String>> features = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            uris[i] = String.format("http://arp.ro/resource/artwork/S%07d", i);
+            int year = 1500 + random.nextInt(500);
+            features.add(List.of(
+                    "classification:work of art",
+                    "classification:" + SyntheticCatalog.CATEGORIES[random.nextInt(SyntheticCatalog.CATEGORIES.length)],
+                    "culture:" + (random.nextBoolean() ? "romanian" : "european"),
+                    "technique:" + SyntheticCatalog.TECHNIQUES[random.nextInt(SyntheticCatalog.TECHNIQUES.length)],
+                    "material:" + SyntheticCatalog.MATERIALS[random.nextInt(SyntheticCatalog.MATERIALS.length)],
+                    "material:" + SyntheticCatalog.MATERIALS[random.nextInt(SyntheticCatalog.MATERIALS.length)],
+                    "century:" + year / 100,
+                    "period:" + year / 25 * 25));
+        }
+        return features;
+    }
+
+    private static void measure(SimilarityIndex.Domain index) {
+        Random random = new Random(7);
+        int n = index.size();
+
+        for (int i = 0; i < 1_000; i++) index.similar(index.uri(random.nextInt(n)), 0, TOP); // încălzire
+
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String uri = index.uri(random.nextInt(n));
+            long start = System.nanoTime();
+            index.similar(uri, 0, TOP);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("  LSH top-%d:        p50 %5d µs, p99 %5d µs (%d interogări)%n",
+                TOP, nanos[QUERIES / 2] / 1_000, nanos[QUERIES * 99 / 100] / 1_000, QUERIES);
+
+        // Recall: câte din cele 10 rezultate LSH au cel puțin scorul celui de-al 10-lea rezultat exact
+        // (multe opere au scoruri egale, deci mulțimea exactă nu este unică)
+        long exactNanos = 0;
+        int hits = 0, expected = 0;
+        for (int q = 0; q < EXACT_QUERIES; q++) {
+            int input = random.nextInt(n);
+            long start = System.nanoTime();
+            double[] exact = exactTop(index, input);
+            exactNanos += System.nanoTime() - start;
+
+            double threshold = exact.length < TOP ? 0 : exact[TOP - 1];
+            expected += Math.min(TOP, exact.length);
+            for (int id : index.similar(index.uri(input), 0, TOP)) {
+                if (index.similarity(input, id) >= threshold) hits++;
+            }
+        }
+        System.out.printf("  exhaustiv top-%d:  %8.1f ms / interogare%n", TOP, exactNanos / 1e6 / EXACT_QUERIES);
+        System.out.printf("  recall@%d:         %.3f (%d interogări)%n", TOP, expected == 0 ? 1.0 : (double) hits / expected, EXACT_QUERIES);
+    }
+
+    // Cele mai mari TOP scoruri Jaccard față de toate celelalte opere, descrescător
+    private static double[] exactTop(SimilarityIndex.Domain index, int input) {
+        PriorityQueue<Double> best = new PriorityQueue<>();
+        for (int id = 0; id < index.size(); id++) {
+            if (id == input) continue;
+            double score = index.similarity(input, id);
+            if (score <= 0) continue;
+            if (best.size() < TOP) {
+                best.add(score);
+            } else if (score > best.peek()) {
+                best.poll();
+                best.add(score);
+            }
+        }
+        return best.stream().sorted(Comparator.reverseOrder()).mapToDouble(Double::doubleValue).toArray();
+    }
+
+    private static long usedMemory() {
+        Runtime rt = Runtime.getRuntime();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.config;
+
+import org.apache.jena.datatypes.xsd.XSDDatatype;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.vocabulary.RDF;
+
+import java.util.Random;
+
+// Catalog sintetic cu aceeași formă ca artworks_arp*.ttl (artist, muzeu, creație, înregistrare, validare,
+// istoric de proprietari), pentru măsurători la dimensiuni mai mari decât datele reale.
+public class SyntheticCatalog {
+
+    static final String ARP = "http://arp.ro/schema#";
+    static final String PROV = "http://www.w3.org/ns/prov#";
+    static final String DCT = "http://purl.org/dc/terms/";
+    static final String RES = "http://arp.ro/resource/";
+
+    static final String[] CATEGORIES = {"painting", "drawing", "sculpture", "icon", "print", "photograph",
+            "textile", "ceramics", "jewellery", "furniture", "manuscript", "coin", "tapestry", "fresco", "study"};
+    private static final String[] WORDS = {"portret", "peisaj", "natură", "moartă", "femeie", "țărancă", "sat",
+            "biserică", "mare", "munte", "noapte", "grădină", "flori", "cal", "car", "boi", "târg", "iarnă",
+            "toamnă", "lac", "pădure", "mănăstire", "sfânt", "icoană", "familie", "copil", "bătrân", "studiu"};
+    static final String[] MATERIALS = {"oil paint", "canvas", "wood", "tempera", "paper", "ink",
+            "bronze", "marble", "gold", "silver", "glass", "clay", "wool", "silk"};
+    static final String[] TECHNIQUES = {"painting", "engraving", "casting", "carving", "weaving", "drawing"};
+
+    public static Model artworks(int count, long seed) {
+        Model m = ModelFactory.createDefaultModel();
+        Random random = new Random(seed);
+
+        Property type = RDF.type;
+        Resource artworkClass = m.createResource(ARP + "Artwork");
+        Resource custody = m.createResource(ARP + "TransferOfCustody");
+        Property name = m.createProperty(ARP, "name");
+
+        int artists = Math.max(1, count / 20);
+        int museums = Math.max(1, count / 300);
+        int collectors = Math.max(1, count / 50);
+
+        for (int i = 0; i < artists; i++) {
+            m.createResource(RES + "agent/artist_" + i).addProperty(type, m.createResource(ARP + "Artist"))
+                    .addProperty(name, "Artist " + i);
+        }
+        for (int i = 0; i < museums; i++) {
+            m.createResource(RES + "agent/museum_" + i).addProperty(type, m.createResource(ARP + "Museum"))
+                    .addProperty(name, "Muzeul " + i);
+        }
+        for (int i = 0; i < collectors; i++) {
+            m.createResource(RES + "agent/collector_" + i).addProperty(name, "Colecționar " + i);
+        }
+        Resource registrar = m.createResource(RES + "agent/registrar").addProperty(name, "Registrator");
+        Resource validator = m.createResource(RES + "agent/validator").addProperty(name, "Validator");
+
+        for (int i = 0; i < count; i++) {
+            String id = String.format("S%07d", i);
+            Resource a = m.createResource(RES + "artwork/" + id);
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            int year = 1500 + random.nextInt(500);
+
+            a.addProperty(type, artworkClass)
+                    .addProperty(m.createProperty(ARP, "title"), title(random))
+                    .addProperty(m.createProperty(ARP, "imageLink"), m.createTypedLiteral("http://img.example/" + id + ".jpg", XSDDatatype.XSDanyURI))
+                    .addProperty(m.createProperty(ARP, "category"), category)
+                    .addProperty(m.createProperty(ARP, "classification"), "work of art")
+                    .addProperty(m.createProperty(ARP, "classification"), category)
+                    .addProperty(m.createProperty(ARP, "culture"), random.nextBoolean() ? "Romanian" : "European")
+                    .addProperty(m.createProperty(ARP, "inventoryNumber"), "INV-" + i)
+                    .addProperty(m.createProperty(ARP, "description"), category + " " + title(random))
+                    .addProperty(m.createProperty(ARP, "dimensions"), (20 + random.nextInt(200)) + " x " + (20 + random.nextInt(200)) + " cm")
+                    .addProperty(m.createProperty(DCT, "license"), m.createResource("http://creativecommons.org/publicdomain/zero/1.0/"))
+                    .addProperty(m.createProperty(PROV, "wasAttributedTo"), m.createResource(RES + "agent/artist_" + random.nextInt(artists)))
+                    .addProperty(m.createProperty(ARP, "currentLocation"), m.createResource(RES + "agent/museum_" + random.nextInt(museums)))
+                    .addProperty(m.createProperty(ARP, "recordedAt"), m.createTypedLiteral("2024-01-01", XSDDatatype.XSDdate))
+                    .addProperty(m.createProperty(ARP, "recordedBy"), registrar)
+                    .addProperty(m.createProperty(ARP, "validatedAt"), m.createTypedLiteral("2024-02-01", XSDDatatype.XSDdate))
+                    .addProperty(m.createProperty(ARP, "validatedBy"), validator);
+
+            Resource creation = m.createResource(RES + "activity/creation_" + id)
+                    .addProperty(type, m.createResource(ARP + "Creation"))
+                    .addProperty(m.createProperty(ARP, "startedAtTime"), m.createTypedLiteral(year + "-01-01", XSDDatatype.XSDdate))
+                    .addProperty(m.createProperty(ARP, "technique"), TECHNIQUES[random.nextInt(TECHNIQUES.length)])
+                    .addProperty(m.createProperty(ARP, "materialsUsed"), MATERIALS[random.nextInt(MATERIALS.length)])
+                    .addProperty(m.createProperty(ARP, "materialsUsed"), MATERIALS[random.nextInt(MATERIALS.length)]);
+            a.addProperty(m.createProperty(PROV, "wasGeneratedBy"), creation);
+
+            for (int k = 0; k < 2; k++) {
+                Resource ownership = m.createResource(RES + "ownership/" + id + "_" + k)
+                        .addProperty(type, custody)
+                        .addProperty(m.createProperty(ARP, "startedAtTime"), m.createTypedLiteral((year + 100 * k) + "-01-01", XSDDatatype.XSDdate))
+                        .addProperty(m.createProperty(ARP, "endedAtTime"), m.createTypedLiteral((year + 100 * k + 50) + "-01-01", XSDDatatype.XSDdate))
+                        .addProperty(m.createProperty(PROV, "wasAssociatedWith"), m.createResource(RES + "agent/collector_" + random.nextInt(collectors)));
+                a.addProperty(m.createProperty(ARP, "hasOwnership"), ownership);
+            }
+        }
+        // Ca la încărcarea din KnowledgeGraphLoader
+        DateNormalizer.addYearBounds(m.getGraph());
+        return m;
+    }
+
+    private static String title(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+}
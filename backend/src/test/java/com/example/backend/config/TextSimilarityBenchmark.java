@@ -0,0 +1,133 @@
+package com.example.backend.config;
+
+import com.example.backend.repository.TextSimilarityIndex;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// "Opere asemănătoare ca text" (TF-IDF + HNSW) pe texte sintetice: vectorizare, construirea grafului,
+// salvarea și recitirea lui, latența unei interogări și recall@10 față de cosinusul calculat cu toate operele.
+// Textele sunt generate pe teme (cuvinte specifice temei + un fond comun cu distribuție Zipf), ca operele
+// să aibă vecini reali, nu doar zgomot.
+// Rulare: java -Xmx3g -cp target/test-classes:target/classes:... com.example.backend.config.TextSimilarityBenchmark 10000 50000
+public class TextSimilarityBenchmark {
+
+    private static final int TOP = 10;
+    private static final int QUERIES = 5_000;
+    private static final int EXACT_QUERIES = 100;
+    private static final String[] SYLLABLES = {"ar", "te", "pic", "tu", "ra", "lu", "mi", "na", "por", "tret",
+            "pei", "saj", "sculp", "bi", "se", "ri", "ca", "mo", "nu", "ment", "flo", "ri", "ve", "ra", "dan", "sa"};
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{10_000, 50_000};
+        Path dir = Files.createTempDirectory("text-similarity");
+
+        for (int size : sizes) {
+            Random random = new Random(42);
+            String[] vocabulary = vocabulary(random, 5_000);
+            int topics = Math.max(10, size / 100);
+            String[] uris = new String[size];
+            String[] titles = new String[size];
+            String[] descriptions = new String[size];
+            for (int i = 0; i < size; i++) {
+                int topic = random.nextInt(topics);
+                uris[i] = String.format("http://arp.ro/resource/artwork/S%07d", i);
+                titles[i] = text(random, vocabulary, topic, 3 + random.nextInt(3));
+                descriptions[i] = text(random, vocabulary, topic, 15 + random.nextInt(25));
+            }
+
+            long start = System.currentTimeMillis();
+            TextSimilarityIndex.Domain index = new TextSimilarityIndex.Domain(uris, titles, descriptions, null);
+            long vectorMillis = System.currentTimeMillis() - start;
+
+            Path file = dir.resolve("bench-" + size + ".hnsw");
+            start = System.currentTimeMillis();
+            index.index(file);
+            long buildMillis = System.currentTimeMillis() - start;
+
+            start = System.currentTimeMillis();
+            TextSimilarityIndex.Domain reloaded = new TextSimilarityIndex.Domain(uris, titles, descriptions, null);
+            String source = reloaded.index(file);
+            long reloadMillis = System.currentTimeMillis() - start;
+
+            System.out.printf("%n== %d opere, %d teme%n", size, topics);
+            System.out.printf("  vectori TF-IDF:    %6d ms%n", vectorMillis);
+            System.out.printf("  graf HNSW:         %6d ms (%d KB pe disc)%n", buildMillis, Files.size(file) / 1024);
+            System.out.printf("  repornire:         %6d ms (vectori + graf %s)%n", reloadMillis, source.startsWith("citit") ? "citit" : "reconstruit");
+            measure(reloaded);
+            Files.deleteIfExists(file);
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private static void measure(TextSimilarityIndex.Domain index) {
+        Random random = new Random(7);
+        int n = index.size();
+        for (int i = 0; i < 1_000; i++) index.similar(index.uri(random.nextInt(n)), 0, TOP); // încălzire
+
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String uri = index.uri(random.nextInt(n));
+            long start = System.nanoTime();
+            index.similar(uri, 0, TOP);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("  HNSW top-%d:        p50 %5d µs, p99 %5d µs (%d interogări)%n",
+                TOP, nanos[QUERIES / 2] / 1_000, nanos[QUERIES * 99 / 100] / 1_000, QUERIES);
+
+        long exactNanos = 0;
+        int hits = 0;
+        for (int q = 0; q < EXACT_QUERIES; q++) {
+            int input = random.nextInt(n);
+            long start = System.nanoTime();
+            Set<Integer> exact = exactTop(index, input);
+            exactNanos += System.nanoTime() - start;
+            for (int id : index.similar(index.uri(input), 0, TOP)) {
+                if (exact.contains(id)) hits++;
+            }
+        }
+        System.out.printf("  exhaustiv top-%d:  %8.2f ms / interogare%n", TOP, exactNanos / 1e6 / EXACT_QUERIES);
+        System.out.printf("  recall@%d:         %.3f (%d interogări)%n", TOP, (double) hits / (TOP * EXACT_QUERIES), EXACT_QUERIES);
+    }
+
+    private static Set<Integer> exactTop(TextSimilarityIndex.Domain index, int input) {
+        PriorityQueue<double[]> best = new PriorityQueue<>(Comparator.comparingDouble(e -> e[0]));
+        for (int id = 0; id < index.size(); id++) {
+            if (id == input) continue;
+            double score = index.similarity(input, id);
+            if (best.size() < TOP) {
+                best.add(new double[]{score, id});
+            } else if (score > best.peek()[0]) {
+                best.poll();
+                best.add(new double[]{score, id});
+            }
+        }
+        Set<Integer> ids = new HashSet<>();
+        best.forEach(e -> ids.add((int) e[1]));
+        return ids;
+    }
+
+    private static String[] vocabulary(Random random, int size) {
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < size) {
+            StringBuilder word = new StringBuilder();
+            for (int s = 0, len = 2 + random.nextInt(3); s < len; s++) word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            words.add(word.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+
+    // Jumătate din cuvinte din cele 20 ale temei, restul din tot vocabularul, cu frecvență Zipf
+    private static String text(Random random, String[] vocabulary, int topic, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            int word = random.nextBoolean()
+                    ? (topic * 20 + random.nextInt(20)) % vocabulary.length
+                    : (int) Math.min(vocabulary.length - 1, Math.floor(Math.pow(vocabulary.length, random.nextDouble())) - 1);
+            text.append(vocabulary[word]).append(' ');
+        }
+        return text.toString().trim();
+    }
+}
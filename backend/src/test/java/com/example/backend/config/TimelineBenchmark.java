@@ -0,0 +1,72 @@
+package com.example.backend.config;
+
+import com.example.backend.repository.TimelineIndex;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Indexul de timp (arbore de intervale peste tablouri sortate) comparat cu o parcurgere liniară a tuturor
+// intervalelor, pentru ferestre de ani de lățimi diferite. Datările sunt ca în catalog: mai ales ani exacți,
+// plus intervale de câțiva ani și secole întregi ("sec. XIX").
+// Rulare: java -Xmx2g -cp target/test-classes:target/classes:... com.example.backend.config.TimelineBenchmark 100000 1000000
+public class TimelineBenchmark {
+
+    private static final int QUERIES = 2_000;
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0 ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray() : new int[]{100_000, 1_000_000};
+
+        for (int size : sizes) {
+            Random random = new Random(42);
+            String[] uris = new String[size];
+            int[] earliest = new int[size];
+            int[] latest = new int[size];
+            for (int i = 0; i < size; i++) {
+                uris[i] = String.format("http://arp.ro/resource/artwork/S%07d", i);
+                int kind = random.nextInt(10);
+                if (kind < 7) {
+                    earliest[i] = latest[i] = 1400 + random.nextInt(620);
+                } else if (kind < 9) {
+                    earliest[i] = 1400 + random.nextInt(600);
+                    latest[i] = earliest[i] + 1 + random.nextInt(20);
+                } else {
+                    earliest[i] = (14 + random.nextInt(6)) * 100 + 1;
+                    latest[i] = earliest[i] + 99;
+                }
+            }
+
+            long start = System.currentTimeMillis();
+            TimelineIndex.Domain index = new TimelineIndex.Domain(uris, earliest, latest);
+            System.out.printf("%n== %d opere: index în %d ms%n", size, System.currentTimeMillis() - start);
+
+            for (int width : new int[]{1, 10, 100}) {
+                long[] indexed = new long[QUERIES];
+                long[] scanned = new long[QUERIES];
+                long matched = 0;
+                for (int q = 0; q < QUERIES; q++) {
+                    int from = 1400 + random.nextInt(620 - width);
+                    int to = from + width - 1;
+
+                    long t = System.nanoTime();
+                    TimelineIndex.Result result = index.query(from, to, 0, 30, 10);
+                    indexed[q] = System.nanoTime() - t;
+
+                    t = System.nanoTime();
+                    int count = 0;
+                    for (int i = 0; i < size; i++) {
+                        if (earliest[i] <= to && latest[i] >= from) count++;
+                    }
+                    scanned[q] = System.nanoTime() - t;
+
+                    if (count != result.total()) throw new IllegalStateException(count + " != " + result.total());
+                    matched += count;
+                }
+                Arrays.sort(indexed);
+                Arrays.sort(scanned);
+                System.out.printf("  fereastră de %3d ani: index p50 %8.1f µs, p99 %8.1f µs | parcurgere p50 %8.1f µs (în medie %d opere)%n",
+                        width, indexed[QUERIES / 2] / 1e3, indexed[QUERIES * 99 / 100] / 1e3,
+                        scanned[QUERIES / 2] / 1e3, matched / QUERIES);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.backend.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArtistSuggestIndexTest {
+
+    @Test
+    void anyWordOrderWithoutDiacritics() {
+        ArtistSuggestIndex.Domain index = domain(
+                new String[]{"a:brancusi", "a:grigorescu"},
+                new String[]{"Brâncuși, Constantin", "Grigorescu, Nicolae"},
+                new int[]{3, 5});
+
+        assertThat(names(index, "brancusi c")).containsExactly("Brâncuși, Constantin");
+        assertThat(names(index, "Constantin BRÂN")).containsExactly("Brâncuși, Constantin");
+        assertThat(names(index, "nicolae, grig")).containsExactly("Grigorescu, Nicolae");
+        assertThat(names(index, "x")).isEmpty();
+        assertThat(names(index, " ,")).isEmpty();
+    }
+
+    @Test
+    void moreArtworksFirstThenAlphabetical() {
+        ArtistSuggestIndex.Domain index = domain(
+                new String[]{"a:1", "a:2", "a:3", "a:4"},
+                new String[]{"Pallady, Theodor", "Păunescu, Ana", "Petrașcu, Gheorghe", "Pan, Ion"},
+                new int[]{2, 7, 2, 0});
+
+        assertThat(names(index, "p")).containsExactly("Păunescu, Ana", "Pallady, Theodor", "Petrașcu, Gheorghe", "Pan, Ion");
+        assertThat(names(index, "pa")).containsExactly("Păunescu, Ana", "Pallady, Theodor", "Pan, Ion");
+        assertThat(index.suggest("p", 2)).hasSize(2);
+        assertThat(index.suggest("p", 0)).isEmpty();
+    }
+
+    @Test
+    void sameAsFilteringEveryName() {
+        Random random = new Random(7);
+        String[] syllables = {"ba", "brân", "cu", "și", "gri", "go", "res", "lu", "pal", "ady", "ma", "ri", "an", "ton"};
+        int size = 2_000;
+        String[] uris = new String[size];
+        String[] names = new String[size];
+        int[] artworks = new int[size];
+        List<List<String>> variants = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            uris[i] = "a:" + i;
+            names[i] = word(random, syllables, 2 + random.nextInt(2)) + ", " + word(random, syllables, 2);
+            artworks[i] = random.nextInt(50);
+            // Unii artiști au și un al doilea nume (Wikidata / ARP)
+            variants.add(random.nextInt(5) == 0 ? List.of(names[i], word(random, syllables, 3)) : List.of(names[i]));
+        }
+        ArtistSuggestIndex.Domain index = new ArtistSuggestIndex.Domain(uris, names, artworks, variants);
+
+        Map<String, List<String>> keysOf = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            List<String> keys = new ArrayList<>();
+            variants.get(i).forEach(name -> keys.addAll(ArtistSuggestIndex.keys(name)));
+            keysOf.put(uris[i], keys);
+        }
+        for (int q = 0; q < 300; q++) {
+            String name = names[random.nextInt(size)];
+            String prefix = ArtistSuggestIndex.normalize(name).substring(0, 1 + random.nextInt(6));
+            // Spațiul de la final nu contează ("sicu " = "sicu")
+            String key = prefix.trim();
+
+            // Id-urile sunt chiar ordinea sugestiilor, deci primele TOP id-uri potrivite
+            List<Integer> expected = new ArrayList<>();
+            for (int id = 0; id < index.size() && expected.size() < ArtistSuggestIndex.Domain.TOP; id++) {
+                if (keysOf.get(index.uri(id)).stream().anyMatch(k -> k.startsWith(key))) expected.add(id);
+            }
+            assertThat(index.suggest(prefix, ArtistSuggestIndex.Domain.TOP)).as(prefix)
+                    .containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    private static ArtistSuggestIndex.Domain domain(String[] uris, String[] names, int[] artworks) {
+        List<List<String>> variants = Arrays.stream(names).map(List::of).toList();
+        return new ArtistSuggestIndex.Domain(uris, names, artworks, variants);
+    }
+
+    private static List<String> names(ArtistSuggestIndex.Domain index, String prefix) {
+        return Arrays.stream(index.suggest(prefix, ArtistSuggestIndex.Domain.TOP)).mapToObj(index::name).toList();
+    }
+
+    private static String word(Random random, String[] syllables, int count) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < count; i++) word.append(syllables[random.nextInt(syllables.length)]);
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.repository;
+
+import com.example.backend.repository.FacetIndex.Count;
+import com.example.backend.repository.FacetIndex.Facet;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetIndexTest {
+
+    @Test
+    void literalValuesIgnoreCaseAndSelectedValuesStayVisible() {
+        FacetIndex.Builder builder = new FacetIndex.Builder(new String[]{"w:1", "w:2", "w:3"});
+        builder.addLabel(0, Facet.MATERIAL, "Bronz");
+        builder.addLabel(1, Facet.MATERIAL, " bronz ");
+        builder.addLabel(2, Facet.MATERIAL, "piatră");
+        builder.add(0, Facet.ARTIST, "a:brancusi", "Brâncuși, Constantin");
+        builder.add(2, Facet.ARTIST, "a:paciurea", "Paciurea, Dimitrie");
+        FacetIndex.Domain index = builder.build();
+
+        FacetIndex.Result all = index.query(Map.of(), null, null, 0, 10, 10);
+        assertThat(all.facets().get(Facet.MATERIAL)).containsExactly(new Count("bronz", "Bronz", 2), new Count("piatră", "piatră", 1));
+
+        // Limita 1 ar păstra doar bronzul, dar piatra e selectată
+        FacetIndex.Result selected = index.query(Map.of(Facet.ARTIST, List.of("a:brancusi"), Facet.MATERIAL, List.of("Piatră")),
+                null, null, 0, 10, 1);
+        assertThat(selected.total()).isZero();
+        assertThat(selected.facets().get(Facet.MATERIAL)).containsExactly(new Count("bronz", "Bronz", 1), new Count("piatră", "piatră", 0));
+        assertThat(selected.facets().get(Facet.ARTIST)).containsExactly(
+                new Count("a:paciurea", "Paciurea, Dimitrie", 1), new Count("a:brancusi", "Brâncuși, Constantin", 0));
+    }
+
+    @Test
+    void countsMatchScanningEveryArtwork() {
+        Random random = new Random(3);
+        int size = 4_000;
+        String[] uris = new String[size];
+        for (int id = 0; id < size; id++) uris[id] = String.format("w:%05d", id);
+        // Materiale puține și frecvente, artiști mulți și rari: cererile de mai jos trec prin toate cele
+        // trei feluri de numărare (ordinea precalculată, parcurgerea operelor, intersecțiile)
+        List<Map<Facet, Set<String>>> values = new ArrayList<>();
+        FacetIndex.Builder builder = new FacetIndex.Builder(uris);
+        for (int id = 0; id < size; id++) {
+            Map<Facet, Set<String>> own = new EnumMap<>(Facet.class);
+            own.put(Facet.ARTIST, Set.of("a:" + (int) Math.pow(300, random.nextDouble())));
+            Set<String> materials = new HashSet<>();
+            for (int m = 0; m < 4; m++) {
+                if (random.nextInt(m + 2) == 0) materials.add("m" + m);
+            }
+            own.put(Facet.MATERIAL, materials);
+            values.add(own);
+            int work = id;
+            own.get(Facet.ARTIST).forEach(artist -> builder.add(work, Facet.ARTIST, artist, null));
+            materials.forEach(material -> builder.addLabel(work, Facet.MATERIAL, material));
+        }
+        FacetIndex.Domain index = builder.build();
+
+        List<Map<Facet, List<String>>> filters = List.of(
+                Map.of(),
+                Map.of(Facet.ARTIST, List.of("a:1")),
+                Map.of(Facet.ARTIST, List.of("a:7", "a:150")),
+                Map.of(Facet.MATERIAL, List.of("m0")),
+                Map.of(Facet.MATERIAL, List.of("m2", "m3"), Facet.ARTIST, List.of("a:1", "a:2", "a:3")));
+        for (Map<Facet, List<String>> filter : filters) {
+            FacetIndex.Result result = index.query(filter, null, null, 0, 10, 5);
+            for (Facet facet : List.of(Facet.ARTIST, Facet.MATERIAL)) {
+                assertThat(result.facets().get(facet)).as(filter + " " + facet)
+                        .containsExactlyElementsOf(expected(values, filter, facet, 5));
+            }
+        }
+    }
+
+    // Numărătoarea fațetei cu toate filtrele în afară de cel al ei: primele "limit" valori, plus cele selectate
+    private static List<Count> expected(List<Map<Facet, Set<String>>> values, Map<Facet, List<String>> filter,
+                                        Facet facet, int limit) {
+        Map<String, Integer> counts = new TreeMap<>();
+        for (Map<Facet, Set<String>> own : values) {
+            boolean matches = filter.entrySet().stream().allMatch(f -> f.getKey() == facet
+                    || f.getValue().stream().anyMatch(own.getOrDefault(f.getKey(), Set.of())::contains));
+            if (matches) own.getOrDefault(facet, Set.of()).forEach(value -> counts.merge(value, 1, Integer::sum));
+        }
+        Comparator<Count> order = Comparator.comparingInt(Count::count).reversed().thenComparing(Count::value);
+        Set<Count> chosen = new HashSet<>(counts.entrySet().stream()
+                .map(count -> new Count(count.getKey(), count.getKey(), count.getValue()))
+                .sorted(order).limit(limit).toList());
+        for (String value : filter.getOrDefault(facet, List.of())) {
+            chosen.add(new Count(value, value, counts.getOrDefault(value, 0)));
+        }
+        return chosen.stream().sorted(order).toList();
+    }
+}
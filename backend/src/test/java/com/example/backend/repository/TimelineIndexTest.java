@@ -0,0 +1,79 @@
+package com.example.backend.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimelineIndexTest {
+
+    @Test
+    void overlapsInChronologicalOrder() {
+        TimelineIndex.Domain index = new TimelineIndex.Domain(
+                new String[]{"w:c", "w:a", "w:b", "w:d"},
+                new int[]{1900, 1801, 1890, 1950},
+                new int[]{1910, 1900, 1890, 1960});
+
+        TimelineIndex.Result result = index.query(1890, 1905, 0, 10, 10);
+
+        assertThat(uris(index, result.page())).containsExactly("w:a", "w:b", "w:c");
+        assertThat(result.total()).isEqualTo(3);
+        // Anul de început e adus în interval: opera din 1801-1900 intră în găleata 1890
+        assertThat(result.buckets()).containsExactly(
+                new TimelineIndex.Bucket(1890, 1899, 2), new TimelineIndex.Bucket(1900, 1909, 1));
+        assertThat(result.minYear()).isEqualTo(1801);
+        assertThat(result.maxYear()).isEqualTo(1960);
+    }
+
+    @Test
+    void openBoundsAndPaging() {
+        TimelineIndex.Domain index = new TimelineIndex.Domain(
+                new String[]{"w:1", "w:2", "w:3"}, new int[]{-200, 1500, 2001}, new int[]{-101, 1600, 2020});
+
+        assertThat(uris(index, index.query(null, null, 0, 10, 100).page())).containsExactly("w:1", "w:2", "w:3");
+        assertThat(uris(index, index.query(1550, null, 0, 10, 100).page())).containsExactly("w:2", "w:3");
+        assertThat(uris(index, index.query(null, 0, 0, 10, 100).page())).containsExactly("w:1");
+        assertThat(uris(index, index.query(null, null, 1, 1, 100).page())).containsExactly("w:2");
+        assertThat(index.query(null, null, 5, 10, 100).page()).isEmpty();
+        assertThat(index.query(1700, 1800, 0, 10, 100).total()).isZero();
+    }
+
+    @Test
+    void sameAsScanningEveryArtwork() {
+        Random random = new Random(11);
+        int size = 5_000;
+        String[] uris = new String[size];
+        int[] earliest = new int[size];
+        int[] latest = new int[size];
+        for (int i = 0; i < size; i++) {
+            uris[i] = String.format("w:%05d", i);
+            earliest[i] = 1000 + random.nextInt(1000);
+            // Cele mai multe datări sunt un an sau câțiva, câteva sunt secole întregi
+            latest[i] = earliest[i] + (random.nextInt(10) == 0 ? random.nextInt(300) : random.nextInt(5));
+        }
+        TimelineIndex.Domain index = new TimelineIndex.Domain(uris, earliest, latest);
+        Map<String, Integer> position = new HashMap<>();
+        for (int i = 0; i < size; i++) position.put(uris[i], i);
+
+        for (int q = 0; q < 200; q++) {
+            int from = 900 + random.nextInt(1200);
+            int to = from + random.nextInt(q % 2 == 0 ? 10 : 400);
+
+            List<String> expected = Arrays.stream(uris)
+                    .filter(uri -> earliest[position.get(uri)] <= to && latest[position.get(uri)] >= from)
+                    .sorted(Comparator.<String>comparingInt(uri -> earliest[position.get(uri)])
+                            .thenComparingInt(uri -> latest[position.get(uri)]).thenComparing(uri -> uri))
+                    .toList();
+            TimelineIndex.Result result = index.query(from, to, 0, size, 25);
+
+            assertThat(uris(index, result.page())).as(from + "-" + to).containsExactlyElementsOf(expected);
+            assertThat(result.total()).isEqualTo(expected.size());
+            assertThat(result.buckets().stream().mapToInt(TimelineIndex.Bucket::count).sum()).isEqualTo(expected.size());
+        }
+    }
+
+    private static List<String> uris(TimelineIndex.Domain index, int[] positions) {
+        return Arrays.stream(positions).mapToObj(index::uri).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.backend.service;
+
+import com.example.backend.config.KnowledgeGraphLoader;
+import com.example.backend.config.PredefinedQueryLoader;
+import com.example.backend.repository.PredicateStats;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.query.Query;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.query.QueryParseException;
+import org.apache.jena.system.Txn;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Verdictele estimatorului pe graful aplicației (data_ttl), cu limitele implicite din application.yaml
+class QueryCostEstimatorTest {
+
+    private static final String PREFIXES = """
+            PREFIX arp: <http://arp.ro/schema#>
+            PREFIX prov: <http://www.w3.org/ns/prov#>
+            """;
+
+    private static PredicateStats.Stats stats;
+    private static final QueryCostEstimator estimator = new QueryCostEstimator(null, 50_000_000, 100_000);
+
+    @BeforeAll
+    static void loadGraph() {
+        Dataset dataset = DatasetFactory.createTxnMem();
+        KnowledgeGraphLoader.loadInto(dataset);
+        stats = Txn.calculateRead(dataset, () -> PredicateStats.build(dataset.asDatasetGraph().find()));
+    }
+
+    @Test
+    void cartesianProductIsRejected() {
+        // COUNT trebuie să parcurgă tot produsul, nu se poate opri la max-rows
+        QueryCostEstimator.Estimate estimate = estimate("SELECT (COUNT(*) AS ?n) WHERE { ?a ?p ?o . ?b ?q ?r }");
+
+        assertThat(estimate.rejected()).isTrue();
+        assertThat(estimate.problems()).anyMatch(problem -> problem.startsWith("Cartesian product"));
+    }
+
+    @Test
+    void streamedCartesianProductStopsAtMaxRows() {
+        QueryCostEstimator.Estimate estimate = estimate("SELECT * WHERE { ?a ?p ?o . ?b ?q ?r }");
+
+        assertThat(estimate.rejected()).isFalse();
+        assertThat(estimate.rows()).isEqualTo(100_001);
+        assertThat(estimate.problems()).anyMatch(problem -> problem.startsWith("Cartesian product"))
+                .anyMatch(problem -> problem.startsWith("No LIMIT"));
+    }
+
+    @Test
+    void predefinedQueriesAreAccepted() {
+        int estimated = 0;
+        for (Map.Entry<String, String> predefined : new PredefinedQueryLoader().getPredefinedQueries().entrySet()) {
+            Query query;
+            try {
+                query = QueryFactory.create(predefined.getValue());
+            } catch (QueryParseException e) {
+                // /sparql o respinge la parsare, înainte de estimare
+                continue;
+            }
+            QueryCostEstimator.Estimate estimate = estimator.estimate(query, stats);
+            assertThat(estimate.rejected()).as(predefined.getKey() + ": " + estimate).isFalse();
+            estimated++;
+        }
+        assertThat(estimated).isGreaterThanOrEqualTo(10);
+    }
+
+    @Test
+    void limitScalesStreamingCostOnly() {
+        String product = "SELECT * WHERE { ?a ?p ?o . ?b ?q ?r }";
+        QueryCostEstimator.Estimate limited = estimate(product + " LIMIT 10");
+        QueryCostEstimator.Estimate sorted = estimate(product + " ORDER BY ?o LIMIT 10");
+
+        // Rezultatele ies în flux, deci evaluarea se oprește după primele 10
+        assertThat(limited.rows()).isEqualTo(10);
+        assertThat(limited.rejected()).isFalse();
+        // ORDER BY trebuie să vadă tot produsul înainte de primul rând
+        assertThat(sorted.rejected()).isTrue();
+        assertThat(sorted.cost()).isGreaterThan(limited.cost() * 1000);
+    }
+
+    @Test
+    void multiLinkPathsCombineTheirPredicates() {
+        PredicateStats.Predicate attributed = stats.get(NodeFactory.createURI("http://www.w3.org/ns/prov#wasAttributedTo"));
+        QueryCostEstimator.Estimate path = estimate("SELECT * WHERE { ?a prov:wasAttributedTo/arp:name ?n } LIMIT 1000000");
+        QueryCostEstimator.Estimate inverse = estimate("SELECT * WHERE { ?n ^arp:name/^prov:wasAttributedTo ?a } LIMIT 1000000");
+
+        // Câte un nume (sau câteva) pe atribuire, nu toate triplele grafului
+        assertThat(path.rows()).isBetween(attributed.triples() * 0.5, attributed.triples() * 5.0);
+        assertThat(path.rows()).isLessThan(stats.total().triples() / 2.0);
+        assertThat(inverse.rows()).isEqualTo(path.rows());
+    }
+
+    @Test
+    void transitivePathWithBothEndsUnboundIsReported() {
+        QueryCostEstimator.Estimate estimate = estimate("SELECT * WHERE { ?a prov:wasAttributedTo+ ?b } LIMIT 10");
+
+        assertThat(estimate.problems()).anyMatch(problem -> problem.startsWith("Transitive path"));
+    }
+
+    private static QueryCostEstimator.Estimate estimate(String query) {
+        return estimator.estimate(QueryFactory.create(PREFIXES + query), stats);
+    }
+}